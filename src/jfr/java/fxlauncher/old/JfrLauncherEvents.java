@@ -0,0 +1,209 @@
+package fxlauncher.old;
+
+import fxlauncher.model.lifecycle.LifecycleGraph;
+import fxlauncher.model.lifecycle.LifecyclePhase;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Frequency;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The flight recorder events of {@link LauncherEvents}. This class is looked up by name, so a
+ * launcher built or run without the <code>jdk.jfr</code> API falls back to no events at all.
+ */
+final class JfrLauncherEvents extends LauncherEvents {
+
+  @Override
+  LifecycleGraph.Listener phases() {
+    Map<LifecyclePhase, PhaseEvent> running = new ConcurrentHashMap<>();
+    return new LifecycleGraph.Listener() {
+      @Override
+      public void phaseStarted(LifecyclePhase phase) {
+        PhaseEvent event = new PhaseEvent();
+        event.phase = phase.name();
+        event.begin();
+        running.put(phase, event);
+      }
+
+      @Override
+      public void phaseFinished(
+          LifecyclePhase phase, long startNanos, long endNanos, Throwable failure) {
+        PhaseEvent event = running.remove(phase);
+        if (event == null) return;
+        event.end();
+        event.failed = failure != null;
+        event.commit();
+      }
+    };
+  }
+
+  @Override
+  Recording download(URI uri) {
+    DownloadEvent event = new DownloadEvent();
+    event.uri = uri.toString();
+    long start = System.nanoTime();
+    event.begin();
+    return (amount, failed) -> {
+      event.end();
+      if (!event.shouldCommit()) return;
+      long nanos = Math.max(1, System.nanoTime() - start);
+      event.bytes = amount;
+      event.throughput = amount * TimeUnit.SECONDS.toNanos(1) / nanos;
+      event.failed = failed;
+      event.commit();
+    };
+  }
+
+  @Override
+  Recording verification(String file) {
+    VerificationEvent event = new VerificationEvent();
+    event.file = file;
+    event.begin();
+    return (amount, failed) -> {
+      event.end();
+      event.bytes = amount;
+      event.mismatch = failed;
+      event.commit();
+    };
+  }
+
+  @Override
+  Recording manifestFetch(URI uri) {
+    ManifestFetchEvent event = new ManifestFetchEvent();
+    event.uri = uri.toString();
+    event.begin();
+    return (amount, failed) -> {
+      event.end();
+      event.contentLength = amount;
+      event.failed = failed;
+      event.commit();
+    };
+  }
+
+  @Override
+  Recording manifestParse(URI uri) {
+    ManifestParseEvent event = new ManifestParseEvent();
+    event.uri = uri.toString();
+    event.begin();
+    return (amount, failed) -> {
+      event.end();
+      event.files = (int) amount;
+      event.failed = failed;
+      event.commit();
+    };
+  }
+
+  @Override
+  Recording classLoader() {
+    ClassLoaderEvent event = new ClassLoaderEvent();
+    event.begin();
+    return (amount, failed) -> {
+      event.end();
+      event.jars = (int) amount;
+      event.failed = failed;
+      event.commit();
+    };
+  }
+
+  @Name("fxlauncher.LifecyclePhase")
+  @Label("Lifecycle Phase")
+  @Category("FXLauncher")
+  @Description("The work of a phase of the launcher lifecycle")
+  static class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Failed")
+    boolean failed;
+  }
+
+  @Name("fxlauncher.Download")
+  @Label("Download")
+  @Category("FXLauncher")
+  @Description("The download of a file of the application into the cache dir")
+  static class DownloadEvent extends Event {
+    @Label("URI")
+    String uri;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Throughput")
+    @DataAmount
+    @Frequency
+    long throughput;
+
+    @Label("Failed")
+    boolean failed;
+  }
+
+  @Name("fxlauncher.Verification")
+  @Label("Checksum Verification")
+  @Category("FXLauncher")
+  @Description("The check of a file in the cache dir against the checksum in the manifest")
+  static class VerificationEvent extends Event {
+    @Label("File")
+    String file;
+
+    @Label("Bytes Hashed")
+    @Description("0 when the checksum was known without reading the file")
+    @DataAmount
+    long bytes;
+
+    @Label("Mismatch")
+    boolean mismatch;
+  }
+
+  @Name("fxlauncher.ManifestFetch")
+  @Label("Manifest Fetch")
+  @Category("FXLauncher")
+  @Description("Opening the connection to a manifest, until the response starts")
+  static class ManifestFetchEvent extends Event {
+    @Label("URI")
+    String uri;
+
+    @Label("Content Length")
+    @DataAmount
+    long contentLength;
+
+    @Label("Failed")
+    boolean failed;
+  }
+
+  @Name("fxlauncher.ManifestParse")
+  @Label("Manifest Parse")
+  @Category("FXLauncher")
+  @Description("Reading and parsing a manifest")
+  static class ManifestParseEvent extends Event {
+    @Label("URI")
+    String uri;
+
+    @Label("Files")
+    int files;
+
+    @Label("Failed")
+    boolean failed;
+  }
+
+  @Name("fxlauncher.ClassLoader")
+  @Label("Class Loader Creation")
+  @Category("FXLauncher")
+  @Description("Indexing the jars of the application and creating its class loader")
+  static class ClassLoaderEvent extends Event {
+    @Label("Jars")
+    int jars;
+
+    @Label("Failed")
+    boolean failed;
+  }
+}
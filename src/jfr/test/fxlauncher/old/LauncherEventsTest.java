@@ -0,0 +1,94 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import fxlauncher.model.lifecycle.LifecycleGraph;
+import fxlauncher.model.lifecycle.LifecyclePhase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LauncherEventsTest {
+
+  @TempDir Path tempDir;
+
+  @BeforeEach
+  void requireFlightRecorder() {
+    assumeTrue(FlightRecorder.isAvailable());
+  }
+
+  @DisplayName("Records phases, downloads, verifications and manifest loads")
+  @Test
+  void recordsEvents() throws Exception {
+    Path repo = Files.createDirectory(tempDir.resolve("repo"));
+    Path cacheDir = Files.createDirectory(tempDir.resolve("cache"));
+    Path file = repo.resolve("app.jar");
+    Files.write(file, new byte[4096]);
+    LibraryFile lib = new LibraryFile(repo, file);
+
+    FXManifest manifest = new FXManifest();
+    manifest.uri = repo.toUri();
+    manifest.files.add(lib);
+    Path manifestFile = repo.resolve("app.xml");
+    FXManifestXml.write(manifest, manifestFile);
+
+    List<RecordedEvent> events;
+    try (Recording recording = new Recording()) {
+      recording.enable("fxlauncher.*");
+      recording.start();
+
+      new LifecycleGraph()
+          .listener(LauncherEvents.get().phases())
+          .task(LifecyclePhase.SYNC_ARTIFACTS, () -> {})
+          .run();
+      FXManifest.load(manifestFile.toUri());
+      new ArtifactDownloader(repo.toUri(), cacheDir, new DownloadProgress(lib.size, it -> {}))
+          .download(lib);
+      assertFalse(lib.needsUpdate(cacheDir));
+
+      recording.stop();
+      Path dump = tempDir.resolve("launch.jfr");
+      recording.dump(dump);
+      events = RecordingFile.readAllEvents(dump);
+    }
+
+    List<String> names =
+        events.stream().map(it -> it.getEventType().getName()).collect(Collectors.toList());
+    assertEquals(
+        LifecyclePhase.values().length,
+        names.stream().filter("fxlauncher.LifecyclePhase"::equals).count());
+    assertTrue(names.contains("fxlauncher.ManifestParse"));
+
+    RecordedEvent download = event(events, "fxlauncher.Download");
+    assertEquals(4096, download.getLong("bytes"));
+    assertTrue(download.getString("uri").endsWith("app.jar"));
+    assertFalse(download.getBoolean("failed"));
+
+    RecordedEvent verification = event(events, "fxlauncher.Verification");
+    assertEquals("app.jar", verification.getString("file"));
+    assertFalse(verification.getBoolean("mismatch"));
+  }
+
+  private static RecordedEvent event(List<RecordedEvent> events, String name) {
+    return events
+        .stream()
+        .filter(it -> it.getEventType().getName().equals(name))
+        .findFirst()
+        .orElseThrow(AssertionError::new);
+  }
+}
@@ -0,0 +1,23 @@
+package fxlauncher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starts JMH with the arguments of the <code>benchmark</code> profile, adding a <code>-prof
+ * </code> argument for every profiler in the comma separated <code>profilers</code> system
+ * property. Maven can not leave out an argument that is empty, so the profilers are passed as a
+ * property instead.
+ */
+public class BenchmarkRunner {
+  public static void main(String[] args) throws Exception {
+    List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+    for (String profiler : System.getProperty("profilers", "").split(",")) {
+      if (profiler.trim().isEmpty()) continue;
+      jmhArgs.add("-prof");
+      jmhArgs.add(profiler.trim());
+    }
+    org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+  }
+}
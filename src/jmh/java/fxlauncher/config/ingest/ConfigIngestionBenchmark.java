@@ -0,0 +1,134 @@
+package fxlauncher.config.ingest;
+
+import fxlauncher.downstream.DownstreamParameters;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fxlauncher.LauncherMain;
+
+/**
+ * Measures ingesting the launcher configuration from command-line arguments and from an embedded
+ * properties file, as the launcher does on every start. Logging is limited to warnings, so the
+ * numbers do not depend on the console.
+ *
+ * <p>The <code>many</code> benchmarks add {@value #DOWNSTREAM} options, flags and plain arguments
+ * for the application, like the wrapper scripts that pass hundreds of them through the launcher.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigIngestionBenchmark {
+
+  private static final int DOWNSTREAM = 500;
+  private static final String MANY_PROPERTIES = "/benchmark.many.launcher.properties";
+
+  private static final String[] ARGS = {
+    "--cache-dir=/tmp/fxlauncher-benchmark",
+    "--manifest-url=https://example.com/app/app.xml",
+    "--artifacts-repo-url=https://example.com/app",
+    "--log-file=/tmp/fxlauncher-benchmark.log",
+    "--offline",
+    "--accept-downgrade",
+    "--download-threads=8",
+    "--verify-cache",
+    "--class-trace=5",
+    "--user=someone",
+    "--theme=dark",
+    "document.txt"
+  };
+
+  private String[] manyArgs;
+  private Path manyProperties;
+
+  @Setup
+  public void setUp() throws IOException, URISyntaxException {
+    Logger.getLogger("").setLevel(Level.WARNING);
+
+    List<String> args = new ArrayList<>(Arrays.asList(ARGS));
+    for (int i = 0; i < DOWNSTREAM; i++) {
+      switch (i % 3) {
+        case 0:
+          args.add(String.format("--app-option-%d=value-%d", i, i));
+          break;
+        case 1:
+          args.add(String.format("--app-flag-%d", i));
+          break;
+        default:
+          args.add(String.format("document-%d.txt", i));
+      }
+    }
+    manyArgs = args.toArray(new String[0]);
+
+    // the ingester reads a classpath resource, so the large file goes next to the test one
+    Path testProperties =
+        Paths.get(LauncherMain.class.getResource("/test.launcher.properties").toURI());
+    manyProperties = testProperties.resolveSibling(MANY_PROPERTIES.substring(1));
+    try (Writer writer = Files.newBufferedWriter(manyProperties, StandardCharsets.UTF_8)) {
+      writer.write(new String(Files.readAllBytes(testProperties), StandardCharsets.UTF_8));
+      writer.write(System.lineSeparator());
+      for (int i = 0; i < DOWNSTREAM; i++) {
+        writer.write(
+            i % 2 == 0 ? String.format("app-option-%d=value-%d", i, i) : "app-flag-" + i);
+        writer.write(System.lineSeparator());
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(manyProperties);
+  }
+
+  @Benchmark
+  public DownstreamParameters args() {
+    return ingest(new ArgsIngester(ARGS));
+  }
+
+  @Benchmark
+  public DownstreamParameters manyArgs() {
+    return ingest(new ArgsIngester(manyArgs));
+  }
+
+  @Benchmark
+  public DownstreamParameters propertiesFile() {
+    return ingest(new PropertiesFileIngester("/test.launcher.properties"));
+  }
+
+  @Benchmark
+  public DownstreamParameters manyProperties() {
+    return ingest(new PropertiesFileIngester(MANY_PROPERTIES));
+  }
+
+  private static DownstreamParameters ingest(ConfigurationIngester ingester) {
+    DownstreamParameters downstream = new DownstreamParameters();
+    ingester.storeDownstreamParamsIn(downstream).ingest();
+    return downstream;
+  }
+}
@@ -0,0 +1,80 @@
+package fxlauncher.old;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long the Adler32 verification of a cached file takes at several file sizes, once
+ * by hashing the file and once with the checksum trusted from the {@link CacheIndex}. Divide the
+ * size by the average time for the throughput. The file is read from the page cache, so this is the
+ * cost of hashing, not of the disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChecksumBenchmark {
+
+  @Param({"65536", "1048576", "33554432"})
+  int size;
+
+  private Path cacheDir;
+  private LibraryFile lib;
+  private CacheIndex index;
+
+  @Setup
+  public void createFile() throws IOException {
+    cacheDir = Files.createTempDirectory("fxlauncher-checksum");
+    byte[] content = new byte[size];
+    new Random(42).nextBytes(content);
+    Path file = cacheDir.resolve("lib/artifact.jar");
+    Files.createDirectories(file.getParent());
+    Files.write(file, content);
+
+    lib = new LibraryFile(cacheDir, file);
+    index = CacheIndex.load(cacheDir, true);
+    index.record(lib.file, file, lib.checksum);
+  }
+
+  @TearDown
+  public void deleteCacheDir() throws IOException {
+    try (Stream<Path> files = Files.walk(cacheDir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(it -> it.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  public long checksum() throws IOException {
+    return LibraryFile.checksum(cacheDir.resolve(lib.file));
+  }
+
+  @Benchmark
+  public boolean needsUpdate() {
+    return lib.needsUpdate(cacheDir);
+  }
+
+  @Benchmark
+  public boolean needsUpdateIndexed() {
+    return lib.needsUpdate(cacheDir, index);
+  }
+}
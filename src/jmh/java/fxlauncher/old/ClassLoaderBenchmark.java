@@ -0,0 +1,128 @@
+package fxlauncher.old;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the class loading an application does on startup with a plain {@link URLClassLoader}
+ * and with the {@link IndexedClassLoader}.
+ *
+ * <p>Every invocation creates a fresh class loader over the same cache dir, loads a few classes
+ * from every jar and does the lookups of resources that are not there which service loaders and
+ * FXML loading make. The indexed variant includes reading the stored package index.
+ *
+ * <p>{@link #createClassLoader()} measures what the launcher pays before the application starts:
+ * {@link AbstractLauncher#createClassLoader} followed by loading the first class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassLoaderBenchmark {
+
+  @Param({"300"})
+  int jars;
+
+  @Param({"10"})
+  int classesPerJar;
+
+  @Param({"100"})
+  int misses;
+
+  private Path cacheDir;
+  private List<LibraryFile> libs;
+  private URL[] urls;
+  private List<String> classNames;
+  private HeadlessMainLauncher launcher;
+
+  @Setup
+  public void createCacheDir() throws IOException {
+    cacheDir = Files.createTempDirectory("fxlauncher-classloader");
+    libs = new ArrayList<>();
+    classNames = new ArrayList<>();
+    urls = new URL[jars];
+    for (int jar = 0; jar < jars; jar++) {
+      List<String> names = new ArrayList<>();
+      for (int i = 0; i < classesPerJar; i++)
+        names.add(String.format("com.example.module%03d.Class%02d", jar, i));
+      Path file = cacheDir.resolve(String.format("lib/module-%03d.jar", jar));
+      TestJars.write(file, names, Collections.emptyMap());
+
+      libs.add(new LibraryFile(cacheDir, file));
+      urls[jar] = file.toUri().toURL();
+      classNames.addAll(names);
+    }
+    PackageIndex.load(cacheDir, libs);
+
+    FXManifest manifest = new FXManifest();
+    manifest.files.addAll(libs);
+    manifest.launchClass = classNames.get(0);
+    launcher = new HeadlessMainLauncher(new LauncherParams(Collections.emptyList()));
+    launcher.manifest = manifest;
+  }
+
+  @TearDown
+  public void deleteCacheDir() throws IOException {
+    try (Stream<Path> files = Files.walk(cacheDir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(it -> it.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  public void urlClassLoader(Blackhole blackhole) throws Exception {
+    try (URLClassLoader loader = new URLClassLoader(urls, null)) {
+      startup(loader, blackhole);
+    }
+  }
+
+  @Benchmark
+  public void indexedClassLoader(Blackhole blackhole) throws Exception {
+    try (IndexedClassLoader loader =
+        new IndexedClassLoader(PackageIndex.load(cacheDir, libs), null)) {
+      startup(loader, blackhole);
+    }
+  }
+
+  @Benchmark
+  public Class<?> createClassLoader() throws Exception {
+    ClassLoader loader = launcher.createClassLoader(cacheDir);
+    try {
+      return loader.loadClass(launcher.getManifest().launchClass);
+    } finally {
+      ((IndexedClassLoader) loader).close();
+    }
+  }
+
+  private void startup(ClassLoader loader, Blackhole blackhole) throws Exception {
+    for (String name : classNames) blackhole.consume(loader.loadClass(name));
+    for (int i = 0; i < misses; i++) {
+      blackhole.consume(loader.getResource(String.format("com/example/view/View%d.fxml", i)));
+      blackhole.consume(loader.getResources("META-INF/services/com.example.Service" + i));
+    }
+  }
+}
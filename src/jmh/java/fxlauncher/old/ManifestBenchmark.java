@@ -0,0 +1,112 @@
+package fxlauncher.old;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXB;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the streaming {@link FXManifestXml} reader and writer with the JAXB mapping.
+ *
+ * <p>The steady state benchmarks measure parsing and writing once both paths are warmed up. The
+ * cold benchmarks measure the first manifest parsed by a fresh JVM, which is what the launcher pays
+ * on startup, including class loading and, for JAXB, building the context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ManifestBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  int entries;
+
+  private FXManifest manifest;
+  private byte[] xml;
+
+  @Setup
+  public void createManifest() throws IOException {
+    manifest = createManifest(entries);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    FXManifestXml.write(manifest, output);
+    xml = output.toByteArray();
+  }
+
+  @Benchmark
+  public FXManifest readStax() throws IOException {
+    return FXManifestXml.read(new ByteArrayInputStream(xml));
+  }
+
+  @Benchmark
+  public FXManifest readJaxb() {
+    return JAXB.unmarshal(new ByteArrayInputStream(xml), FXManifest.class);
+  }
+
+  @Benchmark
+  public byte[] writeStax() throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream(xml.length);
+    FXManifestXml.write(manifest, output);
+    return output.toByteArray();
+  }
+
+  @Benchmark
+  public byte[] writeJaxb() {
+    ByteArrayOutputStream output = new ByteArrayOutputStream(xml.length);
+    JAXB.marshal(manifest, output);
+    return output.toByteArray();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  @Fork(10)
+  public FXManifest coldReadStax() throws IOException {
+    return readStax();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  @Fork(10)
+  public FXManifest coldReadJaxb() {
+    return readJaxb();
+  }
+
+  static FXManifest createManifest(int entries) {
+    FXManifest manifest = new FXManifest();
+    manifest.ts = System.currentTimeMillis();
+    manifest.uri = URI.create("http://localhost/repository/");
+    manifest.launchClass = "com.example.Main";
+    manifest.parameters = "--benchmark";
+
+    OS[] platforms = {null, null, null, OS.win, OS.mac, OS.linux};
+    for (int i = 0; i < entries; i++) {
+      LibraryFile lib = new LibraryFile();
+      lib.file = String.format("lib/com/example/module-%05d/module-%05d-1.0.%d.jar", i, i, i % 7);
+      lib.checksum = (long) Integer.MAX_VALUE + i * 7919L;
+      lib.size = 1024L + i * 31L;
+      lib.os = platforms[i % platforms.length];
+      manifest.files.add(lib);
+    }
+    return manifest;
+  }
+}
@@ -0,0 +1,102 @@
+package fxlauncher.old;
+
+import fxlauncher.config.LauncherConfig;
+import fxlauncher.config.LauncherOption;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a first launch end to end over http: {@link AbstractLauncher#syncFiles} downloads a
+ * {@link SyntheticRepository} from a {@link StandInServer} into an empty cache dir. The latency and
+ * the bandwidth caps of the server simulate the network, so the results show how much the parallel
+ * downloads gain on a slow or distant repository, without one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RemoteSyncBenchmark {
+
+  @Param({"100"})
+  int jars;
+
+  /** Milliseconds before every response. */
+  @Param({"0", "50"})
+  long latency;
+
+  /** Bytes per second of every connection, 0 for no cap. */
+  @Param({"0", "4194304"})
+  long bandwidth;
+
+  @Param({"1", "4"})
+  int threads;
+
+  private Path root;
+  private Path cacheDir;
+  private StandInServer server;
+  private FXManifest manifest;
+  private HeadlessMainLauncher launcher;
+
+  @Setup
+  public void startServer() throws Exception {
+    root = Files.createTempDirectory("fxlauncher-remote-sync");
+    Path repo = Files.createDirectory(root.resolve("repo"));
+    server = new StandInServer(repo);
+    manifest =
+        new SyntheticRepository(repo)
+            .jars(jars)
+            .sizes(64 * 1024, 1.0, 4 * 1024 * 1024)
+            .nativeLibs(2, 256 * 1024)
+            .create(server.uri());
+    server.latency(latency).bandwidth(bandwidth, 0);
+
+    LauncherConfig.setOption(LauncherOption.DOWNLOAD_THREADS, Integer.toString(threads));
+    launcher = new HeadlessMainLauncher(new LauncherParams(Collections.emptyList()));
+  }
+
+  @Setup(Level.Invocation)
+  public void emptyCacheDir() throws IOException {
+    cacheDir = root.resolve("cache");
+    delete(cacheDir);
+  }
+
+  @TearDown
+  public void stopServer() throws IOException {
+    server.close();
+    delete(root);
+  }
+
+  @Benchmark
+  public boolean firstLaunch() throws Exception {
+    return launcher.syncFiles(manifest, cacheDir, null, progress -> {});
+  }
+
+  private static void delete(Path dir) throws IOException {
+    if (!Files.exists(dir)) return;
+    try (Stream<Path> paths = Files.walk(dir)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(it -> it.toFile().delete());
+    }
+  }
+}
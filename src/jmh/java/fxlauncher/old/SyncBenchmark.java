@@ -0,0 +1,106 @@
+package fxlauncher.old;
+
+import fxlauncher.config.LauncherConfig;
+import fxlauncher.config.LauncherOption;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link AbstractLauncher#syncFiles} against a <code>file:</code> repository: a first
+ * launch into an empty cache dir, and a later launch where every file is cached already and only
+ * has to be verified.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SyncBenchmark {
+
+  @Param({"200"})
+  int files;
+
+  @Param({"65536"})
+  int fileSize;
+
+  @Param({"1", "4"})
+  int threads;
+
+  private Path root;
+  private Path cacheDir;
+  private Path warmCacheDir;
+  private FXManifest manifest;
+  private HeadlessMainLauncher launcher;
+
+  @Setup
+  public void createRepository() throws Exception {
+    root = Files.createTempDirectory("fxlauncher-sync");
+    Path repo = Files.createDirectory(root.resolve("repo"));
+    manifest = new FXManifest();
+    manifest.uri = repo.toUri();
+    Random random = new Random(42);
+    byte[] content = new byte[fileSize];
+    for (int i = 0; i < files; i++) {
+      random.nextBytes(content);
+      Path file = repo.resolve(String.format("lib/artifact-%04d.jar", i));
+      Files.createDirectories(file.getParent());
+      Files.write(file, content);
+      manifest.files.add(new LibraryFile(repo, file));
+    }
+
+    LauncherConfig.setOption(LauncherOption.DOWNLOAD_THREADS, Integer.toString(threads));
+    launcher = new HeadlessMainLauncher(new LauncherParams(Collections.emptyList()));
+    warmCacheDir = root.resolve("warm");
+    launcher.syncFiles(manifest, warmCacheDir, null, progress -> {});
+  }
+
+  @Setup(Level.Invocation)
+  public void emptyCacheDir() throws IOException {
+    cacheDir = root.resolve("cold");
+    delete(cacheDir);
+  }
+
+  @TearDown
+  public void deleteRepository() throws IOException {
+    delete(root);
+  }
+
+  @Benchmark
+  public boolean firstLaunch() throws Exception {
+    return launcher.syncFiles(manifest, cacheDir, null, progress -> {});
+  }
+
+  @Benchmark
+  public boolean upToDate() throws Exception {
+    return launcher.syncFiles(manifest, warmCacheDir, null, progress -> {});
+  }
+
+  private static void delete(Path dir) throws IOException {
+    if (!Files.exists(dir)) return;
+    try (Stream<Path> paths = Files.walk(dir)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(it -> it.toFile().delete());
+    }
+  }
+}
@@ -6,29 +6,53 @@ import java.util.EnumMap;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import fxlauncher.except.FXLauncherConfigException;
+import fxlauncher.model.lifecycle.Lifecycle;
 import fxlauncher.model.lifecycle.LifecyclePhase;
 
 /**
  * Class represents the current configuration state of the FXLauncher application itself, and
  * provides methods for changing that state.
  *
- * <p>Class is internally a singleton, accessed by static methods.
+ * <p>The configuration of a launcher that runs alone is a singleton, accessed by static methods.
+ * Launchers that share a JVM each create an instance of their own, tied to their own {@link
+ * Lifecycle}.
  *
  * @author idavis1
  */
 public class LauncherConfig {
 
   private static final Logger log = getLogger(LauncherConfig.class.getName());
-  private static final LauncherConfig instance = new LauncherConfig();
+  private static final LauncherConfig instance = new LauncherConfig(Lifecycle.global());
 
   private final Map<LauncherOption, String> configMap =
       new EnumMap<LauncherOption, String>(LauncherOption.class);
+  private final Map<LauncherOption, LifecyclePhase> setDuring =
+      new EnumMap<LauncherOption, LifecyclePhase>(LauncherOption.class);
+  private final Lifecycle lifecycle;
+
+  /**
+   * Create the configuration of a launcher that shares the JVM with others.
+   *
+   * @param lifecycle the lifecycle of the launcher, which tells during which phase an option is set
+   */
+  public LauncherConfig(Lifecycle lifecycle) {
+    this.lifecycle = lifecycle;
+  }
+
+  /** @return the configuration of the launcher that runs alone in this JVM */
+  public static LauncherConfig shared() {
+    return instance;
+  }
 
   static void restoreDefaults() {
-    instance.configMap.clear();
+    synchronized (instance) {
+      instance.configMap.clear();
+      instance.setDuring.clear();
+    }
   }
 
   /**
@@ -41,15 +65,7 @@ public class LauncherConfig {
    * @param value the value to be associated
    */
   public static void setOption(LauncherOption option, String value) {
-    log.finer(ATTEMPT_SET_MSG.apply(option, value));
-    String resolved = option.getResolver().apply(value);
-    // note: using Object.equals() here breaks if both are null
-    if (value != resolved) log.finer(RESOLVED_MSG.apply(value, resolved));
-    validateOptionValue(option, value);
-
-    instance.configMap.put(option, resolved);
-    option.recordOptionSet(LifecyclePhase.current);
-    log.fine(OPTION_SET_MSG.apply(option, resolved));
+    instance.set(option, value);
   }
 
   /**
@@ -60,7 +76,49 @@ public class LauncherConfig {
    *     suitable default if no explicit value is present
    */
   public static String getOption(LauncherOption option) {
-    return instance.configMap.getOrDefault(option, option.getDefault());
+    return instance.get(option);
+  }
+
+  /**
+   * update the value of a {@link LauncherOption} in this configuration, see {@link
+   * #setOption(LauncherOption, String)}.
+   *
+   * @param option the {@link LauncherOption} to be associated with a value
+   * @param value the value to be associated
+   */
+  public synchronized void set(LauncherOption option, String value) {
+    boolean finer = log.isLoggable(Level.FINER);
+    if (finer) log.finer(ATTEMPT_SET_MSG.apply(option, value));
+    String resolved = option.getResolver().apply(value);
+    // note: using Object.equals() here breaks if both are null
+    if (finer && value != resolved) log.finer(RESOLVED_MSG.apply(value, resolved));
+    validateOptionValue(option, value);
+
+    configMap.put(option, resolved);
+    LifecyclePhase phase = lifecycle.getCurrent();
+    setDuring.put(option, phase);
+    // the options themselves only keep track of the configuration of a launcher that runs alone
+    if (this == instance) option.recordOptionSet(phase);
+    if (log.isLoggable(Level.FINE)) log.fine(OPTION_SET_MSG.apply(option, resolved));
+  }
+
+  /**
+   * Fetch the value of a {@link LauncherOption} in this configuration.
+   *
+   * @param option the {@link LauncherOption} to be retrieved
+   * @return the explicitly-set value, or a suitable default if no explicit value is present
+   */
+  public synchronized String get(LauncherOption option) {
+    return configMap.getOrDefault(option, option.getDefault());
+  }
+
+  /**
+   * @param option a {@link LauncherOption}
+   * @return the phase during which the option was last set in this configuration, or {@link
+   *     LifecyclePhase#STARTUP} if it was never set
+   */
+  public synchronized LifecyclePhase getSetDuring(LauncherOption option) {
+    return setDuring.getOrDefault(option, LifecyclePhase.STARTUP);
   }
 
   private static void validateOptionValue(LauncherOption option, String value) {
@@ -45,6 +45,23 @@ public enum LauncherOption {
   WHATS_NEW_URL("whats-new-url", true, Defaults.NONE, null, Validator.URL),
   LINGERING_UPDATE_SCREEN(
       "lingering-update-screen", false, Defaults.BOOL_TRUE, Resolver.BOOL, Validator.BOOL),
+  DOWNLOAD_THREADS(
+      "download-threads", true, Defaults.DOWNLOAD_THREADS, null, Validator.POSITIVE_INT),
+  VERIFY_CACHE("verify-cache", false, Defaults.BOOL_FALSE, Resolver.BOOL, Validator.BOOL),
+  ARTIFACT_STORE("artifact-store", true, Defaults.NONE, Resolver.CACHE_DIR, null),
+  BACKGROUND_UPDATE(
+      "background-update", false, Defaults.BOOL_FALSE, Resolver.BOOL, Validator.BOOL),
+  APP_CDS("app-cds", false, Defaults.BOOL_FALSE, Resolver.BOOL, Validator.BOOL),
+  CLASS_TRACE("class-trace", true, Defaults.CLASS_TRACE, null, Validator.NON_NEGATIVE_INT),
+  STARTUP_TRACE("startup-trace", false, Defaults.BOOL_FALSE, Resolver.BOOL, Validator.BOOL),
+  MIRRORS("mirrors", true, Defaults.NONE, null, null),
+  HEDGE_PERCENTILE(
+      "hedge-percentile", true, Defaults.HEDGE_PERCENTILE, null, Validator.POSITIVE_INT),
+  DAEMON("daemon", false, Defaults.BOOL_FALSE, Resolver.BOOL, Validator.BOOL),
+  POLL_INTERVAL("poll-interval", true, Defaults.POLL_INTERVAL, null, Validator.POSITIVE_INT),
+  UPDATE_JITTER(
+      "update-jitter", true, Defaults.UPDATE_JITTER, null, Validator.NON_NEGATIVE_INT),
+  CLIENT_ID("client-id", true, Defaults.NONE, null, null),
   ;
 
   private static final Logger log = getLogger(LauncherOption.class.getName());
@@ -52,6 +69,7 @@ public enum LauncherOption {
   // the string that should be used in a command-line argument or properties file
   // to set this option
   private final String label;
+  private final boolean hasArg;
   private final Pattern pattern;
 
   // used to identify when a value has not been explicitly set by a user
@@ -62,6 +80,20 @@ public enum LauncherOption {
   private final Resolver resolver;
   private final Validator validator;
 
+  // open-addressing table from label to option, so arguments and properties can be matched
+  // without a regex or a substring per option
+  private static final LauncherOption[] BY_LABEL;
+
+  static {
+    int size = Integer.highestOneBit(values().length * 4);
+    BY_LABEL = new LauncherOption[size];
+    for (LauncherOption opt : values()) {
+      int i = labelHash(opt.label, 0, opt.label.length()) & (size - 1);
+      while (BY_LABEL[i] != null) i = (i + 1) & (size - 1);
+      BY_LABEL[i] = opt;
+    }
+  }
+
   /**
    * Convenience method for returning the values as a {@link Set} (which is iterable)
    *
@@ -83,6 +115,44 @@ public enum LauncherOption {
         .collect(Collectors.toSet());
   }
 
+  /**
+   * Find the option with the given label
+   *
+   * @param label the label of an option, as in a properties file
+   * @return the {@link LauncherOption}, or {@code null} if no option has that label
+   */
+  public static LauncherOption forLabel(String label) {
+    return forLabel(label, 0, label.length());
+  }
+
+  /**
+   * Find the option whose label is a part of a string, such as the name in a command-line argument,
+   * without copying that part
+   *
+   * @param string the string that contains the label
+   * @param start the index of the first character of the label
+   * @param end the index after the last character of the label
+   * @return the {@link LauncherOption}, or {@code null} if no option has that label
+   */
+  public static LauncherOption forLabel(String string, int start, int end) {
+    int length = end - start;
+    int mask = BY_LABEL.length - 1;
+    for (int i = labelHash(string, start, end) & mask; BY_LABEL[i] != null; i = (i + 1) & mask) {
+      String label = BY_LABEL[i].label;
+      if (label.length() == length && string.regionMatches(start, label, 0, length)) {
+        return BY_LABEL[i];
+      }
+    }
+    return null;
+  }
+
+  // String.hashCode() of the part, spread so the low bits pick the slot
+  private static int labelHash(String string, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) hash = 31 * hash + string.charAt(i);
+    return hash ^ (hash >>> 16);
+  }
+
   /**
    * Get a subset of options that satisfy some predicate
    *
@@ -144,6 +214,7 @@ public enum LauncherOption {
   private LauncherOption(
       String label, boolean hasArg, String defaultVal, Resolver resolver, Validator validator) {
     this.label = label;
+    this.hasArg = hasArg;
     this.defaultVal = defaultVal;
 
     String patternString = Stream.of("--", label, hasArg ? "=(.+)" : "").collect(joining());
@@ -162,6 +233,17 @@ public enum LauncherOption {
     return this.label;
   }
 
+  /**
+   * check whether this {@link LauncherOption} takes a value, as in {@code --label=value}, or is a
+   * flag, as in {@code --label}
+   *
+   * @return {@code true} if this {@link LauncherOption} takes a value, {@code false} if it is a
+   *     flag
+   */
+  public boolean hasArg() {
+    return this.hasArg;
+  }
+
   /**
    * get the default value from this {@link LauncherOption}
    *
@@ -247,7 +329,7 @@ public enum LauncherOption {
    * @param phase the {@link LifecyclePhase} during which this option was last set
    */
   void recordOptionSet(LifecyclePhase phase) {
-    log.finer(String.format("Option '%s' set during phase '%s'", this, phase));
+    log.finer(() -> String.format("Option '%s' set during phase '%s'", this, phase));
     this.lastSetDuring = phase;
   }
 
@@ -266,6 +348,11 @@ public enum LauncherOption {
     private static final String CACHE_DIR = Paths.get(".").toString();
     private static final String BOOL_FALSE = Boolean.FALSE.toString();
     private static final String BOOL_TRUE = Boolean.TRUE.toString();
+    private static final String DOWNLOAD_THREADS = "4";
+    private static final String CLASS_TRACE = "10";
+    private static final String HEDGE_PERCENTILE = "95";
+    private static final String POLL_INTERVAL = "300";
+    private static final String UPDATE_JITTER = "60";
     private static final String NONE = null;
   }
 }
@@ -14,6 +14,8 @@ public interface Validator extends Predicate<String> {
   public static String getExpected(Validator validator) {
     if (validator == Validator.BOOL) return "boolean";
     if (validator == Validator.URL) return "URL";
+    if (validator == Validator.POSITIVE_INT) return "positive integer";
+    if (validator == Validator.NON_NEGATIVE_INT) return "non-negative integer";
     return "String";
   }
 
@@ -30,7 +32,10 @@ public interface Validator extends Predicate<String> {
   public static final Validator BOOL =
       string -> {
         Logger.getLogger(Validator.BOOL.getClass().getName())
-            .finer(String.format("validating as boolean: '%s'", string == null ? "null" : string));
+            .finer(
+                () ->
+                    String.format(
+                        "validating as boolean: '%s'", string == null ? "null" : string));
         // assume flag-behavior for boolean... if it's explicitly set by name-only, it's true
         return (string == null || string.trim().equals(""))
             ? true
@@ -40,10 +45,36 @@ public interface Validator extends Predicate<String> {
   public static final Validator URL =
       string -> {
         Logger.getLogger(Validator.URL.getClass().getName())
-            .finer(String.format("validating as URL: '%s'", string));
+            .finer(() -> String.format("validating as URL: '%s'", string));
 
         return (string == null || string.equals(""))
             ? false
             : URL_PATTERN.matcher(string).matches();
       };
+
+  public static final Validator POSITIVE_INT =
+      string -> {
+        Logger.getLogger(Validator.POSITIVE_INT.getClass().getName())
+            .finer(() -> String.format("validating as positive integer: '%s'", string));
+
+        if (string == null) return false;
+        try {
+          return Integer.parseInt(string.trim()) > 0;
+        } catch (NumberFormatException nfe) {
+          return false;
+        }
+      };
+
+  public static final Validator NON_NEGATIVE_INT =
+      string -> {
+        Logger.getLogger(Validator.NON_NEGATIVE_INT.getClass().getName())
+            .finer(() -> String.format("validating as non-negative integer: '%s'", string));
+
+        if (string == null) return false;
+        try {
+          return Integer.parseInt(string.trim()) >= 0;
+        } catch (NumberFormatException nfe) {
+          return false;
+        }
+      };
 }
@@ -2,15 +2,15 @@ package fxlauncher.config.ingest;
 
 import static java.util.logging.Logger.getLogger;
 import static java.util.stream.Collectors.joining;
-import static java.util.stream.Collectors.toList;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
+import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
 import java.util.stream.Stream;
 
 import fxlauncher.config.LauncherConfig;
@@ -41,25 +41,33 @@ public class ArgsIngester extends ConfigurationIngester {
   // -- invoked by superclass when ingest() is called.
   @Override
   protected List<String> _ingest() {
-    log.info(BEGIN_MSG.apply(argsSupplier.get()));
-    List<String> leftovers =
-        Stream.of(argsSupplier.get()).filter(this::matchAndExtract).collect(toList());
+    String[] args = argsSupplier.get();
+    if (log.isLoggable(Level.INFO)) log.info(BEGIN_MSG.apply(args));
+    List<String> leftovers = new ArrayList<>(args.length);
+    for (String arg : args) {
+      if (!matchAndExtract(arg)) leftovers.add(arg);
+    }
     return leftovers;
   }
 
+  /*
+   * An argument is an option when it is '--label' for a flag, or '--label=value' with a
+   * non-empty value for an option that takes one. The label is looked up in place, so the only
+   * string made for an option is its value.
+   */
   private boolean matchAndExtract(String arg) {
-    for (LauncherOption opt : LauncherOption.getValueSet()) {
-      Matcher matcher = opt.getMatcher(arg);
-      if (matcher.matches()) {
-        log.finer(MATCHED_OPT_MSG.apply(arg, opt.toString()));
-        String value = matcher.groupCount() == 0 ? null : matcher.group(1);
-        ingestOp.accept(opt, value);
-        return false;
-      } else {
-        log.finer(UNMATCHED_OPT_MSG.apply(arg));
-        continue;
-      }
+    LauncherOption opt = null;
+    int eq = -1;
+    if (arg.startsWith("--")) {
+      eq = arg.indexOf('=', 2);
+      opt = LauncherOption.forLabel(arg, 2, eq < 0 ? arg.length() : eq);
+    }
+    if (opt == null || opt.hasArg() != eq >= 0 || eq == arg.length() - 1) {
+      if (log.isLoggable(Level.FINER)) log.finer(UNMATCHED_OPT_MSG.apply(arg));
+      return false;
     }
+    if (log.isLoggable(Level.FINER)) log.finer(MATCHED_OPT_MSG.apply(arg, opt.toString()));
+    ingestOp.accept(opt, eq < 0 ? null : arg.substring(eq + 1));
     return true;
   }
 
@@ -43,6 +43,17 @@ public abstract class ConfigurationIngester {
     leftovers.forEach(arg -> downstreamParams.merge(arg, overwriteArgs));
   }
 
+  /**
+   * Ingest the options into the given configuration instead of the shared one.
+   *
+   * @param config the configuration of a launcher
+   * @return this ingester
+   */
+  public ConfigurationIngester storeOptionsIn(LauncherConfig config) {
+    this.ingestOp = config::set;
+    return this;
+  }
+
   public ConfigurationIngester storeDownstreamParamsIn(DownstreamParameters downstreamParams) {
     this.downstreamParams = downstreamParams;
     return this;
@@ -1,11 +1,11 @@
 package fxlauncher.config.ingest;
 
 import static java.util.logging.Logger.getLogger;
-import static java.util.stream.Collectors.toList;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -14,6 +14,7 @@ import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import fxlauncher.config.LauncherOption;
@@ -59,9 +60,16 @@ public class PropertiesFileIngester extends ConfigurationIngester {
   @Override
   protected List<String> _ingest() {
     loadEmbeddedProps(resourceNameSupplier.get());
-    Map<Object, Object> propsMap = new HashMap<>(props);
-    propsMap.forEach((key, value) -> matchAndExtract(key, value));
-    return props.entrySet().stream().map(PropertiesFileIngester::formatProperty).collect(toList());
+    List<String> leftovers = new ArrayList<>();
+    for (Iterator<Map.Entry<Object, Object>> it = props.entrySet().iterator(); it.hasNext(); ) {
+      Map.Entry<Object, Object> property = it.next();
+      if (matchAndExtract(property.getKey(), property.getValue())) {
+        it.remove();
+      } else {
+        leftovers.add(formatProperty(property));
+      }
+    }
+    return leftovers;
   }
 
   private void loadEmbeddedProps(String resourceName) {
@@ -81,22 +89,19 @@ public class PropertiesFileIngester extends ConfigurationIngester {
     }
   }
 
-  private void matchAndExtract(Object keyObj, Object valueObj) {
+  private boolean matchAndExtract(Object keyObj, Object valueObj) {
     String key = keyObj.toString();
     String value = valueObj.toString();
 
-    log.finer(INGEST_PROP_MSG.apply(key, value));
-    boolean found = false;
-    for (LauncherOption opt : LauncherOption.values()) {
-      if (key.equals(opt.getLabel())) {
-        log.finer(MATCHED_OPT_MSG.apply(key, opt.toString()));
-        ingestOp.accept(opt, value);
-        props.remove(key);
-        return;
-      }
+    if (log.isLoggable(Level.FINER)) log.finer(INGEST_PROP_MSG.apply(key, value));
+    LauncherOption opt = LauncherOption.forLabel(key);
+    if (opt == null) {
+      if (log.isLoggable(Level.FINER)) log.finer(UNMATCHED_OPT_MSG.apply(key));
+      return false;
     }
-
-    log.finer(UNMATCHED_OPT_MSG.apply(key));
+    if (log.isLoggable(Level.FINER)) log.finer(MATCHED_OPT_MSG.apply(key, opt.toString()));
+    ingestOp.accept(opt, value);
+    return true;
   }
 
   private static String formatProperty(Map.Entry<Object, Object> property) {
@@ -130,7 +135,7 @@ public class PropertiesFileIngester extends ConfigurationIngester {
               key);
 
   private static final Function<Map.Entry<Object, Object>, String> NAMED_PROP_FMT =
-      prop -> String.format("--%s=%s", prop.getKey().toString(), prop.getValue().toString());
+      prop -> "--" + prop.getKey() + "=" + prop.getValue();
   private static final Function<Map.Entry<Object, Object>, String> UNNAMED_PROP_FMT =
-      prop -> String.format("--%s", prop.getKey().toString());
+      prop -> "--" + prop.getKey();
 }
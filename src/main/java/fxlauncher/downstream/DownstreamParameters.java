@@ -6,8 +6,6 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javafx.application.Application;
 
@@ -27,8 +25,6 @@ public class DownstreamParameters extends Application.Parameters {
     super();
   }
 
-  private static final Pattern NAMED_PATTERN = Pattern.compile("--(?<key>.+)=(?<value>.+)");
-
   // use Set to simply enforce uniqueness
   // using LinkedHashSet preserves insertion order
   private Set<String> rawParams = new LinkedHashSet<>();
@@ -99,10 +95,13 @@ public class DownstreamParameters extends Application.Parameters {
    * @param overwrite a boolean indicating whether existing parameters should be overwritten
    */
   public void merge(String string, boolean overwrite) {
-    Matcher matcher = NAMED_PATTERN.matcher(string);
-    if (matcher.find()) {
-      String key = matcher.group("key");
-      String value = matcher.group("value");
+    // named when it contains '--key=value': the key runs from the first '--' to the last '=' that
+    // is followed by a value, as in '--key=a=b' => key 'key=a', value 'b'
+    int dashes = string.indexOf("--");
+    int eq = string.lastIndexOf('=', string.length() - 2);
+    if (dashes >= 0 && eq > dashes + 2) {
+      String key = string.substring(dashes + 2, eq);
+      String value = string.substring(eq + 1);
       if (overwrite || !namedParams.containsKey(key)) {
         namedParams.put(key, value);
       }
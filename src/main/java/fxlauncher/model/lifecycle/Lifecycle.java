@@ -0,0 +1,101 @@
+package fxlauncher.model.lifecycle;
+
+import static java.util.logging.Logger.getLogger;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+/**
+ * The current {@link LifecyclePhase} of one launcher, and the listeners to notify when it changes.
+ *
+ * <p>A launcher that runs alone uses {@link #global()}, the lifecycle kept by the static members of
+ * {@link LifecyclePhase}. Launchers that share a JVM each create their own, so the phase of one
+ * application does not move the others along.
+ *
+ * @author idavis1
+ */
+public class Lifecycle {
+  private static final Logger log = getLogger(Lifecycle.class.getName());
+
+  private static final Lifecycle GLOBAL =
+      new Lifecycle() {
+        @Override
+        public LifecyclePhase getCurrent() {
+          return LifecyclePhase.current;
+        }
+
+        @Override
+        public void setCurrent(LifecyclePhase phase) {
+          LifecyclePhase.setCurrent(phase);
+        }
+
+        @Override
+        public void registerEnterListener(LifecyclePhase phase, LifecycleListener listener) {
+          phase.registerEnterListener(listener);
+        }
+
+        @Override
+        public void registerExitListener(LifecyclePhase phase, LifecycleListener listener) {
+          phase.registerExitListener(listener);
+        }
+      };
+
+  private final Map<LifecyclePhase, List<LifecycleListener>> enterListeners =
+      new EnumMap<>(LifecyclePhase.class);
+  private final Map<LifecyclePhase, List<LifecycleListener>> exitListeners =
+      new EnumMap<>(LifecyclePhase.class);
+  private volatile LifecyclePhase current = LifecyclePhase.STARTUP;
+
+  /** @return the lifecycle of the launcher that runs alone in this JVM */
+  public static Lifecycle global() {
+    return GLOBAL;
+  }
+
+  /** @return the current phase */
+  public LifecyclePhase getCurrent() {
+    return current;
+  }
+
+  /**
+   * Move to a new current lifecycle phase and notify listeners
+   *
+   * @param phase the new current phase
+   */
+  public synchronized void setCurrent(LifecyclePhase phase) {
+    log.fine(String.format("exiting launcher lifecycle phase %s", current));
+    listenersOf(exitListeners, current).forEach(LifecycleListener::notifyListener);
+    current = phase;
+    log.fine(String.format("beginning launcher lifecycle phase %s", current));
+    listenersOf(enterListeners, current).forEach(LifecycleListener::notifyListener);
+  }
+
+  /**
+   * add a listener to be notified when entering a phase
+   *
+   * @param phase the phase
+   * @param listener the {@link LifecycleListener} to add
+   */
+  public synchronized void registerEnterListener(
+      LifecyclePhase phase, LifecycleListener listener) {
+    enterListeners.computeIfAbsent(phase, it -> new CopyOnWriteArrayList<>()).add(listener);
+  }
+
+  /**
+   * add a listener to be notified when exiting a phase
+   *
+   * @param phase the phase
+   * @param listener the {@link LifecycleListener} to add
+   */
+  public synchronized void registerExitListener(LifecyclePhase phase, LifecycleListener listener) {
+    exitListeners.computeIfAbsent(phase, it -> new CopyOnWriteArrayList<>()).add(listener);
+  }
+
+  private static List<LifecycleListener> listenersOf(
+      Map<LifecyclePhase, List<LifecycleListener>> listeners, LifecyclePhase phase) {
+    return listeners.getOrDefault(phase, Collections.emptyList());
+  }
+}
@@ -0,0 +1,336 @@
+package fxlauncher.model.lifecycle;
+
+import static java.util.logging.Logger.getLogger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Runs the work of each {@link LifecyclePhase} as soon as the phases it depends on are complete, so
+ * phases that do not depend on each other run concurrently.
+ *
+ * <p>Listeners are still notified one phase at a time, in declaration order: a phase is announced
+ * through the {@link Lifecycle} of the graph, {@link Lifecycle#global()} unless set otherwise,
+ * once it has begun and every phase declared before it has been announced. Phases without a task
+ * complete as soon as their dependencies do.
+ *
+ * <p>After a run, {@link #getCriticalPath()} tells which chain of phases determined the total
+ * startup time.
+ *
+ * @author idavis1
+ */
+public class LifecycleGraph {
+  private static final Logger log = getLogger(LifecycleGraph.class.getName());
+
+  private static final LifecyclePhase[] PHASES = LifecyclePhase.values();
+
+  /** The work done during a phase. */
+  @FunctionalInterface
+  public interface Task {
+    void run() throws Exception;
+  }
+
+  /** Receives the timing of every phase, on the thread that runs the phase. */
+  public interface Listener {
+    /**
+     * @param phase the phase that begins
+     */
+    default void phaseStarted(LifecyclePhase phase) {}
+
+    /**
+     * @param phase the phase that completed
+     * @param startNanos the {@link System#nanoTime()} at which the phase began
+     * @param endNanos the {@link System#nanoTime()} at which the phase completed
+     * @param failure the failure of the phase, or null if it succeeded
+     */
+    void phaseFinished(LifecyclePhase phase, long startNanos, long endNanos, Throwable failure);
+  }
+
+  private final Executor executor;
+  private final boolean ownsExecutor;
+  private final Map<LifecyclePhase, Task> tasks = new EnumMap<>(LifecyclePhase.class);
+  private final Map<LifecyclePhase, Executor> executors = new EnumMap<>(LifecyclePhase.class);
+  private final Map<LifecyclePhase, Set<LifecyclePhase>> extraDependencies =
+      new EnumMap<>(LifecyclePhase.class);
+  private final BlockingQueue<Runnable> callerQueue = new LinkedBlockingQueue<>();
+  private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+  private Lifecycle lifecycle = Lifecycle.global();
+
+  private final long[] started = new long[PHASES.length];
+  private final long[] finished = new long[PHASES.length];
+  private final boolean[] begun = new boolean[PHASES.length];
+  private int announced;
+
+  /** Create a graph that runs its tasks on a pool of daemon threads. */
+  public LifecycleGraph() {
+    this(newExecutor(), true);
+  }
+
+  /**
+   * Create a graph that runs its tasks on the given executor.
+   *
+   * @param executor the executor for tasks that do not name their own
+   */
+  public LifecycleGraph(Executor executor) {
+    this(executor, false);
+  }
+
+  private LifecycleGraph(Executor executor, boolean ownsExecutor) {
+    this.executor = executor;
+    this.ownsExecutor = ownsExecutor;
+  }
+
+  /**
+   * Set the work for a phase, run on the executor of the graph.
+   *
+   * @param phase the phase
+   * @param task the work
+   * @return this graph
+   */
+  public LifecycleGraph task(LifecyclePhase phase, Task task) {
+    tasks.put(phase, task);
+    return this;
+  }
+
+  /**
+   * Set the work for a phase, run on the given executor. Use {@link #callerThread()} for work that
+   * has to run on the thread that calls {@link #run()}.
+   *
+   * @param phase the phase
+   * @param executor the executor to run the work on
+   * @param task the work
+   * @return this graph
+   */
+  public LifecycleGraph task(LifecyclePhase phase, Executor executor, Task task) {
+    executors.put(phase, executor);
+    return task(phase, task);
+  }
+
+  /**
+   * Add a dependency that only exists for the tasks of this graph, on top of {@link
+   * LifecyclePhase#getDependencies()}. The dependency may be declared after the phase; listeners
+   * are still notified in declaration order.
+   *
+   * @param phase the dependent phase
+   * @param dependency the phase that must be complete before <code>phase</code> begins
+   * @return this graph
+   * @throws IllegalArgumentException if the dependency would create a cycle
+   */
+  public LifecycleGraph after(LifecyclePhase phase, LifecyclePhase dependency) {
+    if (phase == dependency || dependsOn(dependency, phase))
+      throw new IllegalArgumentException(
+          String.format("%s can not depend on %s, which depends on it", phase, dependency));
+    extraDependencies.computeIfAbsent(phase, it -> new LinkedHashSet<>()).add(dependency);
+    return this;
+  }
+
+  /**
+   * Be notified of the start and completion of every phase.
+   *
+   * @param listener the listener
+   * @return this graph
+   */
+  public LifecycleGraph listener(Listener listener) {
+    listeners.add(listener);
+    return this;
+  }
+
+  /**
+   * Announce the phases through a lifecycle of its own, for a launcher that shares the JVM.
+   *
+   * @param lifecycle the lifecycle to move through the phases
+   * @return this graph
+   */
+  public LifecycleGraph lifecycle(Lifecycle lifecycle) {
+    this.lifecycle = lifecycle;
+    return this;
+  }
+
+  /**
+   * @return an executor that runs work on the thread that calls {@link #run()}, while it waits for
+   *     the graph to complete
+   */
+  public Executor callerThread() {
+    return callerQueue::add;
+  }
+
+  /**
+   * Run every phase and wait for all of them to complete.
+   *
+   * @throws Exception the failure of the first phase, in declaration order, that failed. Phases
+   *     that depend on a failed phase do not run.
+   */
+  public void run() throws Exception {
+    Map<LifecyclePhase, CompletableFuture<Void>> futures = new EnumMap<>(LifecyclePhase.class);
+    try {
+      for (LifecyclePhase phase : runOrder()) {
+        CompletableFuture<?>[] dependencies =
+            dependenciesOf(phase).stream().map(futures::get).toArray(CompletableFuture[]::new);
+        CompletableFuture<Void> ready = CompletableFuture.allOf(dependencies);
+        Task task = tasks.get(phase);
+        futures.put(
+            phase,
+            task == null
+                ? ready.thenRun(() -> execute(phase, null))
+                : ready.thenRunAsync(
+                    () -> execute(phase, task), executors.getOrDefault(phase, executor)));
+      }
+
+      CompletableFuture<Void> all =
+          CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]));
+      while (!all.isDone()) {
+        Runnable work = callerQueue.poll(10, TimeUnit.MILLISECONDS);
+        if (work != null) work.run();
+      }
+    } finally {
+      if (ownsExecutor) ((ExecutorService) executor).shutdown();
+    }
+
+    for (LifecyclePhase phase : PHASES) {
+      CompletableFuture<Void> future = futures.get(phase);
+      if (!future.isCompletedExceptionally()) continue;
+      try {
+        future.join();
+      } catch (CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception) throw (Exception) cause;
+        if (cause instanceof Error) throw (Error) cause;
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * The chain of phases that determined when the last phase completed: starting from the phase
+   * that completed last, each step goes to the dependency that completed last.
+   *
+   * @return the phases of the critical path in the order they ran, empty before {@link #run()}
+   */
+  public List<LifecyclePhase> getCriticalPath() {
+    LifecyclePhase last = null;
+    for (LifecyclePhase phase : PHASES) {
+      if (begun[phase.ordinal()]
+          && (last == null || finished[phase.ordinal()] >= finished[last.ordinal()])) last = phase;
+    }
+
+    List<LifecyclePhase> path = new ArrayList<>();
+    while (last != null) {
+      path.add(last);
+      LifecyclePhase previous = null;
+      for (LifecyclePhase dependency : dependenciesOf(last)) {
+        if (previous == null || finished[dependency.ordinal()] > finished[previous.ordinal()])
+          previous = dependency;
+      }
+      last = previous;
+    }
+    Collections.reverse(path);
+    return path;
+  }
+
+  /**
+   * @param phase a phase of the last run
+   * @return how long the work of the phase took, in nanoseconds
+   */
+  public long getDuration(LifecyclePhase phase) {
+    return finished[phase.ordinal()] - started[phase.ordinal()];
+  }
+
+  /** @return the critical path with the duration of every phase on it, for the log */
+  public String describeCriticalPath() {
+    List<LifecyclePhase> path = getCriticalPath();
+    if (path.isEmpty()) return "no phases ran";
+
+    StringBuilder description = new StringBuilder();
+    for (LifecyclePhase phase : path) {
+      if (getDuration(phase) < TimeUnit.MILLISECONDS.toNanos(1) && tasks.get(phase) == null)
+        continue;
+      if (description.length() > 0) description.append(" -> ");
+      description.append(
+          String.format("%s %d ms", phase, TimeUnit.NANOSECONDS.toMillis(getDuration(phase))));
+    }
+    long total =
+        finished[path.get(path.size() - 1).ordinal()] - started[path.get(0).ordinal()];
+    return String.format("%s (%d ms)", description, TimeUnit.NANOSECONDS.toMillis(total));
+  }
+
+  private Set<LifecyclePhase> dependenciesOf(LifecyclePhase phase) {
+    Set<LifecyclePhase> dependencies = new LinkedHashSet<>(phase.getDependencies());
+    dependencies.addAll(extraDependencies.getOrDefault(phase, Collections.emptySet()));
+    return dependencies;
+  }
+
+  private boolean dependsOn(LifecyclePhase phase, LifecyclePhase dependency) {
+    for (LifecyclePhase direct : dependenciesOf(phase))
+      if (direct == dependency || dependsOn(direct, dependency)) return true;
+    return false;
+  }
+
+  /** The phases in declaration order, except that extra dependencies are moved before use. */
+  private List<LifecyclePhase> runOrder() {
+    Set<LifecyclePhase> ordered = new LinkedHashSet<>();
+    for (LifecyclePhase phase : PHASES) addInRunOrder(phase, ordered);
+    return new ArrayList<>(ordered);
+  }
+
+  private void addInRunOrder(LifecyclePhase phase, Set<LifecyclePhase> ordered) {
+    if (ordered.contains(phase)) return;
+    for (LifecyclePhase dependency : dependenciesOf(phase)) addInRunOrder(dependency, ordered);
+    ordered.add(phase);
+  }
+
+  private void execute(LifecyclePhase phase, Task task) {
+    started[phase.ordinal()] = System.nanoTime();
+    announce(phase);
+    for (Listener listener : listeners) listener.phaseStarted(phase);
+    Throwable failure = null;
+    try {
+      if (task != null) task.run();
+    } catch (RuntimeException e) {
+      failure = e;
+      throw e;
+    } catch (Exception e) {
+      failure = e;
+      throw new CompletionException(e);
+    } finally {
+      finished[phase.ordinal()] = System.nanoTime();
+      for (Listener listener : listeners)
+        listener.phaseFinished(
+            phase, started[phase.ordinal()], finished[phase.ordinal()], failure);
+    }
+  }
+
+  private synchronized void announce(LifecyclePhase phase) {
+    begun[phase.ordinal()] = true;
+    while (announced < PHASES.length && begun[announced]) {
+      LifecyclePhase next = PHASES[announced++];
+      log.fine(String.format("announcing launcher lifecycle phase %s", next));
+      lifecycle.setCurrent(next);
+    }
+  }
+
+  private static ExecutorService newExecutor() {
+    AtomicInteger threads = new AtomicInteger();
+    return Executors.newCachedThreadPool(
+        runnable -> {
+          Thread thread = new Thread(runnable, "FXLauncher-Startup-" + threads.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+}
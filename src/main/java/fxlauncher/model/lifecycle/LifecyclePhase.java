@@ -3,6 +3,8 @@ package fxlauncher.model.lifecycle;
 import static java.util.logging.Logger.getLogger;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.logging.Logger;
 
@@ -10,24 +12,32 @@ import java.util.logging.Logger;
 /**
  * Enumeration lists the phases of the default lifecycle of a
  * running FxLauncher instance, keeps track of the current phase, 
- * and notifies registered listeners when the phase changes
+ * and notifies registered listeners when the phase changes. Each
+ * phase names the phases it depends on, which lets a
+ * {@link LifecycleGraph} run independent phases concurrently
  * @author idavis1
  */
 public enum LifecyclePhase {
 	STARTUP,
-	LOAD_EMBEDDED_CONFIG,
-	PARSE_CLI_ARGS,
-	LOAD_REMOTE_CONFIG,
-	FETCH_EXPLICIT_MANIFEST,
-	FETCH_CACHED_MANIFEST,
-	FETCH_REMOTE_MANIFEST,
-	WRITE_MANIFEST_TO_CACHE,
-	SYNC_ARTIFACTS,
-	PREPARE_APPLICATION_ENVIRONMENT,
-	LOAD_SYSTEM_LIBS,
-	CREATE_APPLICATION,
-	APPLICATION_INIT,
-	APPLICATION_START,
+	LOAD_EMBEDDED_CONFIG(STARTUP),
+	PARSE_CLI_ARGS(LOAD_EMBEDDED_CONFIG),
+	LOAD_REMOTE_CONFIG(PARSE_CLI_ARGS),
+	FETCH_EXPLICIT_MANIFEST(LOAD_REMOTE_CONFIG),
+	FETCH_CACHED_MANIFEST(LOAD_REMOTE_CONFIG),
+	FETCH_REMOTE_MANIFEST(FETCH_EXPLICIT_MANIFEST, FETCH_CACHED_MANIFEST),
+	WRITE_MANIFEST_TO_CACHE(FETCH_REMOTE_MANIFEST),
+	SYNC_ARTIFACTS(FETCH_REMOTE_MANIFEST),
+	PREPARE_APPLICATION_ENVIRONMENT(PARSE_CLI_ARGS),
+	LOAD_SYSTEM_LIBS(SYNC_ARTIFACTS),
+	CREATE_CLASS_LOADER(FETCH_REMOTE_MANIFEST),
+	CREATE_APPLICATION(
+			WRITE_MANIFEST_TO_CACHE,
+			SYNC_ARTIFACTS,
+			PREPARE_APPLICATION_ENVIRONMENT,
+			LOAD_SYSTEM_LIBS,
+			CREATE_CLASS_LOADER),
+	APPLICATION_INIT(CREATE_APPLICATION),
+	APPLICATION_START(APPLICATION_INIT),
 	;
 	
 	private static Logger log = getLogger(LifecyclePhase.class.getName());
@@ -36,6 +46,23 @@ public enum LifecyclePhase {
 	
 	private List<LifecycleListener> enterPhaseListeners = new ArrayList<>();
 	private List<LifecycleListener> exitPhaseListeners = new ArrayList<>();
+	private final List<LifecyclePhase> dependencies;
+
+	/**
+	 * @param dependencies the phases that must be complete before this phase can
+	 *        begin. Only phases declared earlier can be named, so the declaration
+	 *        order is always a valid order to run the phases in.
+	 */
+	LifecyclePhase(LifecyclePhase... dependencies) {
+		this.dependencies = Collections.unmodifiableList(Arrays.asList(dependencies));
+	}
+
+	/**
+	 * @return the phases that must be complete before this phase can begin
+	 */
+	public List<LifecyclePhase> getDependencies() {
+		return dependencies;
+	}
 
 	/**
 	 * Move to a new current lifecycle phase and notify listeners
@@ -1,30 +1,38 @@
 package fxlauncher.old;
 
+import fxlauncher.config.LauncherConfig;
+import fxlauncher.config.LauncherOption;
+import fxlauncher.config.ingest.ArgsIngester;
+import fxlauncher.downstream.DownstreamParameters;
+import fxlauncher.model.lifecycle.Lifecycle;
+import fxlauncher.model.lifecycle.LifecycleGraph;
 import javafx.application.Application;
 
 import javax.net.ssl.*;
-import javax.xml.bind.JAXB;
 
 import static fxlauncher.old.Strings.ensureEndingSlash;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
 import java.net.URL;
-import java.net.URLClassLoader;
-import java.net.URLConnection;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleConsumer;
 import java.util.logging.FileHandler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -35,8 +43,21 @@ import java.util.stream.Collectors;
 public abstract class AbstractLauncher<APP> {
   private static final Logger log = Logger.getLogger("AbstractLauncher");
 
-  protected static FXManifest manifest;
-  private String phase;
+  /** Parameters read by the launcher itself that are not a {@link LauncherOption}. */
+  private static final Set<String> LAUNCHER_PARAMS =
+      new HashSet<>(
+          Arrays.asList("app", "uri", "logfile", "offline", "ignoressl", "stopOnUpdateErrors"));
+
+  protected volatile FXManifest manifest;
+  private Lifecycle lifecycle = Lifecycle.global();
+  private LauncherConfig config = LauncherConfig.shared();
+  private volatile DownstreamParameters downstream = new DownstreamParameters();
+  private boolean isolated;
+  private volatile String phase;
+  private boolean startedFromCache;
+  private Thread childJvm;
+  private volatile CompletableFuture<Void> nativeLibraries;
+  private final StartupReport startupReport = new StartupReport();
 
   /**
    * Make java.util.logger log to a file. Default it will log to $TMPDIR/fxlauncher.log. This can be
@@ -45,6 +66,8 @@ public abstract class AbstractLauncher<APP> {
    * @throws IOException when Log file not found or uneditable.
    */
   protected void setupLogFile() throws IOException {
+    // the host of isolated launchers sets up logging once for all of them
+    if (isolated) return;
     String filename = System.getProperty("java.io.tmpdir") + File.separator + "fxlauncher.log";
     if (getParameters().getNamed().containsKey("logfile"))
       filename = getParameters().getNamed().get("logfile");
@@ -67,26 +90,116 @@ public abstract class AbstractLauncher<APP> {
   }
 
   protected ClassLoader createClassLoader(Path cacheDir) {
-    List<URL> libs =
-        manifest
-            .files
-            .stream()
-            .filter(LibraryFile::loadForCurrentPlatform)
-            .map(it -> it.toURL(cacheDir))
-            .collect(Collectors.toList());
-
-    ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
-    if (systemClassLoader instanceof FxlauncherClassCloader) {
-      ((FxlauncherClassCloader) systemClassLoader).addUrls(libs);
-      return systemClassLoader;
-    } else {
-      ClassLoader classLoader = new URLClassLoader(libs.toArray(new URL[libs.size()]));
-      Thread.currentThread().setContextClassLoader(classLoader);
+    LauncherEvents.Recording event = LauncherEvents.get().classLoader();
+    PackageIndex index = null;
+    try {
+      List<LibraryFile> libs =
+          manifest
+              .files
+              .stream()
+              .filter(LibraryFile::loadForCurrentPlatform)
+              .collect(Collectors.toList());
+      index = PackageIndex.load(cacheDir, libs);
+
+      ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+      // an isolated or daemon application gets a class loader that can be dropped
+      if (systemClassLoader instanceof FxlauncherClassCloader && !isolated && !isDaemon()) {
+        ((FxlauncherClassCloader) systemClassLoader).setIndex(index);
+        return systemClassLoader;
+      } else {
+        ClassLoader classLoader = new IndexedClassLoader(index, systemClassLoader);
+        Thread.currentThread().setContextClassLoader(classLoader);
+
+        setupClassLoader(classLoader);
+
+        return classLoader;
+      }
+    } finally {
+      event.end(index != null ? index.size() : 0, index == null);
+    }
+  }
 
-      setupClassLoader(classLoader);
+  /**
+   * Check if the application should be kept up to date while it runs, see {@link UpdateDaemon}.
+   */
+  protected boolean isDaemon() {
+    return Boolean.parseBoolean(getOption(LauncherOption.DAEMON));
+  }
 
-      return classLoader;
+  /**
+   * Check if the application should run in a child JVM that uses an application class data sharing
+   * archive, see {@link AppCds}.
+   */
+  protected boolean useChildJvm() {
+    if (!Boolean.parseBoolean(getOption(LauncherOption.APP_CDS))) return false;
+    if (isDaemon()) {
+      log.info("The update daemon restarts the application in process, class data sharing is off");
+      return false;
     }
+    if (AppCds.isSupported()) return true;
+    log.info("Class data sharing needs Java 11 or later, starting the application in process");
+    return false;
+  }
+
+  /**
+   * Start the application in a child JVM that records or uses the class data sharing archive of
+   * the current files. Once the child exits after recording its classes, the archive is dumped.
+   *
+   * @param classpath the class path of the child JVM
+   * @param arguments the arguments after the JVM options, like the main class and its arguments
+   * @return the child JVM
+   * @throws IOException if the child JVM cannot be started
+   */
+  protected Process startChildJvm(String classpath, List<String> arguments) throws IOException {
+    Path cacheDir =
+        manifest.resolveCacheDir(getParameters() != null ? getParameters().getNamed() : null);
+    AppCds cds = new AppCds(cacheDir, manifest, classpath);
+
+    List<String> command = new ArrayList<>();
+    command.add(AppCds.javaExecutable());
+    command.addAll(cds.jvmOptions());
+    command.addAll(arguments);
+    log.info(String.format("Starting child JVM %s", command));
+    Process process = new ProcessBuilder(command).inheritIO().start();
+
+    Thread dumper =
+        new Thread(
+            () -> {
+              try {
+                process.waitFor();
+                cds.dumpArchive();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            },
+            "FXLauncher-CDS-Dump");
+    dumper.setDaemon(true);
+    dumper.start();
+    childJvm = dumper;
+    return process;
+  }
+
+  /**
+   * Wait for a child JVM started with {@link #startChildJvm(String, List)} to exit, and for its
+   * class data sharing archive to be dumped.
+   *
+   * @return the exit code of the child JVM
+   */
+  protected int waitForChildJvm(Process process) throws InterruptedException {
+    int exitCode = process.waitFor();
+    if (childJvm != null) childJvm.join();
+    return exitCode;
+  }
+
+  /** The class path of the child JVM: every jar of the manifest for the current platform. */
+  protected String childClasspath(Path cacheDir) {
+    return manifest
+        .files
+        .stream()
+        .filter(LibraryFile::loadForCurrentPlatform)
+        .filter(it -> it.file.endsWith(".jar"))
+        .map(it -> cacheDir.resolve(it.file).toAbsolutePath().toString())
+        .collect(Collectors.joining(File.pathSeparator));
   }
 
   protected void updateManifest() throws Exception {
@@ -113,71 +226,310 @@ public abstract class AbstractLauncher<APP> {
       log.info("not updating files from remote, offline selected");
       return false; // to signal that nothing has changed.
     }
-    List<LibraryFile> needsUpdate =
-        manifest
-            .files
-            .stream()
-            .filter(LibraryFile::loadForCurrentPlatform)
-            .filter(it -> it.needsUpdate(cacheDir))
-            .collect(Collectors.toList());
-
-    if (needsUpdate.isEmpty()) return false;
-
-    Long totalBytes = needsUpdate.stream().mapToLong(f -> f.size).sum();
-    Long totalWritten = 0L;
+    if (startedFromCache) {
+      startBackgroundUpdate(manifest, cacheDir);
+      return false;
+    }
+    return syncFiles(manifest, cacheDir, null, this::updateProgress);
+  }
 
-    for (LibraryFile lib : needsUpdate) {
-      Path target = cacheDir.resolve(lib.file).toAbsolutePath();
-      Files.createDirectories(target.getParent());
+  /**
+   * Download the files of a manifest that are missing or outdated in the cache dir.
+   *
+   * @param manifest the manifest to synchronize
+   * @param cacheDir the cache dir
+   * @param staging if not null, the files are downloaded into this staged update instead of the
+   *     cache dir
+   * @param progressListener receives the download progress
+   * @return true if files were downloaded, false if the cache was up to date
+   * @throws Exception if the files cannot be downloaded
+   */
+  boolean syncFiles(
+      FXManifest manifest, Path cacheDir, StagedUpdate staging, DoubleConsumer progressListener)
+      throws Exception {
+    boolean verifyAll = Boolean.parseBoolean(getOption(LauncherOption.VERIFY_CACHE));
+    if (verifyAll) log.info("Verifying the checksum of every cached file");
+    CacheIndex cacheIndex = CacheIndex.load(cacheDir, !verifyAll);
+
+    StartupReport.Span verification = startupReport.begin(StartupReport.VERIFY, "Cached files");
+    List<LibraryFile> outdated;
+    try {
+      outdated =
+          manifest
+              .files
+              .stream()
+              .filter(LibraryFile::loadForCurrentPlatform)
+              .peek(it -> verification.add(it.size, 1))
+              .filter(it -> it.needsUpdate(cacheDir, cacheIndex))
+              .collect(Collectors.toList());
+    } catch (RuntimeException e) {
+      verification.fail();
+      throw e;
+    } finally {
+      verification.end();
+    }
+    cacheIndex.save();
+
+    // the native libraries of the launch may load while the other files download, but only when
+    // none of them is replaced
+    if (staging == null
+        && manifest == this.manifest
+        && outdated.stream().noneMatch(LibraryFile::isNativeLibrary)) startLoadingNativeLibraries();
+
+    ArtifactStore store = ArtifactStore.open(getOption(LauncherOption.ARTIFACT_STORE));
+    if (store != null) {
+      log.info(String.format("Sharing files through the artifact store %s", store.getRoot()));
+      // files cached before the store was configured are shared too
+      Set<LibraryFile> excluded = new HashSet<>(outdated);
+      manifest
+          .files
+          .stream()
+          .filter(LibraryFile::loadForCurrentPlatform)
+          .filter(it -> !excluded.contains(it))
+          .forEach(it -> store.publish(it, cacheDir.resolve(it.file)));
+    }
 
-      URI uri;
+    Path targetDir = staging != null ? staging.getDir() : cacheDir;
+    CacheIndex index = staging != null ? CacheIndex.load(targetDir, !verifyAll) : cacheIndex;
+    List<LibraryFile> needsUpdate = outdated;
+    if (staging != null) {
+      // skip what an earlier run has staged already
+      needsUpdate =
+          outdated
+              .stream()
+              .filter(it -> it.needsUpdate(targetDir, index))
+              .collect(Collectors.toList());
+      needsUpdate.forEach(staging::seed);
+    }
 
-      // We avoid using uri.resolve() here so as to not break UNC paths. See issue #143
-      String separator = manifest.uri.getPath().endsWith("/") ? "" : "/";
-      uri = URI.create(manifest.uri.toString() + separator + lib.file);
+    if (needsUpdate.isEmpty()) return !outdated.isEmpty();
+
+    long totalBytes =
+        needsUpdate.stream().mapToLong(f -> ArtifactDownloader.transferSize(manifest.uri, f)).sum();
+    DownloadProgress progress = new DownloadProgress(totalBytes, progressListener);
+    ArtifactDownloader downloader =
+        new ArtifactDownloader(manifest.uri, targetDir, progress, index);
+    downloader.setStore(store);
+    downloader.setReport(startupReport);
+    Mirrors mirrors =
+        Mirrors.of(
+            manifest.uri,
+            Arrays.asList(manifest.mirrors, getOption(LauncherOption.MIRRORS)),
+            Integer.parseInt(getOption(LauncherOption.HEDGE_PERCENTILE)));
+    downloader.setMirrors(mirrors);
+
+    int parallelism = Integer.parseInt(getOption(LauncherOption.DOWNLOAD_THREADS));
+    log.info(
+        String.format(
+            "Downloading %d files (%d bytes) to %s using up to %d threads",
+            needsUpdate.size(), totalBytes, targetDir, parallelism));
+    try {
+      downloader.downloadAll(needsUpdate, parallelism);
+    } finally {
+      mirrors.close();
+      if (mirrors.size() > 1) log.info(String.format("Mirrors:%n%s", mirrors.summary()));
+      // downloaded files were verified as they were written, keep that for the next launch
+      index.save();
+    }
+    return true;
+  }
 
-      try (InputStream input = openDownloadStream(uri);
-          OutputStream output = Files.newOutputStream(target)) {
+  /**
+   * Check the repository for a newer manifest on a low priority background thread, and stage it
+   * to be activated on the next launch. The check waits a random part of <code>--update-jitter
+   * </code> first, so clients that are started at the same time do not all check at once.
+   */
+  protected void startBackgroundUpdate(FXManifest current, Path cacheDir) {
+    long jitter =
+        TimeUnit.SECONDS.toMillis(Long.parseLong(getOption(LauncherOption.UPDATE_JITTER)));
+    Thread thread =
+        new Thread(
+            () -> {
+              try {
+                Thread.sleep(Backoff.jitter(jitter));
+                stageUpdate(current, cacheDir);
+              } catch (InterruptedException e) {
+                log.fine("The background update is interrupted");
+              } catch (Exception e) {
+                log.log(Level.WARNING, "Unable to stage an update in the background", e);
+              }
+            },
+            "FXLauncher-Background-Update");
+    thread.setDaemon(true);
+    // the download workers inherit the priority
+    thread.setPriority(Thread.MIN_PRIORITY);
+    thread.start();
+  }
 
-        byte[] buf = new byte[65536];
+  /**
+   * Stage the remote version of the application if it is newer than the current one.
+   *
+   * @return true if an update is staged
+   */
+  boolean stageUpdate(FXManifest current, Path cacheDir) throws Exception {
+    FXManifest remote = FXManifest.load(current.getFXAppURI(), current);
+    Path manifestPath = current.getPath(cacheDir);
+    if (remote != null
+        && remote != current
+        && remote.equals(current)
+        && Files.exists(manifestPath)) {
+      // the cached manifest is the remote one, the next check can ask if it changed
+      current.validators = remote.validators;
+      ManifestValidators.save(manifestPath, current);
+    }
+    if (remote == null
+        || remote == current
+        || remote.equals(current)
+        || !(remote.isNewerThan(current) || current.acceptDowngrade)) {
+      log.info("No update available");
+      return false;
+    }
+    if (!takesRollout(remote, cacheDir)) return false;
 
-        int read;
-        while ((read = input.read(buf)) > -1) {
-          output.write(buf, 0, read);
-          totalWritten += read;
-          Double progress = totalWritten.doubleValue() / totalBytes.doubleValue();
-          updateProgress(progress);
-        }
-      }
+    StagedUpdate staging = new StagedUpdate(cacheDir, current.getFilename());
+    if (remote.equals(staging.getReadyManifest())) {
+      log.info("The update is staged already");
+      return true;
     }
+    staging.discard();
+
+    syncFiles(
+        remote,
+        cacheDir,
+        staging,
+        progress -> log.fine(String.format("Staging update: %d%%", (int) (progress * 100))));
+    staging.markReady(remote);
+    log.info("An update is staged, it will be activated on the next launch");
     return true;
   }
 
-  private InputStream openDownloadStream(URI uri) throws IOException {
-    if (uri.getScheme().equals("file"))
-      return Files.newInputStream(new File(uri.getPath()).toPath());
+  /**
+   * Check whether a version that is rolled out to a share of the clients is rolled out to this
+   * one, see {@link Rollout}.
+   *
+   * @param remote the new version
+   * @param cacheDir the cache dir that keeps the client id
+   * @return true if this client takes the new version
+   */
+  boolean takesRollout(FXManifest remote, Path cacheDir) {
+    if (remote.rollout == null) return true;
+    String clientId = getOption(LauncherOption.CLIENT_ID);
+    if (clientId == null || clientId.isEmpty()) clientId = Rollout.clientId(cacheDir);
+    boolean included = Rollout.includes(clientId, remote);
+    log.info(
+        String.format(
+            "Version %s is rolled out to %d%% of the clients, %s",
+            remote.ts, remote.rollout, included ? "including this one" : "not yet to this one"));
+    return included;
+  }
 
-    URLConnection connection = uri.toURL().openConnection();
-    if (uri.getUserInfo() != null) {
-      byte[] payload = uri.getUserInfo().getBytes(StandardCharsets.UTF_8);
-      String encoded = Base64.getEncoder().encodeToString(payload);
-      connection.setRequestProperty("Authorization", String.format("Basic %s", encoded));
+  /**
+   * Check that every file of the manifest is in the cache dir and unchanged.
+   *
+   * @return true if the application can be started without downloading anything
+   */
+  boolean isCacheComplete(FXManifest manifest, Path cacheDir) {
+    CacheIndex index = CacheIndex.load(cacheDir, true);
+    try {
+      return manifest
+          .files
+          .stream()
+          .filter(LibraryFile::loadForCurrentPlatform)
+          .noneMatch(it -> it.needsUpdate(cacheDir, index));
+    } catch (RuntimeException e) {
+      log.log(Level.FINE, "Unable to verify the cache", e);
+      return false;
+    } finally {
+      index.save();
     }
-    return connection.getInputStream();
   }
 
   protected void createApplicationEnvironment() throws Exception {
-    phase = "Create Application";
+    loadNativeLibraries();
+    createApplicationFromManifest();
+  }
+
+  /**
+   * Load the native libraries the manifest asks to preload, or wait for them if {@link
+   * #syncFiles()} started loading them already. They are usually files of the manifest, so they are
+   * only loaded once those files are in the cache dir.
+   */
+  protected void loadNativeLibraries() {
+    phase = "Preload Native Libraries";
 
     if (manifest == null)
       throw new IllegalArgumentException("Unable to retrieve embedded or remote manifest.");
+    CompletableFuture<Void> started = nativeLibraries;
+    if (started == null) {
+      loadNativeLibraryList();
+      return;
+    }
+    try {
+      started.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Error) throw (Error) cause;
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      throw e;
+    }
+  }
+
+  /** Load the native libraries on a thread of their own, while the other files download. */
+  private void startLoadingNativeLibraries() {
+    if (nativeLibraries != null || manifest.getPreloadNativeLibraryList().isEmpty()) return;
+    log.fine("No native library is outdated, loading them while the other files download");
+    nativeLibraries =
+        CompletableFuture.runAsync(
+            this::loadNativeLibraryList,
+            task -> {
+              Thread thread = new Thread(task, "FXLauncher-Native-Libraries");
+              thread.setDaemon(true);
+              thread.start();
+            });
+  }
+
+  private void loadNativeLibraryList() {
     List<String> preloadLibs = manifest.getPreloadNativeLibraryList();
     for (String preloadLib : preloadLibs) System.loadLibrary(preloadLib);
+  }
 
+  /**
+   * List the packages of the files that are already verified, while the outdated files are still
+   * downloading. The class loader only has to list the downloaded files when it is created.
+   */
+  protected void indexVerifiedFiles() {
+    if (manifest == null) return;
     Path cacheDir =
         manifest.resolveCacheDir(getParameters() != null ? getParameters().getNamed() : null);
+    CacheIndex cacheIndex = CacheIndex.load(cacheDir, true);
+    List<LibraryFile> verified =
+        manifest
+            .files
+            .stream()
+            .filter(LibraryFile::loadForCurrentPlatform)
+            .filter(
+                it ->
+                    it.checksum.equals(
+                        cacheIndex.verifiedChecksum(it.file, cacheDir.resolve(it.file))))
+            .collect(Collectors.toList());
+    PackageIndex.load(cacheDir, verified);
+  }
 
+  /** Create the class loader for the files of the manifest and load the application class. */
+  protected void createApplicationFromManifest() throws Exception {
+    phase = "Create Application";
+
+    if (manifest == null)
+      throw new IllegalArgumentException("Unable to retrieve embedded or remote manifest.");
+    Path cacheDir =
+        manifest.resolveCacheDir(getParameters() != null ? getParameters().getNamed() : null);
     ClassLoader classLoader = createClassLoader(cacheDir);
+    long seconds = Long.parseLong(getOption(LauncherOption.CLASS_TRACE));
+    // --class-trace=0 neither records nor preloads the classes
+    if (classLoader instanceof IndexedClassLoader && seconds > 0) {
+      new ClassLoadTrace(cacheDir, manifest)
+          .start((IndexedClassLoader) classLoader, TimeUnit.SECONDS.toMillis(seconds));
+    }
     log.info(String.format("Loading appClass %s", manifest.launchClass));
     Class<APP> appclass = (Class<APP>) classLoader.loadClass(manifest.launchClass);
 
@@ -223,29 +575,52 @@ public abstract class AbstractLauncher<APP> {
     }
 
     URL embeddedManifest = AbstractLauncher.class.getResource("/app.xml");
-    manifest = JAXB.unmarshal(embeddedManifest, FXManifest.class);
+    try (InputStream input = embeddedManifest.openStream()) {
+      manifest = FXManifestXml.read(input);
+    }
 
     Path cacheDir = manifest.resolveCacheDir(namedParams);
     Path manifestPath = manifest.getPath(cacheDir);
 
-    if (Files.exists(manifestPath))
-      manifest = JAXB.unmarshal(manifestPath.toFile(), FXManifest.class);
+    new StagedUpdate(cacheDir, manifest.getFilename()).activate(manifestPath);
+    if (Files.exists(manifestPath)) {
+      manifest = FXManifestXml.read(manifestPath);
+      manifest.validators = ManifestValidators.load(manifestPath, manifest);
+    }
 
     if (getParameters().getUnnamed().contains("--offline")) {
       log.info("offline selected");
       return;
     }
+
+    if (Boolean.parseBoolean(getOption(LauncherOption.BACKGROUND_UPDATE))) {
+      if (isCacheComplete(manifest, cacheDir)) {
+        log.info("Starting from the cache, checking for updates in the background");
+        startedFromCache = true;
+        return;
+      }
+      log.info("The cache is incomplete, updating before the application starts");
+    }
     try {
-      FXManifest remoteManifest = FXManifest.load(manifest.getFXAppURI());
+      FXManifest remoteManifest = FXManifest.load(manifest.getFXAppURI(), manifest);
 
       if (remoteManifest == null) {
         log.info(String.format("No remote manifest at %s", manifest.getFXAppURI()));
+      } else if (remoteManifest == manifest) {
+        log.info("The remote manifest is not modified");
       } else if (!remoteManifest.equals(manifest)) {
-        // Update to remote manifest if newer or we specifically accept downgrades
-        if (remoteManifest.isNewerThan(manifest) || manifest.acceptDowngrade) {
+        // Update to remote manifest if newer or we specifically accept downgrades, and the
+        // version is rolled out to this client or the cached version is incomplete anyway
+        if ((remoteManifest.isNewerThan(manifest) || manifest.acceptDowngrade)
+            && (takesRollout(remoteManifest, cacheDir) || !isCacheComplete(manifest, cacheDir))) {
           manifest = remoteManifest;
-          JAXB.marshal(manifest, manifestPath.toFile());
+          FXManifestXml.write(manifest, manifestPath);
+          ManifestValidators.save(manifestPath, manifest);
         }
+      } else if (Files.exists(manifestPath)) {
+        // the cached manifest is the remote one, the next launch can ask if it changed
+        manifest.validators = remoteManifest.validators;
+        ManifestValidators.save(manifestPath, manifest);
       }
     } catch (Exception ex) {
       log.log(
@@ -287,6 +662,92 @@ public abstract class AbstractLauncher<APP> {
     return getParameters().getUnnamed().contains("--stopOnUpdateErrors");
   }
 
+  /**
+   * Look up the value of a {@link LauncherOption} in the configuration of this launcher, see
+   * {@link #ingestParameters()}.
+   *
+   * @param option the option to look up
+   * @return the value of the option, or its default if it was never set
+   */
+  protected String getOption(LauncherOption option) {
+    return config.get(option);
+  }
+
+  /**
+   * Feed the {@link LauncherOption}s among the launcher parameters (either <code>--label=value
+   * </code> or, for flags, <code>--label</code>) into the configuration of this launcher, so they
+   * are validated like any other configuration source. Every parameter except those the launcher
+   * reads itself is kept for the application. Called whenever the parameters are set.
+   */
+  protected void ingestParameters() {
+    DownstreamParameters parameters = new DownstreamParameters();
+    if (getParameters() != null) {
+      String[] args =
+          getParameters()
+              .getRaw()
+              .stream()
+              .filter(it -> !isLauncherParam(it))
+              .toArray(String[]::new);
+      new ArgsIngester(args).storeOptionsIn(config).storeDownstreamParamsIn(parameters).ingest();
+    }
+    downstream = parameters;
+  }
+
+  /**
+   * The parameters that are meant for the application, as of the last {@link #ingestParameters()}.
+   *
+   * @return the parameters of the application
+   */
+  protected DownstreamParameters getDownstreamParameters() {
+    return downstream;
+  }
+
+  private static boolean isLauncherParam(String arg) {
+    if (!arg.startsWith("--")) return false;
+    int end = arg.indexOf('=');
+    return LAUNCHER_PARAMS.contains(arg.substring(2, end < 0 ? arg.length() : end));
+  }
+
+  /**
+   * Give this launcher a lifecycle, a configuration and an application class loader of its own, so
+   * it can share the JVM with other launchers. See {@link MultiAppHost}.
+   */
+  void isolate() {
+    lifecycle = new Lifecycle();
+    config = new LauncherConfig(lifecycle);
+    isolated = true;
+  }
+
+  /** @return true if this launcher shares the JVM with other launchers */
+  boolean isIsolated() {
+    return isolated;
+  }
+
+  /** @return the lifecycle this launcher moves through */
+  protected Lifecycle getLifecycle() {
+    return lifecycle;
+  }
+
+  /** @return the timing of this launch, see {@link StartupReport} */
+  StartupReport getStartupReport() {
+    return startupReport;
+  }
+
+  /**
+   * Log the critical path of the startup, and write the timing of the launch so far to the cache
+   * dir, and the trace event file if <code>--startup-trace</code> is set.
+   *
+   * @param startup the startup graph of the launch
+   */
+  protected void writeStartupReport(LifecycleGraph startup) {
+    log.info(String.format("Startup critical path: %s", startup.describeCriticalPath()));
+    if (manifest == null) return;
+    Path cacheDir =
+        manifest.resolveCacheDir(getParameters() != null ? getParameters().getNamed() : null);
+    startupReport.write(
+        cacheDir, Boolean.parseBoolean(getOption(LauncherOption.STARTUP_TRACE)));
+  }
+
   public String getPhase() {
     return phase;
   }
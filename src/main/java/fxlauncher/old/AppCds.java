@@ -0,0 +1,191 @@
+package fxlauncher.old;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Application Class Data Sharing for an application that runs in a child JVM.
+ *
+ * <p>The first child JVM of a set of files records the classes it loads in a class list. That list
+ * is then dumped into a shared archive with <code>-Xshare:dump</code>, and every later child JVM
+ * maps the archive instead of loading and verifying those classes again. Class list and archive
+ * are stored in <code>fxlauncher-cds</code> in the cache dir, named after a key derived from the
+ * checksums of the files and the version of the JVM, so any change to either records a new list.
+ *
+ * <p>Application class data sharing needs Java 11 or later, on older JVMs the application runs
+ * without an archive.
+ */
+class AppCds {
+  private static final Logger log = Logger.getLogger("AppCds");
+
+  static final String DIRNAME = "fxlauncher-cds";
+
+  private final Path cacheDir;
+  private final Path dir;
+  private final String key;
+  private final String classpath;
+
+  /**
+   * @param cacheDir the cache dir of the application
+   * @param manifest the manifest of the files on the classpath
+   * @param classpath the class path of the child JVM, an archive is only valid for the class path
+   *     it was dumped with
+   */
+  AppCds(Path cacheDir, FXManifest manifest, String classpath) {
+    this.cacheDir = cacheDir;
+    this.dir = cacheDir.resolve(DIRNAME);
+    this.classpath = classpath;
+    this.key = key(manifest, classpath);
+  }
+
+  /** Check if the JVM the children are started with supports application class data sharing. */
+  static boolean isSupported() {
+    String version = System.getProperty("java.specification.version", "1.8");
+    try {
+      return !version.startsWith("1.") && Integer.parseInt(version.split("\\.")[0]) >= 11;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  /** The java executable of the running JVM, used to start children of the same version. */
+  static String javaExecutable() {
+    Path bin = Paths.get(System.getProperty("java.home"), "bin");
+    Path java = bin.resolve("java.exe");
+    return (Files.exists(java) ? java : bin.resolve("java")).toString();
+  }
+
+  /**
+   * Get the options that make the child JVM use the archive, or record the class list if there is
+   * no archive yet. A class list that was recorded but not dumped yet is dumped first.
+   *
+   * @return the JVM options
+   */
+  List<String> jvmOptions() {
+    if (Files.exists(failedMarker())) return new ArrayList<>();
+    if (!Files.exists(archive()) && Files.exists(classList())) dumpArchive();
+
+    if (Files.exists(archive()))
+      return new ArrayList<>(
+          Arrays.asList("-Xshare:auto", "-XX:SharedArchiveFile=" + archive().toAbsolutePath()));
+    if (Files.exists(failedMarker())) return new ArrayList<>();
+
+    try {
+      Files.createDirectories(dir);
+      deleteStale();
+    } catch (IOException e) {
+      log.log(Level.WARNING, String.format("Unable to prepare %s", dir), e);
+      return new ArrayList<>();
+    }
+    log.info(String.format("Recording the classes of the application in %s", classList()));
+    return new ArrayList<>(
+        Arrays.asList("-XX:DumpLoadedClassList=" + classList().toAbsolutePath()));
+  }
+
+  /**
+   * Dump the recorded class list into a shared archive, unless that was done already. The archive
+   * is written to a temporary file first, so a failed dump never leaves a broken archive behind.
+   * Launchers that share the cache dir dump every archive once.
+   */
+  synchronized void dumpArchive() {
+    if (Files.exists(archive()) || !Files.exists(classList())) return;
+
+    try (CacheLock lock = CacheLock.acquire(cacheDir, DIRNAME + "/" + key)) {
+      // another launcher may have dumped the archive, or failed to, while this one waited
+      if (lock.wasContended() && (Files.exists(archive()) || Files.exists(failedMarker()))) return;
+      dump();
+    } catch (IOException e) {
+      log.log(Level.WARNING, String.format("Unable to dump %s", archive()), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void dump() throws IOException, InterruptedException {
+    Path tmp = AtomicFiles.tempSibling(archive());
+    try {
+      Process dump = new ProcessBuilder(dumpCommand(tmp)).redirectErrorStream(true).start();
+      // drain the output, the dump blocks if it fills the pipe
+      try (BufferedReader output =
+          new BufferedReader(
+              new InputStreamReader(dump.getInputStream(), StandardCharsets.UTF_8))) {
+        output.lines().forEach(log::fine);
+      }
+      int exit = dump.waitFor();
+      if (exit != 0 || !Files.isRegularFile(tmp)) {
+        log.warning(String.format("Dumping %s failed with exit code %d", archive(), exit));
+        // do not record the classes again only to fail the same way
+        Files.write(failedMarker(), new byte[0]);
+        return;
+      }
+      AtomicFiles.move(tmp, archive(), false);
+      log.info(String.format("Dumped the class data sharing archive %s", archive()));
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  List<String> dumpCommand(Path target) {
+    return Arrays.asList(
+        javaExecutable(),
+        "-Xshare:dump",
+        "-XX:SharedClassListFile=" + classList().toAbsolutePath(),
+        "-XX:SharedArchiveFile=" + target.toAbsolutePath(),
+        "-cp",
+        classpath);
+  }
+
+  String getKey() {
+    return key;
+  }
+
+  Path classList() {
+    return dir.resolve(key + ".classlist");
+  }
+
+  Path archive() {
+    return dir.resolve(key + ".jsa");
+  }
+
+  private Path failedMarker() {
+    return dir.resolve(key + ".failed");
+  }
+
+  /** Remove the class lists and archives of other versions of the files. */
+  private void deleteStale() throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      files
+          .filter(it -> !it.getFileName().toString().startsWith(key + "."))
+          .forEach(
+              it -> {
+                try {
+                  Files.deleteIfExists(it);
+                } catch (IOException e) {
+                  log.log(Level.FINE, String.format("Unable to delete %s", it), e);
+                }
+              });
+    }
+  }
+
+  private static String key(FXManifest manifest, String classpath) {
+    String input =
+        String.join(
+            "\n",
+            System.getProperty("java.vm.vendor"),
+            System.getProperty("java.vm.version"),
+            classpath,
+            manifest.filesDigest());
+    return Strings.sha256(input).substring(0, 16);
+  }
+}
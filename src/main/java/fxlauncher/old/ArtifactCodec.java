@@ -0,0 +1,52 @@
+package fxlauncher.old;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A compression format that artifacts can be published in. {@link CreateManifest} writes an encoded
+ * copy of each file with the codecs given in <code>--encodings</code>, and the launcher downloads
+ * the encoded copy and decodes it as it is written to the cache.
+ *
+ * <p>Gzip is built in. Other codecs are found with the {@link java.util.ServiceLoader}: implement
+ * this interface, and list the implementation in
+ * <code>META-INF/services/fxlauncher.old.ArtifactCodec</code> inside the fxlauncher.jar, as well as
+ * on the classpath of the tool that creates the manifest.
+ */
+public interface ArtifactCodec {
+
+  /**
+   * The name of the codec, used in the manifest and in the <code>--encodings</code> parameter.
+   *
+   * @return the name, like "gzip"
+   */
+  String getName();
+
+  /**
+   * The extension appended to the name of encoded files.
+   *
+   * @return the extension without a leading dot, like "gz"
+   */
+  String getExtension();
+
+  /**
+   * Wrap a stream so the data written to it is encoded. Closing the returned stream must finish the
+   * encoding and close {@code output}.
+   *
+   * @param output the stream receiving the encoded data
+   * @return a stream accepting the plain data
+   * @throws IOException if the stream cannot be created
+   */
+  OutputStream encode(OutputStream output) throws IOException;
+
+  /**
+   * Wrap a stream of encoded data so it can be read as plain data. Malformed input must be reported
+   * as an {@link IOException}.
+   *
+   * @param input the stream providing the encoded data
+   * @return a stream providing the plain data
+   * @throws IOException if the stream cannot be created
+   */
+  InputStream decode(InputStream input) throws IOException;
+}
@@ -0,0 +1,78 @@
+package fxlauncher.old;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/** The {@link ArtifactCodec} implementations available to this launcher, by name. */
+final class ArtifactCodecs {
+  private static final Logger log = Logger.getLogger("ArtifactCodecs");
+
+  static final ArtifactCodec GZIP = new Gzip();
+
+  private static final Map<String, ArtifactCodec> codecs = load();
+
+  private ArtifactCodecs() {}
+
+  /**
+   * Look up a codec by name.
+   *
+   * @param name the name of the codec
+   * @return the codec, or null if it is not available
+   */
+  static ArtifactCodec find(String name) {
+    return name == null ? null : codecs.get(name);
+  }
+
+  private static Map<String, ArtifactCodec> load() {
+    Map<String, ArtifactCodec> codecs = new LinkedHashMap<>();
+    codecs.put(GZIP.getName(), GZIP);
+
+    try {
+      for (ArtifactCodec codec : ServiceLoader.load(ArtifactCodec.class))
+        codecs.putIfAbsent(codec.getName(), codec);
+    } catch (ServiceConfigurationError e) {
+      log.log(Level.WARNING, "Unable to load the artifact codecs from META-INF/services", e);
+    }
+    return Collections.unmodifiableMap(codecs);
+  }
+
+  private static class Gzip implements ArtifactCodec {
+    private static final int BUFFER_SIZE = 65536;
+
+    @Override
+    public String getName() {
+      return "gzip";
+    }
+
+    @Override
+    public String getExtension() {
+      return "gz";
+    }
+
+    @Override
+    public OutputStream encode(OutputStream output) throws IOException {
+      // encoding happens once when the manifest is created, so spend the time on the ratio
+      return new GZIPOutputStream(output, BUFFER_SIZE) {
+        {
+          def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+      };
+    }
+
+    @Override
+    public InputStream decode(InputStream input) throws IOException {
+      return new GZIPInputStream(input, BUFFER_SIZE);
+    }
+  }
+}
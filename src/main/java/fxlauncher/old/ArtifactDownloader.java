@@ -0,0 +1,707 @@
+package fxlauncher.old;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.Adler32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Downloads the artifacts listed in a manifest from the application repository into the cache
+ * dir. Files can be fetched one by one or by a bounded pool of worker threads. When one file fails,
+ * the remaining workers are cancelled and the failure is rethrown to the caller. Interrupted
+ * transfers leave a <code>.part</code> file behind that the next run resumes.
+ *
+ * <p>Every file is downloaded under a {@link CacheLock}, so launchers that share a cache dir wait
+ * for each other per file, and reuse a file that another launcher has just downloaded.
+ */
+class ArtifactDownloader {
+  private static final Logger log = Logger.getLogger("ArtifactDownloader");
+
+  static final String PART_SUFFIX = ".part";
+
+  private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+  private static final long LOCAL_SLICE = 8L * 1024 * 1024;
+  private static final int MAX_ATTEMPTS = 3;
+
+  private final URI repositoryUri;
+  private final Path cacheDir;
+  private final DownloadProgress progress;
+  private final CacheIndex index;
+  private ArtifactStore store;
+  private Mirrors mirrors;
+  private Backoff backoff = Backoff.DEFAULT;
+  private final long created = System.currentTimeMillis();
+  // a report that is never written, unless the launcher provides its own
+  private StartupReport report = new StartupReport();
+
+  ArtifactDownloader(URI repositoryUri, Path cacheDir, DownloadProgress progress) {
+    this(repositoryUri, cacheDir, progress, null);
+  }
+
+  /**
+   * @param index used to look up the checksum of cached files when choosing a patch, may be null
+   */
+  ArtifactDownloader(
+      URI repositoryUri, Path cacheDir, DownloadProgress progress, CacheIndex index) {
+    this.repositoryUri = repositoryUri;
+    this.cacheDir = cacheDir;
+    this.progress = progress;
+    this.index = index;
+    this.mirrors = new Mirrors(repositoryUri);
+  }
+
+  /**
+   * Download from the fastest of several mirrors of the repository, hedging slow requests.
+   *
+   * @param mirrors the repository and its mirrors
+   */
+  void setMirrors(Mirrors mirrors) {
+    this.mirrors = mirrors;
+  }
+
+  /**
+   * Wait between attempts to download a file while the repository is busy.
+   *
+   * @param backoff how long to wait, and how often to try
+   */
+  void setBackoff(Backoff backoff) {
+    this.backoff = backoff;
+  }
+
+  /**
+   * Share downloaded files through a content addressed store. Files that are already in the store
+   * are linked into the cache dir instead of being downloaded.
+   *
+   * @param store the store, or null to download into the cache dir only
+   */
+  void setStore(ArtifactStore store) {
+    this.store = store;
+  }
+
+  /**
+   * Record the wall time and size of every download and verification in a report.
+   *
+   * @param report the report of the launch
+   */
+  void setReport(StartupReport report) {
+    this.report = report;
+  }
+
+  /**
+   * Download all given files using up to {@code parallelism} concurrent connections.
+   *
+   * @param files the files to download
+   * @param parallelism the maximum number of files to download at the same time
+   * @throws Exception the failure of the first file that could not be downloaded
+   */
+  void downloadAll(List<LibraryFile> files, int parallelism) throws Exception {
+    if (parallelism <= 1 || files.size() <= 1) {
+      for (LibraryFile lib : files) download(lib);
+      return;
+    }
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(Math.min(parallelism, files.size()), new WorkerFactory());
+    CompletionService<LibraryFile> completion = new ExecutorCompletionService<>(executor);
+    List<Future<LibraryFile>> futures = new ArrayList<>();
+
+    try {
+      for (LibraryFile lib : files)
+        futures.add(
+            completion.submit(
+                () -> {
+                  download(lib);
+                  return lib;
+                }));
+
+      for (int i = 0; i < files.size(); i++) {
+        try {
+          LibraryFile done = completion.take().get();
+          log.fine(String.format("Downloaded %s", done.file));
+        } catch (ExecutionException e) {
+          // fail fast: there is no point in finishing the other files
+          futures.forEach(future -> future.cancel(true));
+          throw unwrap(e);
+        }
+      }
+    } catch (InterruptedException e) {
+      futures.forEach(future -> future.cancel(true));
+      throw e;
+    } finally {
+      executor.shutdownNow();
+      // cancelled workers must not keep writing to the cache dir after this returns
+      if (!Thread.currentThread().isInterrupted())
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Download a single file into the cache dir.
+   *
+   * <p>The content is staged in a <code>.part</code> file next to the target. If a previous attempt
+   * left a partial file behind, the download resumes where it stopped, using a <code>Range</code>
+   * request for http(s) and a seek for <code>file:</code> repositories. The target is only replaced
+   * once the staged file matches the size and checksum in the manifest. Files from a <code>file:
+   * </code> repository on the same volume as the cache dir are staged as hard links.
+   *
+   * <p>When the manifest lists a patch from the version that is currently cached, the patch is
+   * downloaded and applied instead. If that fails, the whole file is downloaded.
+   *
+   * <p>With an artifact store, content that is already in the store is not downloaded at all, and
+   * downloaded content is added to the store.
+   *
+   * <p>While every mirror answers that it is busy, the download is tried again after a {@link
+   * Backoff}, resuming what was staged so far.
+   *
+   * @param lib the file to download
+   * @throws IOException if the file cannot be downloaded, or the download was cancelled
+   */
+  void download(LibraryFile lib) throws IOException {
+    StartupReport.Span span = report.begin(StartupReport.DOWNLOAD, lib.file);
+    LauncherEvents.Recording event = LauncherEvents.get().download(resolve(lib.file));
+    boolean failed = true;
+    try {
+      backoff.call(
+          lib.file,
+          () -> {
+            transferFile(lib);
+            return null;
+          });
+      span.add(lib.size, 1);
+      failed = false;
+    } catch (IOException | RuntimeException e) {
+      span.fail();
+      throw e;
+    } finally {
+      span.end();
+      event.end(failed ? 0 : lib.size, failed);
+    }
+  }
+
+  private void transferFile(LibraryFile lib) throws IOException {
+    // launchers sharing the cache dir download every file once, and never into the same part file
+    try (CacheLock lock = CacheLock.acquire(cacheDir, lib.file)) {
+      Path target = cacheDir.resolve(lib.file).toAbsolutePath();
+      if (isInstalledByOther(lib, target, lock)) {
+        log.fine(String.format("%s was downloaded by another launcher", lib.file));
+        progress.add(transferSize(repositoryUri, lib));
+        return;
+      }
+      transferFile(lib, target);
+    }
+  }
+
+  /**
+   * Check whether another launcher installed the file since the cache was checked. That is only
+   * possible when it held the lock, or when the file changed since this downloader was created.
+   */
+  private boolean isInstalledByOther(LibraryFile lib, Path target, CacheLock lock) {
+    try {
+      if (!Files.isRegularFile(target) || Files.size(target) != lib.size) return false;
+      if (!lock.wasContended() && Files.getLastModifiedTime(target).toMillis() < created)
+        return false;
+      return index != null ? !lib.needsUpdate(cacheDir, index) : !lib.needsUpdate(cacheDir);
+    } catch (IOException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  private void transferFile(LibraryFile lib, Path target) throws IOException {
+    Files.createDirectories(target.getParent());
+    Path part = target.resolveSibling(target.getFileName() + PART_SUFFIX);
+
+    if (store != null && store.restore(lib, target)) {
+      Files.deleteIfExists(part);
+      progress.add(transferSize(repositoryUri, lib));
+      recordVerified(lib, target);
+      return;
+    }
+
+    if (!Files.exists(part) && patch(lib, target, part)) {
+      install(lib, part, target);
+      return;
+    }
+
+    long offset = Files.exists(part) ? Files.size(part) : 0;
+    if (offset > lib.size) {
+      log.fine(String.format("Discarding %s, it is larger than %s", part, lib.file));
+      offset = 0;
+    }
+
+    for (int attempt = 1; ; attempt++) {
+      DownloadProgress.Attempt counted = progress.attempt();
+      try {
+        // an encoded copy is only used for a fresh first attempt, retries fetch the file itself
+        LibraryEncoding encoding =
+            attempt == 1 && offset == 0 ? encodingFor(repositoryUri, lib) : null;
+        Long checksum =
+            encoding != null
+                ? transferEncoded(lib, encoding, part, counted)
+                : transfer(lib, part, offset, counted);
+        verify(lib, part, checksum);
+        break;
+      } catch (CorruptDownloadException e) {
+        // the file was damaged in transit, or the staged prefix belonged to an older version
+        counted.discard();
+        if (attempt >= MAX_ATTEMPTS) throw e;
+        log.info(
+            String.format(
+                "%s, downloading it again (attempt %d of %d)",
+                e.getMessage(), attempt + 1, MAX_ATTEMPTS));
+        offset = 0;
+      } catch (IOException | RuntimeException e) {
+        // after a backoff the file is transferred again, resuming what was staged
+        counted.discard();
+        throw e;
+      }
+    }
+
+    install(lib, part, target);
+  }
+
+  /** Move a verified file into place, and remember that it is verified. */
+  private void install(LibraryFile lib, Path part, Path target) throws IOException {
+    AtomicFiles.move(part, target, true);
+    recordVerified(lib, target);
+    if (store != null) store.publish(lib, target);
+  }
+
+  private void recordVerified(LibraryFile lib, Path target) {
+    // the next launch trusts the file without reading it again, as long as it is not touched
+    if (index != null) index.record(lib.file, target, lib.checksum);
+  }
+
+  /**
+   * Try to rebuild the file from the cached version and a patch.
+   *
+   * @return true if the patched file is staged and verified, false if a full download is needed
+   */
+  private boolean patch(LibraryFile lib, Path target, Path part)
+      throws InterruptedIOException, Backoff.ServerBusyException {
+    if (lib.patches == null || lib.patches.isEmpty() || !Files.exists(target)) return false;
+
+    LibraryPatch patch;
+    try {
+      Long current = index != null ? index.verifiedChecksum(lib.file, target) : null;
+      patch = lib.patchFrom(current != null ? current : LibraryFile.checksum(target));
+    } catch (IOException e) {
+      return false;
+    }
+    if (patch == null) return false;
+
+    URI uri = resolve(patch.file);
+    log.fine(String.format("Patching %s with %s", target, uri));
+    DownloadProgress.Attempt counted = progress.attempt();
+    boolean patched = false;
+    try {
+      Adler32 checksum = new Adler32();
+      try (InputStream input = mirrors.open(patch.file, 0).input;
+          OutputStream output = new CheckedOutputStream(Files.newOutputStream(part), checksum)) {
+        BinaryDelta.apply(target, new CountingInputStream(input, lib.file, counted), output);
+      } catch (InterruptedIOException | Backoff.ServerBusyException e) {
+        // a busy repository is not asked for the whole file right away
+        throw e;
+      } catch (IOException e) {
+        log.log(Level.INFO, String.format("Unable to apply %s, downloading %s", uri, lib.file), e);
+        deleteQuietly(part);
+        return false;
+      }
+
+      try {
+        verify(lib, part, checksum.getValue());
+      } catch (IOException e) {
+        log.info(String.format("%s, downloading %s", e.getMessage(), lib.file));
+        deleteQuietly(part);
+        return false;
+      }
+      // account for the bytes the patch saved us, so the progress still adds up
+      progress.add(Math.max(0, transferSize(repositoryUri, lib) - counted.getAdded()));
+      patched = true;
+      return true;
+    } finally {
+      // the download that follows a failed patch counts the whole file
+      if (!patched) counted.discard();
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ignored) {
+    }
+  }
+
+  /**
+   * The number of bytes that will be transferred to download the given file, which is the size of
+   * the encoded copy if one will be used.
+   */
+  static long transferSize(URI repositoryUri, LibraryFile lib) {
+    LibraryEncoding encoding = encodingFor(repositoryUri, lib);
+    return encoding != null ? encoding.size : lib.size;
+  }
+
+  /**
+   * Choose the encoded copy to download for a file.
+   *
+   * @return the first encoding with an available codec, or null to download the file itself
+   */
+  static LibraryEncoding encodingFor(URI repositoryUri, LibraryFile lib) {
+    // file: repositories are linked or copied without decoding, which is cheaper
+    if (lib.encodings == null || repositoryUri.getScheme().equals("file")) return null;
+    for (LibraryEncoding encoding : lib.encodings)
+      if (encoding.size != null && ArtifactCodecs.find(encoding.codec) != null) return encoding;
+    return null;
+  }
+
+  /**
+   * Download an encoded copy of the file, and decode it into the staging file. Progress is
+   * reported in encoded bytes.
+   *
+   * @return the checksum of the decoded content
+   * @throws CorruptDownloadException if the encoded copy cannot be downloaded or decoded
+   */
+  private Long transferEncoded(
+      LibraryFile lib, LibraryEncoding encoding, Path part, DownloadProgress.Attempt counted)
+      throws IOException {
+    URI uri = resolve(encoding.file);
+    ArtifactCodec codec = ArtifactCodecs.find(encoding.codec);
+    log.fine(String.format("Downloading %s to %s, decoding %s", uri, part, codec.getName()));
+
+    Adler32 checksum = new Adler32();
+    byte[] buf = new byte[65536];
+    try (InputStream download = mirrors.open(encoding.file, 0).input;
+        InputStream encoded = new CountingInputStream(download, lib.file, counted);
+        InputStream input = codec.decode(encoded);
+        OutputStream output = Files.newOutputStream(part)) {
+      int read;
+      while ((read = input.read(buf)) > -1) {
+        output.write(buf, 0, read);
+        checksum.update(buf, 0, read);
+      }
+    } catch (InterruptedIOException | Backoff.ServerBusyException e) {
+      throw e;
+    } catch (IOException e) {
+      deleteQuietly(part);
+      CorruptDownloadException failure =
+          new CorruptDownloadException(String.format("Unable to download or decode %s", uri));
+      failure.initCause(e);
+      throw failure;
+    }
+    return checksum.getValue();
+  }
+
+  /**
+   * Transfer the file to the staging file, starting at {@code offset}.
+   *
+   * @return the checksum of the staged file, computed while it was written, or null if it has to
+   *     be computed from the file
+   */
+  private Long transfer(LibraryFile lib, Path part, long offset, DownloadProgress.Attempt counted)
+      throws IOException {
+    if (offset == lib.size) {
+      counted.add(offset);
+      return null;
+    }
+
+    URI uri = resolve(lib.file);
+    if (uri.getScheme().equals("file")) {
+      transferLocal(lib, localPath(uri), part, offset, counted);
+      return null;
+    }
+
+    try (Download download = mirrors.open(lib.file, offset)) {
+      boolean resumed = download.offset > 0;
+      if (resumed) log.fine(String.format("Resuming %s at byte %d", uri, download.offset));
+      else log.fine(String.format("Downloading %s to %s", uri, part));
+      if (offset > 0 && !resumed)
+        log.info(String.format("%s does not support ranges, downloading it again", uri));
+
+      counted.add(download.offset);
+
+      Adler32 checksum = new Adler32();
+      byte[] buf = new byte[65536];
+      OpenOption[] options = new OpenOption[0];
+      if (resumed) {
+        // the staged prefix is local, reading it back is cheap compared to fetching it again
+        update(checksum, part, buf);
+        options = new OpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.APPEND};
+      }
+
+      try (OutputStream output = Files.newOutputStream(part, options)) {
+        int read;
+        while ((read = download.input.read(buf)) > -1) {
+          if (Thread.currentThread().isInterrupted())
+            throw new InterruptedIOException(String.format("Download of %s cancelled", lib.file));
+          output.write(buf, 0, read);
+          checksum.update(buf, 0, read);
+          counted.add(read);
+        }
+      }
+      return checksum.getValue();
+    }
+  }
+
+  private static void update(Adler32 checksum, Path file, byte[] buf) throws IOException {
+    try (InputStream input = Files.newInputStream(file)) {
+      int read;
+      while ((read = input.read(buf)) > -1) checksum.update(buf, 0, read);
+    }
+  }
+
+  /**
+   * Synchronize from a repository on a local or network file system without copying through the
+   * heap: a hard link when the repository is on the same volume as the cache, otherwise a channel
+   * to channel transfer that the OS can perform without copying to user space.
+   */
+  private void transferLocal(
+      LibraryFile lib, Path source, Path part, long offset, DownloadProgress.Attempt counted)
+      throws IOException {
+    if (offset == 0 && link(source, part)) {
+      log.fine(String.format("Linked %s to %s", source, part));
+      counted.add(Files.size(part));
+      return;
+    }
+
+    log.fine(String.format("Copying %s to %s from byte %d", source, part, offset));
+    try (FileChannel input = FileChannel.open(source, StandardOpenOption.READ);
+        FileChannel output =
+            FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      output.truncate(offset);
+      output.position(offset);
+      counted.add(offset);
+
+      long position = offset;
+      long size = input.size();
+      while (position < size) {
+        if (Thread.currentThread().isInterrupted())
+          throw new InterruptedIOException(String.format("Download of %s cancelled", lib.file));
+        // transfer in slices so progress is reported and cancellation is noticed
+        long slice = Math.min(LOCAL_SLICE, size - position);
+        long transferred = input.transferTo(position, slice, output);
+        if (transferred <= 0) break;
+        position += transferred;
+        counted.add(transferred);
+      }
+    }
+  }
+
+  private static boolean link(Path source, Path part) {
+    try {
+      if (!Files.getFileStore(source).equals(Files.getFileStore(part.getParent()))) return false;
+      Files.deleteIfExists(part);
+      Files.createLink(part, source);
+      return true;
+    } catch (IOException | UnsupportedOperationException | SecurityException e) {
+      log.log(Level.FINE, String.format("Unable to link %s, copying it instead", source), e);
+      return false;
+    }
+  }
+
+  /** The path of a file: uri, including UNC paths with a host, like file://server/share/app. */
+  static Path localPath(URI uri) {
+    if (uri.getAuthority() == null || uri.getAuthority().isEmpty())
+      return new File(uri.getPath()).toPath();
+    try {
+      return Paths.get(uri);
+    } catch (IllegalArgumentException e) {
+      // file systems without UNC support take the path as it is
+      return new File(uri.getPath()).toPath();
+    }
+  }
+
+  /**
+   * Check the staged file against the manifest entry.
+   *
+   * @param checksum the checksum computed while the file was written, or null to read the file
+   */
+  private void verify(LibraryFile lib, Path part, Long checksum) throws IOException {
+    StartupReport.Span span = report.begin(StartupReport.VERIFY, lib.file);
+    LauncherEvents.Recording event = LauncherEvents.get().verification(lib.file);
+    boolean failed = true;
+    try {
+      check(lib, part, checksum);
+      span.add(lib.size, 1);
+      failed = false;
+    } catch (IOException e) {
+      span.fail();
+      throw e;
+    } finally {
+      span.end();
+      // the checksum is only read back from the file when it was not computed while writing
+      event.end(checksum == null ? lib.size : 0, failed);
+    }
+  }
+
+  private static void check(LibraryFile lib, Path part, Long checksum) throws IOException {
+    long size = Files.size(part);
+    // a short file is kept so the next attempt can resume it
+    if (size < lib.size)
+      throw new IOException(
+          String.format("Downloaded %d of %d bytes of %s", size, lib.size, lib.file));
+    if (size > lib.size) {
+      Files.delete(part);
+      throw new CorruptDownloadException(
+          String.format("Downloaded %d bytes of %s, expected %d", size, lib.file, lib.size));
+    }
+
+    if (checksum == null) checksum = LibraryFile.checksum(part);
+    if (checksum.longValue() != lib.checksum) {
+      Files.delete(part);
+      throw new CorruptDownloadException(
+          String.format(
+              "Checksum mismatch for %s, expected %d but was %d",
+              lib.file, lib.checksum, checksum));
+    }
+  }
+
+  URI resolve(String file) {
+    return mirrors.resolve(file);
+  }
+
+  /**
+   * Open a stream on the given uri, starting at {@code offset} if the source supports it.
+   *
+   * @return the stream, along with the offset it actually starts at, which is 0 when the source
+   *     ignored the requested range
+   * @throws Backoff.ServerBusyException if the repository answers that it is busy
+   */
+  static Download openDownload(URI uri, long offset) throws IOException {
+    if (uri.getScheme().equals("file")) {
+      FileChannel channel = FileChannel.open(localPath(uri));
+      channel.position(offset);
+      return new Download(Channels.newInputStream(channel), offset);
+    }
+
+    URLConnection connection = uri.toURL().openConnection();
+    if (uri.getUserInfo() != null) {
+      byte[] payload = uri.getUserInfo().getBytes(StandardCharsets.UTF_8);
+      String encoded = Base64.getEncoder().encodeToString(payload);
+      connection.setRequestProperty("Authorization", String.format("Basic %s", encoded));
+    }
+    if (connection instanceof HttpURLConnection) {
+      HttpURLConnection http = (HttpURLConnection) connection;
+      if (offset > 0) http.setRequestProperty("Range", String.format("bytes=%d-", offset));
+      Backoff.checkBusy(http, uri);
+      if (offset > 0
+          && http.getResponseCode() == HttpURLConnection.HTTP_PARTIAL
+          && startsAt(http.getHeaderField("Content-Range"), offset))
+        return new Download(http.getInputStream(), offset);
+
+      if (offset > 0 && http.getResponseCode() == HTTP_RANGE_NOT_SATISFIABLE) {
+        http.disconnect();
+        return openDownload(uri, 0);
+      }
+    }
+    return new Download(connection.getInputStream(), 0);
+  }
+
+  private static boolean startsAt(String contentRange, long offset) {
+    // Content-Range: bytes <first>-<last>/<length>
+    if (contentRange == null || !contentRange.startsWith("bytes ")) return false;
+    int dash = contentRange.indexOf('-');
+    if (dash < 0) return false;
+    try {
+      return Long.parseLong(contentRange.substring(6, dash).trim()) == offset;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private static Exception unwrap(ExecutionException e) {
+    Throwable cause = e.getCause();
+    if (cause instanceof Error) throw (Error) cause;
+    return cause instanceof Exception ? (Exception) cause : e;
+  }
+
+  static class Download implements Closeable {
+    final InputStream input;
+    final long offset;
+
+    Download(InputStream input, long offset) {
+      this.input = input;
+      this.offset = offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+      input.close();
+    }
+  }
+
+  /** Reports the bytes read to the progress of an attempt, and stops when it is cancelled. */
+  private static class CountingInputStream extends FilterInputStream {
+    private final String file;
+    private final DownloadProgress.Attempt counted;
+
+    CountingInputStream(InputStream input, String file, DownloadProgress.Attempt counted) {
+      super(input);
+      this.file = file;
+      this.counted = counted;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] single = new byte[1];
+      return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws IOException {
+      if (Thread.currentThread().isInterrupted())
+        throw new InterruptedIOException(String.format("Download of %s cancelled", file));
+      int read = super.read(buf, off, len);
+      if (read > 0) counted.add(read);
+      return read;
+    }
+  }
+
+  /** The staged file does not match the manifest entry. */
+  static class CorruptDownloadException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    CorruptDownloadException(String message) {
+      super(message);
+    }
+  }
+
+  private static class WorkerFactory implements ThreadFactory {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable task) {
+      Thread thread = new Thread(task, "FXLauncher-Download-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package fxlauncher.old;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Content addressed store of artifacts shared by every application and version that points to it.
+ * Files are kept once, named by their checksum and size, and the cache dir of each application
+ * only holds hard links to them. When the store and a cache dir are on different volumes, or the
+ * file system does not support hard links, files are copied instead.
+ *
+ * <p>Files in the cache are never modified in place, downloads and patches are staged and moved
+ * over the link, so sharing the content between cache dirs is safe.
+ */
+class ArtifactStore {
+  private static final Logger log = Logger.getLogger("ArtifactStore");
+
+  private final Path root;
+
+  ArtifactStore(Path root) {
+    this.root = root;
+  }
+
+  /**
+   * Open the store configured with <code>--artifact-store</code>.
+   *
+   * @param dir the configured directory, may be null
+   * @return the store, or null if none is configured
+   */
+  static ArtifactStore open(String dir) {
+    return dir == null || dir.trim().isEmpty() ? null : new ArtifactStore(Paths.get(dir.trim()));
+  }
+
+  Path getRoot() {
+    return root;
+  }
+
+  /** The location of the content of the given file in the store. */
+  Path blob(LibraryFile lib) {
+    String shard = String.format("%02x", lib.checksum & 0xff);
+    return root.resolve(shard).resolve(String.format("%d-%d", lib.checksum, lib.size));
+  }
+
+  /**
+   * Put the content of the given file in place from the store, if the store has it.
+   *
+   * @param lib the file to restore
+   * @param target where to put it
+   * @return true if the file was restored, false if it has to be downloaded
+   */
+  boolean restore(LibraryFile lib, Path target) {
+    Path blob = blob(lib);
+    try {
+      if (!Files.isRegularFile(blob)) return false;
+      if (Files.size(blob) != lib.size || LibraryFile.checksum(blob) != lib.checksum) {
+        log.warning(String.format("Removing corrupt %s from the artifact store", blob));
+        Files.deleteIfExists(blob);
+        return false;
+      }
+
+      Files.createDirectories(target.getParent());
+      Path tmp = AtomicFiles.tempSibling(target);
+      try {
+        linkOrCopy(blob, tmp);
+        AtomicFiles.move(tmp, target, true);
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+      log.fine(String.format("Restored %s from %s", target, blob));
+      return true;
+    } catch (IOException e) {
+      log.log(Level.INFO, String.format("Unable to restore %s from %s", target, blob), e);
+      return false;
+    }
+  }
+
+  /**
+   * Add a verified file to the store, unless the store already has its content.
+   *
+   * @param lib the manifest entry that the file matches
+   * @param file the file
+   */
+  void publish(LibraryFile lib, Path file) {
+    Path blob = blob(lib);
+    if (Files.exists(blob)) return;
+
+    Path tmp = null;
+    try {
+      Files.createDirectories(blob.getParent());
+      tmp = AtomicFiles.tempSibling(blob);
+      linkOrCopy(file, tmp);
+      AtomicFiles.move(tmp, blob, false);
+      log.fine(String.format("Published %s as %s", file, blob));
+    } catch (FileAlreadyExistsException e) {
+      // another launcher got there first
+    } catch (IOException e) {
+      log.log(Level.INFO, String.format("Unable to publish %s to %s", file, blob), e);
+    } finally {
+      try {
+        if (tmp != null) Files.deleteIfExists(tmp);
+      } catch (IOException ignored) {
+      }
+    }
+  }
+
+  private static void linkOrCopy(Path existing, Path link) throws IOException {
+    try {
+      Files.createLink(link, existing);
+    } catch (IOException | UnsupportedOperationException e) {
+      Files.copy(existing, link, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package fxlauncher.old;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Replaces files in the cache dir without other launchers ever seeing them partly written. The
+ * content goes to a uniquely named temporary file next to the target, which is then moved into
+ * place, atomically where the file system supports it.
+ */
+final class AtomicFiles {
+  private AtomicFiles() {}
+
+  /** A {@link java.util.function.Consumer} that may fail with an {@link IOException}. */
+  @FunctionalInterface
+  interface IOConsumer<T> {
+    void accept(T value) throws IOException;
+  }
+
+  /**
+   * Write a file to a temporary file and move it over the target. The temporary file is removed
+   * whether or not the write succeeds.
+   *
+   * @param target the file to replace
+   * @param content writes the new content of the file
+   * @throws IOException if the content cannot be written or moved into place
+   */
+  static void replaceAtomically(Path target, IOConsumer<OutputStream> content) throws IOException {
+    Path tmp = tempSibling(target);
+    try {
+      try (OutputStream output = Files.newOutputStream(tmp)) {
+        content.accept(output);
+      }
+      move(tmp, target, true);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  /**
+   * @param target the file to replace
+   * @return a new name for a temporary file in the same dir as the target
+   */
+  static Path tempSibling(Path target) {
+    return target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+  }
+
+  /**
+   * Move a file, atomically if the file system supports it.
+   *
+   * @param source the file to move
+   * @param target where to move it
+   * @param replace whether an existing target is replaced, otherwise the move fails
+   * @throws IOException if the file cannot be moved
+   */
+  static void move(Path source, Path target, boolean replace) throws IOException {
+    try {
+      if (replace)
+        Files.move(
+            source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      else Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      if (replace) Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+      else Files.move(source, target);
+    }
+  }
+}
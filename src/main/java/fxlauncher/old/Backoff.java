@@ -0,0 +1,159 @@
+package fxlauncher.old;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Retries requests that a busy repository turns away. A <code>503 Service Unavailable</code> or
+ * <code>429 Too Many Requests</code> answer is retried after an exponential backoff with full
+ * jitter, so clients that were turned away together do not come back together. When the answer
+ * carries a <code>Retry-After</code> header, the client waits at least that long.
+ *
+ * <p>A repository that asks for a longer wait than the backoff allows, or that is still busy after
+ * the last attempt, fails the request like any other error.
+ */
+class Backoff {
+  private static final Logger log = Logger.getLogger("Backoff");
+
+  static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+  /** Four attempts, up to 1, 2 and 4 seconds apart, plus a <code>Retry-After</code> of a minute. */
+  static final Backoff DEFAULT =
+      new Backoff(TimeUnit.SECONDS.toMillis(1), TimeUnit.MINUTES.toMillis(1), 4);
+
+  private final long baseMillis;
+  private final long maxMillis;
+  private final int maxAttempts;
+
+  /**
+   * @param baseMillis the longest wait after the first attempt, doubled after every attempt
+   * @param maxMillis the ceiling of the backoff, and the longest <code>Retry-After</code> that is
+   *     waited for
+   * @param maxAttempts the number of attempts, including the first
+   */
+  Backoff(long baseMillis, long maxMillis, int maxAttempts) {
+    this.baseMillis = baseMillis;
+    this.maxMillis = maxMillis;
+    this.maxAttempts = maxAttempts;
+  }
+
+  interface Request<T> {
+    T call() throws IOException;
+  }
+
+  /**
+   * Make a request, and retry it while the repository is busy.
+   *
+   * @param what what is requested, for the log
+   * @param request the request
+   * @return the result of the first attempt that was not turned away
+   * @throws IOException the failure of the request, or the {@link ServerBusyException} of the
+   *     last attempt
+   * @throws InterruptedIOException if interrupted while waiting
+   */
+  <T> T call(String what, Request<T> request) throws IOException {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return request.call();
+      } catch (ServerBusyException e) {
+        if (attempt >= maxAttempts || e.getRetryAfter() > maxMillis) throw e;
+        long delay = delay(attempt, e.getRetryAfter());
+        log.info(
+            String.format(
+                "%s, requesting %s again in %d ms (attempt %d of %d)",
+                e.getMessage(), what, delay, attempt + 1, maxAttempts));
+        try {
+          Thread.sleep(delay);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException(String.format("Request of %s cancelled", what));
+        }
+      }
+    }
+  }
+
+  /**
+   * The wait after an attempt: a random share of a ceiling that doubles with every attempt, on top
+   * of the wait the repository asked for.
+   *
+   * @param attempt the attempt that was turned away, starting at 1
+   * @param retryAfter the wait asked for in milliseconds, or -1 if none
+   * @return the wait in milliseconds
+   */
+  long delay(int attempt, long retryAfter) {
+    long ceiling = baseMillis << Math.min(attempt - 1, 30);
+    return Math.max(retryAfter, 0) + jitter(Math.min(ceiling, maxMillis));
+  }
+
+  /**
+   * @param maxMillis the longest wait
+   * @return a random wait between 0 and the longest wait
+   */
+  static long jitter(long maxMillis) {
+    return maxMillis > 0 ? ThreadLocalRandom.current().nextLong(maxMillis + 1) : 0;
+  }
+
+  /**
+   * Fail if the repository turned the request away.
+   *
+   * @param connection the connection, the request is sent if it was not yet
+   * @param uri the uri requested, for the message
+   * @throws ServerBusyException if the answer is <code>503</code> or <code>429</code>
+   */
+  static void checkBusy(HttpURLConnection connection, URI uri) throws IOException {
+    int status = connection.getResponseCode();
+    if (status != HttpURLConnection.HTTP_UNAVAILABLE && status != HTTP_TOO_MANY_REQUESTS) return;
+    long retryAfter = parseRetryAfter(connection.getHeaderField("Retry-After"));
+    connection.disconnect();
+    throw new ServerBusyException(String.format("%s answered %d", uri, status), retryAfter);
+  }
+
+  /**
+   * Parse a <code>Retry-After</code> header, either a number of seconds or an http date.
+   *
+   * @param value the header, may be null
+   * @return the wait in milliseconds, or -1 if there is no valid header
+   */
+  static long parseRetryAfter(String value) {
+    if (value == null || value.trim().isEmpty()) return -1;
+    String trimmed = value.trim();
+    if (Character.isDigit(trimmed.charAt(0))) {
+      try {
+        return TimeUnit.SECONDS.toMillis(Long.parseLong(trimmed));
+      } catch (NumberFormatException e) {
+        return -1;
+      }
+    }
+    try {
+      long at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+      return Math.max(0, TimeUnit.SECONDS.toMillis(at) - System.currentTimeMillis());
+    } catch (DateTimeParseException e) {
+      return -1;
+    }
+  }
+
+  /** The repository answered <code>503</code> or <code>429</code>. */
+  static class ServerBusyException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfter;
+
+    ServerBusyException(String message, long retryAfter) {
+      super(message);
+      this.retryAfter = retryAfter;
+    }
+
+    /** @return the wait the repository asked for in milliseconds, or -1 if none */
+    long getRetryAfter() {
+      return retryAfter;
+    }
+  }
+}
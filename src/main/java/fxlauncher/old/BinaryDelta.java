@@ -0,0 +1,231 @@
+package fxlauncher.old;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Binary patches that turn one version of a file into the next.
+ *
+ * <p>Patches are created rsync style: the source file is split into fixed size blocks that are
+ * indexed by a rolling checksum, and the target file is scanned for runs that already exist
+ * somewhere in the source. Those runs become copy instructions, everything else is inserted
+ * literally. Unchanged entries of a jar keep their compressed bytes and only move around, so a
+ * release that touches a few classes yields a patch of roughly the size of those classes.
+ *
+ * <p>The patch format is a <code>FXLD</code> header followed by a stream of instructions:
+ *
+ * <pre>
+ * magic "FXLD", version (byte), source size (long), target size (long)
+ * COPY   (byte 1), source offset (long), length (int)
+ * INSERT (byte 2), length (int), bytes
+ * END    (byte 0)
+ * </pre>
+ */
+final class BinaryDelta {
+  static final int BLOCK_SIZE = 1024;
+
+  private static final byte[] MAGIC = {'F', 'X', 'L', 'D'};
+  private static final int VERSION = 1;
+
+  private static final int END = 0;
+  private static final int COPY = 1;
+  private static final int INSERT = 2;
+
+  private BinaryDelta() {}
+
+  /**
+   * Write a patch that transforms {@code source} into {@code target}. Both files are held in
+   * memory while the patch is computed.
+   */
+  static void create(Path source, Path target, OutputStream patch) throws IOException {
+    create(Files.readAllBytes(source), Files.readAllBytes(target), patch);
+  }
+
+  static void create(byte[] source, byte[] target, OutputStream patch) throws IOException {
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(patch));
+    out.write(MAGIC);
+    out.writeByte(VERSION);
+    out.writeLong(source.length);
+    out.writeLong(target.length);
+
+    BlockIndex index = new BlockIndex(source);
+    int literalStart = 0;
+    int pos = 0;
+    RollingChecksum rolling = new RollingChecksum(target, 0);
+
+    while (pos + BLOCK_SIZE <= target.length) {
+      int block = index.find(rolling.value(), target, pos);
+      if (block < 0) {
+        if (pos + BLOCK_SIZE < target.length) rolling.roll(target[pos], target[pos + BLOCK_SIZE]);
+        pos++;
+        continue;
+      }
+
+      // grow the match in both directions, it rarely starts or ends on a block boundary
+      int from = block * BLOCK_SIZE;
+      int start = pos;
+      while (start > literalStart && from > 0 && source[from - 1] == target[start - 1]) {
+        start--;
+        from--;
+      }
+      int end = pos + BLOCK_SIZE;
+      int sourceEnd = from + (end - start);
+      while (end < target.length && sourceEnd < source.length && source[sourceEnd] == target[end]) {
+        end++;
+        sourceEnd++;
+      }
+
+      writeInsert(out, target, literalStart, start);
+      out.writeByte(COPY);
+      out.writeLong(from);
+      out.writeInt(end - start);
+
+      pos = literalStart = end;
+      if (pos + BLOCK_SIZE <= target.length) rolling = new RollingChecksum(target, pos);
+    }
+
+    writeInsert(out, target, literalStart, target.length);
+    out.writeByte(END);
+    out.flush();
+  }
+
+  /**
+   * Apply a patch to {@code source}, writing the result to {@code target}.
+   *
+   * @throws IOException if the patch is malformed or was created for a different source file
+   */
+  static void apply(Path source, InputStream patch, OutputStream target) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(patch));
+    byte[] magic = new byte[MAGIC.length];
+    in.readFully(magic);
+    if (!Arrays.equals(MAGIC, magic) || in.readByte() != VERSION)
+      throw new IOException("Not a supported patch");
+
+    try (FileChannel channel = FileChannel.open(source)) {
+      long sourceSize = in.readLong();
+      long targetSize = in.readLong();
+      if (sourceSize != channel.size())
+        throw new IOException(
+            String.format(
+                "Patch expects a source of %d bytes, but %s has %d",
+                sourceSize, source, channel.size()));
+
+      byte[] buf = new byte[65536];
+      long written = 0;
+      int op;
+      while ((op = in.readByte()) != END) {
+        if (op == COPY) {
+          long position = in.readLong();
+          int remaining = in.readInt();
+          if (position < 0 || remaining < 0 || position + remaining > sourceSize)
+            throw new IOException("Patch copies outside of the source file");
+          written += remaining;
+          while (remaining > 0) {
+            ByteBuffer buffer = ByteBuffer.wrap(buf, 0, Math.min(buf.length, remaining));
+            int read = channel.read(buffer, position);
+            if (read < 0) throw new EOFException(String.format("Unexpected end of %s", source));
+            target.write(buf, 0, read);
+            position += read;
+            remaining -= read;
+          }
+        } else if (op == INSERT) {
+          int remaining = in.readInt();
+          if (remaining < 0) throw new IOException("Malformed patch");
+          written += remaining;
+          while (remaining > 0) {
+            int read = in.read(buf, 0, Math.min(buf.length, remaining));
+            if (read < 0) throw new EOFException("Unexpected end of patch");
+            target.write(buf, 0, read);
+            remaining -= read;
+          }
+        } else {
+          throw new IOException(String.format("Unknown patch instruction %d", op));
+        }
+      }
+
+      if (written != targetSize)
+        throw new IOException(
+            String.format("Patch produced %d bytes, expected %d", written, targetSize));
+    }
+  }
+
+  private static void writeInsert(DataOutputStream out, byte[] data, int from, int to)
+      throws IOException {
+    if (to <= from) return;
+    out.writeByte(INSERT);
+    out.writeInt(to - from);
+    out.write(data, from, to - from);
+  }
+
+  /** The rsync weak checksum, which can be moved along the data one byte at a time. */
+  private static class RollingChecksum {
+    private int a;
+    private int b;
+
+    RollingChecksum(byte[] data, int offset) {
+      for (int i = 0; i < BLOCK_SIZE && offset + i < data.length; i++) {
+        int value = data[offset + i] & 0xff;
+        a += value;
+        b += (BLOCK_SIZE - i) * value;
+      }
+    }
+
+    void roll(byte out, byte in) {
+      a += (in & 0xff) - (out & 0xff);
+      b += a - BLOCK_SIZE * (out & 0xff);
+    }
+
+    int value() {
+      return (b << 16) | (a & 0xffff);
+    }
+  }
+
+  /** Hash table of the weak checksum of every full block of the source, chained by block number. */
+  private static class BlockIndex {
+    private final byte[] source;
+    private final int[] checksums;
+    private final int[] heads;
+    private final int[] next;
+
+    BlockIndex(byte[] source) {
+      this.source = source;
+      int blocks = source.length / BLOCK_SIZE;
+      checksums = new int[blocks];
+      next = new int[blocks];
+      heads = new int[Integer.highestOneBit(Math.max(1, blocks)) << 1];
+      Arrays.fill(heads, -1);
+
+      // insert in reverse, so the chains list the earliest block first
+      for (int block = blocks - 1; block >= 0; block--) {
+        int checksum = new RollingChecksum(source, block * BLOCK_SIZE).value();
+        int slot = checksum & (heads.length - 1);
+        checksums[block] = checksum;
+        next[block] = heads[slot];
+        heads[slot] = block;
+      }
+    }
+
+    int find(int checksum, byte[] target, int offset) {
+      for (int block = heads[checksum & (heads.length - 1)]; block >= 0; block = next[block])
+        if (checksums[block] == checksum && matches(block * BLOCK_SIZE, target, offset))
+          return block;
+      return -1;
+    }
+
+    private boolean matches(int from, byte[] target, int offset) {
+      for (int i = 0; i < BLOCK_SIZE; i++) if (source[from + i] != target[offset + i]) return false;
+      return true;
+    }
+  }
+}
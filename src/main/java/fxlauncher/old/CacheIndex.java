@@ -0,0 +1,160 @@
+package fxlauncher.old;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Persistent record of the cache files whose checksum has already been computed, keyed by their
+ * path relative to the cache dir. As long as the size, modification time and file key of a file
+ * are the same as when it was hashed, the recorded checksum is trusted and the file is not read
+ * again.
+ */
+class CacheIndex {
+  private static final Logger log = Logger.getLogger("CacheIndex");
+
+  static final String FILENAME = "fxlauncher-cache.index";
+
+  private final Path indexFile;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private volatile boolean dirty;
+
+  private CacheIndex(Path cacheDir) {
+    this.indexFile = cacheDir.resolve(FILENAME);
+  }
+
+  /**
+   * Load the index stored in the given cache dir.
+   *
+   * @param cacheDir the cache dir
+   * @param trustEntries if false, the stored entries are discarded so every file is hashed again
+   * @return the index, empty if none was stored or it could not be read
+   */
+  static CacheIndex load(Path cacheDir, boolean trustEntries) {
+    CacheIndex index = new CacheIndex(cacheDir);
+    if (!trustEntries || !Files.exists(index.indexFile)) return index;
+
+    Properties props = read(index.indexFile);
+    for (String path : props.stringPropertyNames()) {
+      Entry entry = Entry.parse(props.getProperty(path));
+      if (entry != null) index.entries.put(path, entry);
+    }
+    return index;
+  }
+
+  /**
+   * Get the recorded checksum of a file, provided the file is unchanged since it was recorded.
+   *
+   * @param relativePath the path of the file relative to the cache dir
+   * @param file the file itself
+   * @return the recorded checksum, or null if there is none or the file has changed since
+   */
+  Long verifiedChecksum(String relativePath, Path file) {
+    Entry recorded = entries.get(relativePath);
+    return recorded != null && recorded.describes(file) ? recorded.checksum : null;
+  }
+
+  /**
+   * Record the checksum computed for a file together with its current stat data.
+   *
+   * @param relativePath the path of the file relative to the cache dir
+   * @param file the file itself
+   * @param checksum the checksum of the file content
+   */
+  void record(String relativePath, Path file, long checksum) {
+    try {
+      entries.put(relativePath, Entry.stat(file, checksum));
+      dirty = true;
+    } catch (IOException e) {
+      log.log(Level.FINE, String.format("Unable to stat %s", file), e);
+    }
+  }
+
+  /** Write the index back to the cache dir if any entries were recorded. */
+  // the lock is only held, never read
+  @SuppressWarnings("try")
+  void save() {
+    if (!dirty) return;
+
+    // launchers sharing the cache dir keep each other's entries, the stat data decides which hold
+    try (CacheLock lock = CacheLock.acquire(indexFile.getParent(), FILENAME)) {
+      Properties props = Files.exists(indexFile) ? read(indexFile) : new Properties();
+      entries.forEach((path, entry) -> props.setProperty(path, entry.toString()));
+
+      String comment = "FXLauncher cache index: path=size:mtime:checksum:filekey";
+      AtomicFiles.replaceAtomically(indexFile, output -> props.store(output, comment));
+      dirty = false;
+    } catch (IOException e) {
+      log.log(Level.WARNING, String.format("Unable to write cache index %s", indexFile), e);
+    }
+  }
+
+  private static Properties read(Path indexFile) {
+    Properties props = new Properties();
+    try (InputStream input = Files.newInputStream(indexFile)) {
+      props.load(input);
+    } catch (IOException | IllegalArgumentException e) {
+      log.log(Level.WARNING, String.format("Ignoring unreadable cache index %s", indexFile), e);
+      return new Properties();
+    }
+    return props;
+  }
+
+  private static class Entry {
+    private final long size;
+    private final long modified;
+    private final long checksum;
+    private final String fileKey;
+
+    private Entry(long size, long modified, long checksum, String fileKey) {
+      this.size = size;
+      this.modified = modified;
+      this.checksum = checksum;
+      this.fileKey = fileKey;
+    }
+
+    private static Entry stat(Path file, long checksum) throws IOException {
+      BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+      Object key = attrs.fileKey();
+      return new Entry(
+          attrs.size(),
+          attrs.lastModifiedTime().toMillis(),
+          checksum,
+          key == null ? "" : key.toString());
+    }
+
+    private static Entry parse(String value) {
+      String[] parts = value.split(":", 4);
+      if (parts.length != 4) return null;
+      try {
+        return new Entry(
+            Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[3]);
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+
+    private boolean describes(Path file) {
+      try {
+        Entry current = stat(file, checksum);
+        return size == current.size
+            && modified == current.modified
+            && fileKey.equals(current.fileKey);
+      } catch (IOException e) {
+        return false;
+      }
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d:%d:%d:%s", size, modified, checksum, fileKey);
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package fxlauncher.old;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.FileLockInterruptionException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An exclusive lock on a part of the cache dir, shared by every launcher process that uses the
+ * same cache dir. Launchers in the same JVM are serialized by an in-process lock first, because
+ * file locks are held by the whole JVM.
+ *
+ * <p>The lock files are kept in <code>fxlauncher-locks</code> in the cache dir. They are never
+ * deleted, deleting a lock file that another process is about to lock would break the exclusion.
+ * On file systems without lock support only the in-process lock is taken.
+ */
+class CacheLock implements Closeable {
+  private static final Logger log = Logger.getLogger("CacheLock");
+
+  static final String DIRNAME = "fxlauncher-locks";
+
+  private static final Map<Path, ReentrantLock> LOCAL_LOCKS = new ConcurrentHashMap<>();
+
+  private final ReentrantLock local;
+  private final FileChannel channel;
+  private final FileLock lock;
+  private final boolean contended;
+
+  private CacheLock(ReentrantLock local, FileChannel channel, FileLock lock, boolean contended) {
+    this.local = local;
+    this.channel = channel;
+    this.lock = lock;
+    this.contended = contended;
+  }
+
+  /**
+   * Lock a file of the cache dir, waiting for another launcher to release it.
+   *
+   * @param cacheDir the cache dir
+   * @param name the file to lock, relative to the cache dir
+   * @return the lock, to be closed when done
+   * @throws InterruptedIOException if the thread is interrupted while waiting
+   */
+  static CacheLock acquire(Path cacheDir, String name) throws IOException {
+    Path lockDir = cacheDir.resolve(DIRNAME);
+    Files.createDirectories(lockDir);
+    // one flat file per name, the name may be a path several levels deep
+    Path lockFile = lockDir.resolve(Strings.sha256(name).substring(0, 32) + ".lock");
+
+    ReentrantLock local =
+        LOCAL_LOCKS.computeIfAbsent(lockFile.toAbsolutePath(), it -> new ReentrantLock());
+    boolean contended = !local.tryLock();
+    if (contended) {
+      try {
+        local.lockInterruptibly();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException(String.format("Interrupted waiting for %s", name));
+      }
+    }
+
+    FileChannel channel = null;
+    try {
+      channel =
+          FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      FileLock lock = channel.tryLock();
+      if (lock == null) {
+        log.fine(String.format("Waiting for another launcher to finish with %s", name));
+        contended = true;
+        lock = channel.lock();
+      }
+      return new CacheLock(local, channel, lock, contended);
+    } catch (ClosedByInterruptException | FileLockInterruptionException e) {
+      local.unlock();
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(String.format("Interrupted waiting for %s", name));
+    } catch (IOException | UnsupportedOperationException e) {
+      log.log(Level.FINE, String.format("Unable to lock %s, locking in process only", lockFile), e);
+      closeQuietly(channel);
+      return new CacheLock(local, null, null, contended);
+    } catch (RuntimeException | Error e) {
+      local.unlock();
+      closeQuietly(channel);
+      throw e;
+    }
+  }
+
+  /** @return true if another launcher held the lock when it was requested */
+  boolean wasContended() {
+    return contended;
+  }
+
+  @Override
+  public void close() {
+    try {
+      if (lock != null) lock.release();
+    } catch (IOException e) {
+      log.log(Level.FINE, "Unable to release a cache lock", e);
+    } finally {
+      closeQuietly(channel);
+      local.unlock();
+    }
+  }
+
+  private static void closeQuietly(FileChannel channel) {
+    try {
+      if (channel != null) channel.close();
+    } catch (IOException ignored) {
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package fxlauncher.old;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The ordered list of application classes loaded shortly after launch.
+ *
+ * <p>The first launch of a version of the application records the classes the {@link
+ * IndexedClassLoader} defines during the first seconds, and stores them in <code>
+ * fxlauncher-classes.trace</code> in the cache dir, together with the {@link
+ * FXManifest#filesDigest() digest} of the files. Later launches of the same files load those
+ * classes on background threads while the application initializes, so the application thread finds
+ * them already defined. The classes are only loaded, not initialized: static initializers still run
+ * on the thread that first uses the class.
+ */
+class ClassLoadTrace {
+  private static final Logger log = Logger.getLogger("ClassLoadTrace");
+
+  static final String FILENAME = "fxlauncher-classes.trace";
+
+  private static final String HEADER = "# fxlauncher class load trace ";
+
+  private final Path traceFile;
+  private final String digest;
+
+  ClassLoadTrace(Path cacheDir, FXManifest manifest) {
+    this.traceFile = cacheDir.resolve(FILENAME);
+    this.digest = manifest.filesDigest();
+  }
+
+  /**
+   * Preload the recorded classes, or record them if there is no trace for the current files.
+   *
+   * @param classLoader the class loader of the application
+   * @param windowMillis how long to record after launch
+   * @return completes when the classes are preloaded or the trace is stored
+   */
+  CompletableFuture<Void> start(IndexedClassLoader classLoader, long windowMillis) {
+    List<String> classNames = load();
+    if (classNames != null) return preload(classLoader, classNames, preloadThreads());
+    return record(classLoader, windowMillis);
+  }
+
+  /**
+   * Read the stored trace.
+   *
+   * @return the class names in load order, or null if no trace was recorded for the current files
+   */
+  List<String> load() {
+    if (!Files.exists(traceFile)) return null;
+    try (BufferedReader reader = Files.newBufferedReader(traceFile, StandardCharsets.UTF_8)) {
+      if (!(HEADER + digest).equals(reader.readLine())) return null;
+      List<String> classNames = new ArrayList<>();
+      String line;
+      while ((line = reader.readLine()) != null) if (!line.isEmpty()) classNames.add(line);
+      return classNames;
+    } catch (IOException e) {
+      log.log(
+          Level.WARNING, String.format("Ignoring unreadable class load trace %s", traceFile), e);
+      return null;
+    }
+  }
+
+  /**
+   * Record the classes the class loader defines for a while, then store them.
+   *
+   * @param classLoader the class loader of the application
+   * @param windowMillis how long to record
+   * @return completes when the trace is stored
+   */
+  CompletableFuture<Void> record(IndexedClassLoader classLoader, long windowMillis) {
+    Queue<String> classNames = new ConcurrentLinkedQueue<>();
+    classLoader.setClassListener(classNames::add);
+    log.info(String.format("Recording the classes loaded in the first %d ms", windowMillis));
+
+    CompletableFuture<Void> stored = new CompletableFuture<>();
+    Thread recorder =
+        new Thread(
+            () -> {
+              try {
+                TimeUnit.MILLISECONDS.sleep(windowMillis);
+              } catch (InterruptedException e) {
+                // store what was recorded so far
+              }
+              classLoader.setClassListener(null);
+              write(new ArrayList<>(classNames));
+              stored.complete(null);
+            },
+            "FXLauncher-Class-Trace");
+    recorder.setDaemon(true);
+    recorder.start();
+    return stored;
+  }
+
+  /**
+   * Load the given classes on background threads. Classes that cannot be loaded are skipped.
+   *
+   * @param classLoader the class loader of the application
+   * @param classNames the classes, in the order they were loaded when recorded
+   * @param threads the number of threads to load with
+   * @return completes when every class was loaded
+   */
+  static CompletableFuture<Void> preload(
+      ClassLoader classLoader, List<String> classNames, int threads) {
+    log.info(String.format("Preloading %d classes on %d threads", classNames.size(), threads));
+    // the threads take the next class in turn, so the classes load in roughly the recorded order
+    AtomicInteger next = new AtomicInteger();
+    AtomicInteger running = new AtomicInteger(threads);
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    for (int i = 1; i <= threads; i++) {
+      Thread worker =
+          new Thread(
+              () -> {
+                int index;
+                while ((index = next.getAndIncrement()) < classNames.size()) {
+                  String className = classNames.get(index);
+                  try {
+                    Class.forName(className, false, classLoader);
+                  } catch (ClassNotFoundException | LinkageError e) {
+                    log.log(Level.FINE, String.format("Unable to preload %s", className), e);
+                  }
+                }
+                if (running.decrementAndGet() == 0) done.complete(null);
+              },
+              "FXLauncher-Preload-" + i);
+      worker.setDaemon(true);
+      worker.start();
+    }
+    return done;
+  }
+
+  private static int preloadThreads() {
+    return Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+  }
+
+  private void write(List<String> classNames) {
+    try {
+      AtomicFiles.replaceAtomically(
+          traceFile,
+          output -> {
+            BufferedWriter writer =
+                new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write(HEADER + digest);
+            writer.newLine();
+            for (String className : classNames) {
+              writer.write(className);
+              writer.newLine();
+            }
+            writer.flush();
+          });
+      log.info(String.format("Recorded %d classes in %s", classNames.size(), traceFile));
+    } catch (IOException e) {
+      log.log(Level.WARNING, String.format("Unable to write class load trace %s", traceFile), e);
+    }
+  }
+}
@@ -1,7 +1,7 @@
 package fxlauncher.old;
 
-import javax.xml.bind.JAXB;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.*;
@@ -13,6 +13,17 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 public class CreateManifest {
+  /** Folder in the app path that patches are written to. */
+  public static final String PATCH_DIR = "patches";
+
+  /** Folder in the app path that encoded copies of the files are written to. */
+  public static final String ENCODED_DIR = "encoded";
+
+  /** Encoded copies are only published if they save at least this share of the file size. */
+  private static final double MIN_ENCODING_SAVINGS = 0.1;
+
+  private static List<ArtifactCodec> encodings = new ArrayList<>();
+
   private static ArrayList<String> includeExtensions = new ArrayList<>();
 
   static {
@@ -34,8 +45,11 @@ public class CreateManifest {
     String parameters = null;
     String whatsNew = null;
     String preloadNativeLibraries = null;
+    String mirrors = null;
+    Integer rollout = null;
     Boolean lingeringUpdateScreen = false;
     Boolean stopOnUpdateErrorsDeprecated = null;
+    Path previousRelease = null;
 
     if (args.length > 3) {
       // Parse named parameters
@@ -74,6 +88,12 @@ public class CreateManifest {
         if (named.containsKey("preload-native-libraries"))
           preloadNativeLibraries = named.get("preload-native-libraries");
 
+        // Configure the mirrors of the repository
+        if (named.containsKey("mirrors")) mirrors = named.get("mirrors");
+
+        // Roll the release out to a share of the clients
+        if (named.containsKey("rollout")) rollout = Integer.valueOf(named.get("rollout"));
+
         // Should the update screen stay until the primary stage is shown?
         if (named.containsKey("lingering-update-screen"))
           lingeringUpdateScreen = Boolean.valueOf(named.get("lingering-update-screen"));
@@ -81,6 +101,18 @@ public class CreateManifest {
         // Configure the whats-new option
         if (named.containsKey("whats-new")) whatsNew = named.get("whats-new");
 
+        // Create patches from the files of the previous release
+        if (named.containsKey("previous-release"))
+          previousRelease = Paths.get(named.get("previous-release"));
+
+        // Publish encoded copies of the files
+        if (named.containsKey("encodings"))
+          setEncodings(
+              Arrays.stream(named.get("encodings").split(","))
+                  .map(String::trim)
+                  .filter(s -> !s.isEmpty())
+                  .collect(Collectors.toList()));
+
         // Add additional files with these extensions to manifest
         if (named.containsKey("include-extensions"))
           includeExtensions.addAll(
@@ -106,8 +138,12 @@ public class CreateManifest {
         if (raw.startsWith("--stop-on-update-errors=")) continue;
         if (raw.startsWith("--include-extensions=")) continue;
         if (raw.startsWith("--preload-native-libraries=")) continue;
+        if (raw.startsWith("--mirrors=")) continue;
+        if (raw.startsWith("--rollout=")) continue;
         if (raw.startsWith("--whats-new")) continue;
         if (raw.startsWith("--lingering-update-screen")) continue;
+        if (raw.startsWith("--previous-release=")) continue;
+        if (raw.startsWith("--encodings=")) continue;
         if (rest.length() > 0) rest.append(" ");
         rest.append(raw);
       }
@@ -116,7 +152,7 @@ public class CreateManifest {
       if (rest.length() > 0) parameters = rest.toString();
     }
 
-    FXManifest manifest = create(baseURI, launchClass, appPath);
+    FXManifest manifest = create(baseURI, launchClass, appPath, previousRelease);
     if (updateText != null) manifest.updateText = updateText;
     if (updateLabelStyle != null) manifest.updateLabelStyle = updateLabelStyle;
     if (progressBarStyle != null) manifest.progressBarStyle = progressBarStyle;
@@ -126,6 +162,8 @@ public class CreateManifest {
     if (parameters != null) manifest.parameters = parameters;
     if (preloadNativeLibraries != null) manifest.preloadNativeLibraries = preloadNativeLibraries;
     if (whatsNew != null) manifest.whatsNewPage = whatsNew;
+    if (mirrors != null) manifest.mirrors = mirrors;
+    if (rollout != null) manifest.rollout = rollout;
     manifest.lingeringUpdateScreen = lingeringUpdateScreen;
 
     // Use --stop-on-update-errors if it was specified.
@@ -145,11 +183,28 @@ public class CreateManifest {
       System.out.println(
           "Warning: --stopOnUpdateErrors is deprecated. " + "Use --stop-on-update-errors instead.");
     }
-    JAXB.marshal(manifest, appPath.resolve("app.xml").toFile());
+    FXManifestXml.write(manifest, appPath.resolve("app.xml"));
   }
 
   public static FXManifest create(URI baseURI, String launchClass, Path appPath)
       throws IOException, URISyntaxException {
+    return create(baseURI, launchClass, appPath, null);
+  }
+
+  /**
+   * Create a manifest for the files in {@code appPath}, with patches from the files of the previous
+   * release.
+   *
+   * <p>For every file that also exists in {@code previousRelease} with a different checksum, a
+   * patch is written to {@value #PATCH_DIR} in the app path and listed in the manifest, keyed by
+   * the checksum of the previous version. Patches that are not substantially smaller than the file
+   * itself are not published.
+   *
+   * @param previousRelease the app path of the previous release, or null to create no patches
+   */
+  public static FXManifest create(
+      URI baseURI, String launchClass, Path appPath, Path previousRelease)
+      throws IOException, URISyntaxException {
     FXManifest manifest = new FXManifest();
     manifest.ts = System.currentTimeMillis();
     manifest.uri = baseURI;
@@ -161,6 +216,13 @@ public class CreateManifest {
     Files.walkFileTree(
         appPath,
         new SimpleFileVisitor<Path>() {
+          public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            // skip the output of earlier runs
+            if (dir.equals(appPath.resolve(PATCH_DIR)) || dir.equals(appPath.resolve(ENCODED_DIR)))
+              return FileVisitResult.SKIP_SUBTREE;
+            return FileVisitResult.CONTINUE;
+          }
+
           public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
               throws IOException {
             if (!Files.isDirectory(file)
@@ -171,9 +233,55 @@ public class CreateManifest {
           }
         });
 
+    if (previousRelease != null)
+      for (LibraryFile lib : manifest.files) createPatch(lib, appPath, previousRelease);
+
+    for (ArtifactCodec codec : encodings)
+      for (LibraryFile lib : manifest.files) createEncoding(lib, appPath, codec);
+
     return manifest;
   }
 
+  private static void createEncoding(LibraryFile lib, Path appPath, ArtifactCodec codec)
+      throws IOException {
+    String name = String.format("%s/%s.%s", ENCODED_DIR, lib.file, codec.getExtension());
+    Path encoded = appPath.resolve(name);
+    Files.createDirectories(encoded.getParent());
+    try (OutputStream output = codec.encode(Files.newOutputStream(encoded))) {
+      Files.copy(appPath.resolve(lib.file), output);
+    }
+
+    long size = Files.size(encoded);
+    if (size > lib.size * (1 - MIN_ENCODING_SAVINGS)) {
+      Files.delete(encoded);
+      return;
+    }
+    lib.encodings.add(new LibraryEncoding(codec.getName(), name, size));
+  }
+
+  private static void createPatch(LibraryFile lib, Path appPath, Path previousRelease)
+      throws IOException {
+    Path previous = previousRelease.resolve(lib.file);
+    if (!Files.isRegularFile(previous)) return;
+
+    long from = new LibraryFile(previousRelease, previous).checksum;
+    if (from == lib.checksum) return;
+
+    String name = String.format("%s/%s.%d.fxpatch", PATCH_DIR, lib.file, from);
+    Path patch = appPath.resolve(name);
+    Files.createDirectories(patch.getParent());
+    try (OutputStream output = Files.newOutputStream(patch)) {
+      BinaryDelta.create(previous, appPath.resolve(lib.file), output);
+    }
+
+    long size = Files.size(patch);
+    if (size > lib.size / 2) {
+      Files.delete(patch);
+      return;
+    }
+    lib.patches.add(new LibraryPatch(from, name, size));
+  }
+
   /**
    * Add the includeExtensions to the default list of "war" and "jar".
    *
@@ -185,6 +293,24 @@ public class CreateManifest {
     CreateManifest.includeExtensions.addAll(includeExtensions);
   }
 
+  /**
+   * Set the codecs used to publish encoded copies of the files, in order of preference. Copies that
+   * do not compress well are not published.
+   *
+   * @param codecNames the names of the codecs, like "gzip"
+   * @throws IllegalArgumentException if one of the codecs is not available
+   */
+  public static void setEncodings(List<String> codecNames) {
+    List<ArtifactCodec> codecs = new ArrayList<>();
+    for (String name : codecNames) {
+      ArtifactCodec codec = ArtifactCodecs.find(name);
+      if (codec == null)
+        throw new IllegalArgumentException(String.format("Unknown encoding '%s'", name));
+      codecs.add(codec);
+    }
+    encodings = codecs;
+  }
+
   private static boolean shouldIncludeInManifest(Path file) {
     String filename = file.getFileName().toString();
     for (String ext : includeExtensions) {
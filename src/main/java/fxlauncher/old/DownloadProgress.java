@@ -0,0 +1,86 @@
+package fxlauncher.old;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Aggregate progress counter shared by all download workers of a synchronization run. Each worker
+ * reports the bytes it has written, and the combined fraction is forwarded to the progress
+ * listener whenever it advances by at least a tenth of a percent.
+ */
+class DownloadProgress {
+  private static final int RESOLUTION = 1000;
+
+  private final long totalBytes;
+  private final DoubleConsumer listener;
+  private final AtomicLong written = new AtomicLong();
+  private volatile int lastReported = -1;
+
+  DownloadProgress(long totalBytes, DoubleConsumer listener) {
+    this.totalBytes = totalBytes;
+    this.listener = listener;
+  }
+
+  /**
+   * Record that a number of bytes have been transferred.
+   *
+   * @param bytes the number of bytes written since the last call
+   */
+  void add(long bytes) {
+    long total = written.addAndGet(bytes);
+    double progress = totalBytes > 0 ? Math.min(1d, (double) total / totalBytes) : 1d;
+
+    int step = (int) (progress * RESOLUTION);
+    if (step <= lastReported) return;
+    // report under the lock, so the listener never sees the progress go backwards
+    synchronized (this) {
+      if (step <= lastReported) return;
+      lastReported = step;
+      listener.accept(progress);
+    }
+  }
+
+  /** @return a counter for one attempt at transferring a file */
+  Attempt attempt() {
+    return new Attempt();
+  }
+
+  long getWritten() {
+    return written.get();
+  }
+
+  long getTotalBytes() {
+    return totalBytes;
+  }
+
+  /**
+   * The bytes reported by one attempt at transferring a file. When the attempt fails and the file
+   * is transferred again, they are taken back so the file is not counted twice. An attempt is used
+   * by one worker at a time.
+   */
+  class Attempt {
+    private long added;
+
+    private Attempt() {}
+
+    /**
+     * Record that a number of bytes have been transferred by this attempt.
+     *
+     * @param bytes the number of bytes written since the last call
+     */
+    void add(long bytes) {
+      added += bytes;
+      DownloadProgress.this.add(bytes);
+    }
+
+    /** Take back the bytes of this attempt, before the file is transferred again. */
+    void discard() {
+      DownloadProgress.this.add(-added);
+      added = 0;
+    }
+
+    long getAdded() {
+      return added;
+    }
+  }
+}
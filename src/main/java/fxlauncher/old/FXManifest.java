@@ -1,6 +1,5 @@
 package fxlauncher.old;
 
-import javax.xml.bind.JAXB;
 import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
@@ -10,6 +9,7 @@ import static fxlauncher.old.Strings.ensureEndingSlash;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
@@ -17,10 +17,13 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.logging.Logger;
 
 @SuppressWarnings("unchecked")
 @XmlRootElement(name = "Application")
 public class FXManifest {
+  private static final Logger log = Logger.getLogger("FXManifest");
+
   @XmlAttribute public Long ts;
   @XmlAttribute public URI uri;
 
@@ -42,6 +45,18 @@ public class FXManifest {
   @XmlElement public String whatsNewPage;
   @XmlElement public Boolean lingeringUpdateScreen = false;
 
+  /** Comma separated uris of mirrors that serve the same files as {@link #uri}. */
+  @XmlElement public String mirrors;
+
+  /**
+   * The percentage of clients that take this version when they already have another one, see
+   * {@link Rollout}. Every client takes it when not set.
+   */
+  @XmlElement public Integer rollout;
+
+  /** The http cache validators of the response this manifest was read from, if any. */
+  transient ManifestValidators validators;
+
   public List<String> getPreloadNativeLibraryList() {
     if (preloadNativeLibraries == null || preloadNativeLibraries.isEmpty())
       return Collections.emptyList();
@@ -58,6 +73,22 @@ public class FXManifest {
     return URI.create(ensureEndingSlash(uri.toString()) + "app.xml");
   }
 
+  /**
+   * Digest of the name, checksum and size of every file for the current platform. It changes with
+   * the content of the application, not with the timestamp of the manifest.
+   *
+   * @return the digest as a hex string
+   */
+  String filesDigest() {
+    StringBuilder input = new StringBuilder();
+    files
+        .stream()
+        .filter(LibraryFile::loadForCurrentPlatform)
+        .sorted(Comparator.comparing(it -> it.file))
+        .forEach(it -> input.append(String.format("%s:%d:%d\n", it.file, it.checksum, it.size)));
+    return Strings.sha256(input.toString());
+  }
+
   public Path getPath(Path cacheDir) {
     return cacheDir.resolve(getFilename());
   }
@@ -159,6 +190,8 @@ public class FXManifest {
     if (stopOnUpdateErrors != null
         ? !stopOnUpdateErrors.equals(that.stopOnUpdateErrors)
         : that.stopOnUpdateErrors != null) return false;
+    if (mirrors != null ? !mirrors.equals(that.mirrors) : that.mirrors != null) return false;
+    if (rollout != null ? !rollout.equals(that.rollout) : that.rollout != null) return false;
     return acceptDowngrade != null
         ? acceptDowngrade.equals(that.acceptDowngrade)
         : that.acceptDowngrade == null;
@@ -178,6 +211,8 @@ public class FXManifest {
     result = 31 * result + (cacheDir != null ? cacheDir.hashCode() : 0);
     result = 31 * result + (acceptDowngrade != null ? acceptDowngrade.hashCode() : 0);
     result = 31 * result + (stopOnUpdateErrors != null ? stopOnUpdateErrors.hashCode() : 0);
+    result = 31 * result + (mirrors != null ? mirrors.hashCode() : 0);
+    result = 31 * result + (rollout != null ? rollout.hashCode() : 0);
     return result;
   }
 
@@ -186,17 +221,91 @@ public class FXManifest {
   }
 
   static FXManifest load(URI uri) throws IOException {
+    return load(uri, null);
+  }
+
+  /**
+   * Load a manifest, unless it is unchanged since the current one was read from the same uri. An
+   * http request carries the validators of the current manifest, and a <code>304 Not Modified
+   * </code> answer is neither downloaded nor parsed.
+   *
+   * @param uri the uri of the manifest
+   * @param current the manifest the caller holds, may be null
+   * @return the current manifest if the repository reports it unchanged, otherwise the manifest
+   *     read from the uri
+   * @throws IOException if the manifest cannot be read
+   */
+  static FXManifest load(URI uri, FXManifest current) throws IOException {
+    return load(uri, current, Backoff.DEFAULT);
+  }
+
+  /**
+   * Load a manifest like {@link #load(URI, FXManifest)}, and retry while the repository answers
+   * that it is busy.
+   *
+   * @param backoff how long to wait between attempts, and how often to try
+   */
+  static FXManifest load(URI uri, FXManifest current, Backoff backoff) throws IOException {
     if (Objects.equals(uri.getScheme(), "file")) {
-      return JAXB.unmarshal(new File(uri.getPath()), FXManifest.class);
+      return parse(uri, () -> FXManifestXml.read(new File(uri.getPath()).toPath()));
     }
-    URLConnection connection = uri.toURL().openConnection();
-    if (uri.getUserInfo() != null) {
-      byte[] payload = uri.getUserInfo().getBytes(StandardCharsets.UTF_8);
-      String encoded = Base64.getEncoder().encodeToString(payload);
-      connection.setRequestProperty("Authorization", String.format("Basic %s", encoded));
+    return backoff.call(uri.toString(), () -> fetch(uri, current));
+  }
+
+  private static FXManifest fetch(URI uri, FXManifest current) throws IOException {
+    LauncherEvents.Recording fetch = LauncherEvents.get().manifestFetch(uri);
+    InputStream input;
+    URLConnection connection;
+    try {
+      connection = uri.toURL().openConnection();
+      if (uri.getUserInfo() != null) {
+        byte[] payload = uri.getUserInfo().getBytes(StandardCharsets.UTF_8);
+        String encoded = Base64.getEncoder().encodeToString(payload);
+        connection.setRequestProperty("Authorization", String.format("Basic %s", encoded));
+      }
+      ManifestValidators validators = current != null ? current.validators : null;
+      if (validators != null && validators.appliesTo(uri)) {
+        validators.apply(connection);
+        if (connection instanceof HttpURLConnection
+            && ((HttpURLConnection) connection).getResponseCode()
+                == HttpURLConnection.HTTP_NOT_MODIFIED) {
+          ((HttpURLConnection) connection).disconnect();
+          fetch.end(0, false);
+          log.fine(String.format("The manifest at %s is not modified", uri));
+          return current;
+        }
+      }
+      // a busy repository is asked again later, see Backoff
+      if (connection instanceof HttpURLConnection)
+        Backoff.checkBusy((HttpURLConnection) connection, uri);
+      input = connection.getInputStream();
+    } catch (IOException | RuntimeException e) {
+      fetch.end(-1, true);
+      throw e;
+    }
+    fetch.end(connection.getContentLengthLong(), false);
+
+    FXManifest manifest;
+    try (InputStream stream = input) {
+      manifest = parse(uri, () -> FXManifestXml.read(stream));
     }
-    try (InputStream input = connection.getInputStream()) {
-      return JAXB.unmarshal(input, FXManifest.class);
+    manifest.validators = ManifestValidators.of(uri, connection);
+    return manifest;
+  }
+
+  private interface ManifestReader {
+    FXManifest read() throws IOException;
+  }
+
+  private static FXManifest parse(URI uri, ManifestReader reader) throws IOException {
+    LauncherEvents.Recording parse = LauncherEvents.get().manifestParse(uri);
+    FXManifest manifest = null;
+    try {
+      manifest = reader.read();
+      return manifest;
+    } finally {
+      int files = manifest != null && manifest.files != null ? manifest.files.size() : 0;
+      parse.end(files, manifest == null);
     }
   }
 }
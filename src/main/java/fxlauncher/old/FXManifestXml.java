@@ -0,0 +1,265 @@
+package fxlauncher.old;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Streaming reader and writer for the <code>&lt;Application&gt;</code> manifest format, based on
+ * <code>javax.xml.stream</code>. It produces and accepts the same documents as the JAXB mapping
+ * declared on {@link FXManifest} and {@link LibraryFile}, without the cost of building a JAXB
+ * context on the startup path.
+ */
+public final class FXManifestXml {
+  private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newFactory();
+  private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+  static {
+    INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+  }
+
+  private static final String DECLARATION =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+  private static final String INDENT = "    ";
+
+  private FXManifestXml() {}
+
+  public static FXManifest read(Path path) throws IOException {
+    try (InputStream input = Files.newInputStream(path)) {
+      return read(input);
+    }
+  }
+
+  public static FXManifest read(InputStream input) throws IOException {
+    try {
+      XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(input);
+      try {
+        return readApplication(reader);
+      } finally {
+        reader.close();
+      }
+    } catch (XMLStreamException | IllegalArgumentException e) {
+      throw new IOException("Unable to parse manifest", e);
+    }
+  }
+
+  /**
+   * Write a manifest to a file. The manifest is written to a temporary file first and moved into
+   * place, so other launchers sharing the file never read a partly written manifest.
+   */
+  public static void write(FXManifest manifest, Path path) throws IOException {
+    AtomicFiles.replaceAtomically(path, output -> write(manifest, output));
+  }
+
+  public static void write(FXManifest manifest, OutputStream output) throws IOException {
+    Writer out = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+    out.write(DECLARATION);
+    try {
+      XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(out);
+      writeApplication(manifest, writer);
+      writer.flush();
+      writer.close();
+    } catch (XMLStreamException e) {
+      throw new IOException("Unable to write manifest", e);
+    }
+    out.write("\n");
+    out.flush();
+  }
+
+  private static FXManifest readApplication(XMLStreamReader reader) throws XMLStreamException {
+    reader.nextTag();
+    reader.require(XMLStreamConstants.START_ELEMENT, null, "Application");
+
+    FXManifest manifest = new FXManifest();
+    manifest.ts = parseLong(reader.getAttributeValue(null, "ts"));
+    String uri = reader.getAttributeValue(null, "uri");
+    if (uri != null) manifest.uri = URI.create(uri.trim());
+    manifest.launchClass = reader.getAttributeValue(null, "launch");
+
+    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+      switch (reader.getLocalName()) {
+        case "lib":
+          manifest.files.add(readLib(reader));
+          break;
+        case "updateText":
+          manifest.updateText = reader.getElementText();
+          break;
+        case "updateLabelStyle":
+          manifest.updateLabelStyle = reader.getElementText();
+          break;
+        case "progressBarStyle":
+          manifest.progressBarStyle = reader.getElementText();
+          break;
+        case "wrapperStyle":
+          manifest.wrapperStyle = reader.getElementText();
+          break;
+        case "parameters":
+          manifest.parameters = reader.getElementText();
+          break;
+        case "cacheDir":
+          manifest.cacheDir = reader.getElementText();
+          break;
+        case "acceptDowngrade":
+          manifest.acceptDowngrade = parseBoolean(reader.getElementText());
+          break;
+        case "stopOnUpdateErrors":
+          manifest.stopOnUpdateErrors = parseBoolean(reader.getElementText());
+          break;
+        case "preloadNativeLibraries":
+          manifest.preloadNativeLibraries = reader.getElementText();
+          break;
+        case "whatsNewPage":
+          manifest.whatsNewPage = reader.getElementText();
+          break;
+        case "lingeringUpdateScreen":
+          manifest.lingeringUpdateScreen = parseBoolean(reader.getElementText());
+          break;
+        case "mirrors":
+          manifest.mirrors = reader.getElementText();
+          break;
+        case "rollout":
+          manifest.rollout = Integer.valueOf(reader.getElementText().trim());
+          break;
+        default:
+          skipElement(reader);
+      }
+    }
+    return manifest;
+  }
+
+  private static LibraryFile readLib(XMLStreamReader reader) throws XMLStreamException {
+    LibraryFile lib = new LibraryFile();
+    lib.file = reader.getAttributeValue(null, "file");
+    lib.checksum = parseLong(reader.getAttributeValue(null, "checksum"));
+    lib.size = parseLong(reader.getAttributeValue(null, "size"));
+    String os = reader.getAttributeValue(null, "os");
+    if (os != null) lib.os = OS.valueOf(os.trim());
+
+    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+      if (reader.getLocalName().equals("patch")) lib.patches.add(readPatch(reader));
+      else if (reader.getLocalName().equals("encoding")) lib.encodings.add(readEncoding(reader));
+      else skipElement(reader);
+    }
+    return lib;
+  }
+
+  private static LibraryPatch readPatch(XMLStreamReader reader) throws XMLStreamException {
+    LibraryPatch patch = new LibraryPatch();
+    patch.from = parseLong(reader.getAttributeValue(null, "from"));
+    patch.file = reader.getAttributeValue(null, "file");
+    patch.size = parseLong(reader.getAttributeValue(null, "size"));
+    skipElement(reader);
+    return patch;
+  }
+
+  private static LibraryEncoding readEncoding(XMLStreamReader reader) throws XMLStreamException {
+    LibraryEncoding encoding = new LibraryEncoding();
+    encoding.codec = reader.getAttributeValue(null, "codec");
+    encoding.file = reader.getAttributeValue(null, "file");
+    encoding.size = parseLong(reader.getAttributeValue(null, "size"));
+    skipElement(reader);
+    return encoding;
+  }
+
+  // consume the rest of the current element, including any children we do not know about
+  private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) depth++;
+      else if (event == XMLStreamConstants.END_ELEMENT) depth--;
+    }
+  }
+
+  private static void writeApplication(FXManifest manifest, XMLStreamWriter writer)
+      throws XMLStreamException {
+    writer.writeStartElement("Application");
+    if (manifest.ts != null) writer.writeAttribute("ts", manifest.ts.toString());
+    if (manifest.uri != null) writer.writeAttribute("uri", manifest.uri.toString());
+    if (manifest.launchClass != null) writer.writeAttribute("launch", manifest.launchClass);
+
+    if (manifest.files != null) for (LibraryFile lib : manifest.files) writeLib(lib, writer);
+
+    writeElement(writer, "updateText", manifest.updateText);
+    writeElement(writer, "updateLabelStyle", manifest.updateLabelStyle);
+    writeElement(writer, "progressBarStyle", manifest.progressBarStyle);
+    writeElement(writer, "wrapperStyle", manifest.wrapperStyle);
+    writeElement(writer, "parameters", manifest.parameters);
+    writeElement(writer, "cacheDir", manifest.cacheDir);
+    writeElement(writer, "acceptDowngrade", manifest.acceptDowngrade);
+    writeElement(writer, "stopOnUpdateErrors", manifest.stopOnUpdateErrors);
+    writeElement(writer, "preloadNativeLibraries", manifest.preloadNativeLibraries);
+    writeElement(writer, "whatsNewPage", manifest.whatsNewPage);
+    writeElement(writer, "lingeringUpdateScreen", manifest.lingeringUpdateScreen);
+    writeElement(writer, "mirrors", manifest.mirrors);
+    writeElement(writer, "rollout", manifest.rollout);
+
+    writer.writeCharacters("\n");
+    writer.writeEndElement();
+  }
+
+  private static void writeLib(LibraryFile lib, XMLStreamWriter writer) throws XMLStreamException {
+    boolean patched = lib.patches != null && !lib.patches.isEmpty();
+    boolean encoded = lib.encodings != null && !lib.encodings.isEmpty();
+    writer.writeCharacters("\n" + INDENT);
+    if (patched || encoded) writer.writeStartElement("lib");
+    else writer.writeEmptyElement("lib");
+    if (lib.file != null) writer.writeAttribute("file", lib.file);
+    if (lib.checksum != null) writer.writeAttribute("checksum", lib.checksum.toString());
+    if (lib.size != null) writer.writeAttribute("size", lib.size.toString());
+    if (lib.os != null) writer.writeAttribute("os", lib.os.name());
+    if (!patched && !encoded) return;
+
+    if (patched)
+      for (LibraryPatch patch : lib.patches) {
+        writer.writeCharacters("\n" + INDENT + INDENT);
+        writer.writeEmptyElement("patch");
+        if (patch.from != null) writer.writeAttribute("from", patch.from.toString());
+        if (patch.file != null) writer.writeAttribute("file", patch.file);
+        if (patch.size != null) writer.writeAttribute("size", patch.size.toString());
+      }
+    if (encoded)
+      for (LibraryEncoding encoding : lib.encodings) {
+        writer.writeCharacters("\n" + INDENT + INDENT);
+        writer.writeEmptyElement("encoding");
+        if (encoding.codec != null) writer.writeAttribute("codec", encoding.codec);
+        if (encoding.file != null) writer.writeAttribute("file", encoding.file);
+        if (encoding.size != null) writer.writeAttribute("size", encoding.size.toString());
+      }
+    writer.writeCharacters("\n" + INDENT);
+    writer.writeEndElement();
+  }
+
+  private static void writeElement(XMLStreamWriter writer, String name, Object value)
+      throws XMLStreamException {
+    if (value == null) return;
+    writer.writeCharacters("\n" + INDENT);
+    writer.writeStartElement(name);
+    writer.writeCharacters(value.toString());
+    writer.writeEndElement();
+  }
+
+  private static Long parseLong(String value) {
+    return value == null ? null : Long.valueOf(value.trim());
+  }
+
+  // same lexical space as xs:boolean, which is what JAXB accepts
+  private static Boolean parseBoolean(String value) {
+    String trimmed = value.trim();
+    return trimmed.equals("true") || trimmed.equals("1");
+  }
+}
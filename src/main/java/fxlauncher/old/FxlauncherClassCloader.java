@@ -3,22 +3,15 @@ package fxlauncher.old;
 import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.List;
 
 /** Created by im on 22.02.17. */
-public class FxlauncherClassCloader extends URLClassLoader {
+public class FxlauncherClassCloader extends IndexedClassLoader {
   public FxlauncherClassCloader(ClassLoader parentClassLoader) {
     super(buildClasspath(System.getProperty("java.class.path")), parentClassLoader);
   }
 
-  void addUrls(List<URL> urls) {
-    for (URL url : urls) {
-      this.addURL(url);
-    }
-  }
-
   private static URL[] buildClasspath(String classPath) {
     if (classPath == null || classPath.trim().length() < 1) {
       return new URL[0];
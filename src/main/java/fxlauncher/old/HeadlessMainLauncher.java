@@ -1,11 +1,26 @@
 package fxlauncher.old;
 
+import static fxlauncher.model.lifecycle.LifecyclePhase.APPLICATION_START;
+import static fxlauncher.model.lifecycle.LifecyclePhase.CREATE_APPLICATION;
+import static fxlauncher.model.lifecycle.LifecyclePhase.CREATE_CLASS_LOADER;
+import static fxlauncher.model.lifecycle.LifecyclePhase.FETCH_CACHED_MANIFEST;
+import static fxlauncher.model.lifecycle.LifecyclePhase.FETCH_REMOTE_MANIFEST;
+import static fxlauncher.model.lifecycle.LifecyclePhase.LOAD_SYSTEM_LIBS;
+import static fxlauncher.model.lifecycle.LifecyclePhase.SYNC_ARTIFACTS;
+
+import fxlauncher.config.LauncherOption;
+import fxlauncher.model.lifecycle.LifecycleGraph;
+import fxlauncher.model.lifecycle.LifecyclePhase;
 import javafx.application.Application;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -18,7 +33,18 @@ public class HeadlessMainLauncher extends AbstractLauncher<Object> {
   private Class<?> appClass;
 
   public HeadlessMainLauncher(LauncherParams parameters) {
-    this.parameters = parameters;
+    this(parameters, false);
+  }
+
+  /**
+   * @param parameters the parameters of the launcher
+   * @param isolated true if the launcher shares the JVM with other launchers, see {@link
+   *     MultiAppHost}
+   */
+  HeadlessMainLauncher(LauncherParams parameters, boolean isolated) {
+    // the parameters go into the configuration of the isolated launcher, not the shared one
+    if (isolated) isolate();
+    setParameters(parameters);
   }
 
   public static void main(String[] args) throws Exception {
@@ -31,26 +57,66 @@ public class HeadlessMainLauncher extends AbstractLauncher<Object> {
   }
 
   protected void process() throws Exception {
-    syncManifest();
-
-    // replace parameters to deal with manifest settings
-    parameters = new LauncherParams(parameters, getManifest());
-
-    setupLogFile();
-    checkSSLIgnoreflag();
-
-    updateManifest();
-
-    syncFiles();
-
-    createApplicationEnvironment();
-    launchApp();
+    LifecycleGraph startup = new LifecycleGraph();
+    startup
+        .lifecycle(getLifecycle())
+        .listener(getStartupReport())
+        .listener(LauncherEvents.get().phases())
+        // main may never return, so the report ends where it starts
+        .listener(
+            new LifecycleGraph.Listener() {
+              @Override
+              public void phaseStarted(LifecyclePhase phase) {
+                if (phase == APPLICATION_START) writeStartupReport(startup);
+              }
+
+              @Override
+              public void phaseFinished(
+                  LifecyclePhase phase, long startNanos, long endNanos, Throwable failure) {}
+            })
+        .task(
+            FETCH_CACHED_MANIFEST,
+            () -> {
+              syncManifest();
+
+              // replace parameters to deal with manifest settings
+              setParameters(new LauncherParams(parameters, getManifest()));
+
+              setupLogFile();
+              checkSSLIgnoreflag();
+            })
+        .task(FETCH_REMOTE_MANIFEST, this::updateManifest)
+        .task(SYNC_ARTIFACTS, this::syncFiles)
+        .task(LOAD_SYSTEM_LIBS, this::loadNativeLibraries)
+        .task(CREATE_CLASS_LOADER, this::indexVerifiedFiles)
+        // the application keeps the thread and context class loader of the launcher, the update
+        // daemon starts every version on a thread of its own
+        .task(
+            CREATE_APPLICATION,
+            startup.callerThread(),
+            () -> {
+              if (!useChildJvm() && !isDaemon()) createApplicationFromManifest();
+            })
+        .task(
+            APPLICATION_START,
+            startup.callerThread(),
+            () -> {
+              if (isDaemon()) runDaemon();
+              else if (useChildJvm()) launchChildJvm();
+              else launchApp();
+            });
+    startup.run();
   }
 
   public LauncherParams getParameters() {
     return parameters;
   }
 
+  private void setParameters(LauncherParams parameters) {
+    this.parameters = parameters;
+    ingestParameters();
+  }
+
   @Override
   protected void updateProgress(double progress) {
     log.info(String.format("Progress: %d%%", (int) (progress * 100)));
@@ -61,11 +127,49 @@ public class HeadlessMainLauncher extends AbstractLauncher<Object> {
     this.appClass = appClass;
   }
 
+  /** @return the application class, once it is loaded */
+  Class<?> getAppClass() {
+    return appClass;
+  }
+
   private void launchApp() throws Exception {
     setPhase("Application Start");
 
     Method mainMethod = appClass.getMethod("main", String[].class);
-    mainMethod.invoke(null, (Object) new String[0]);
+    mainMethod.invoke(null, (Object) getDownstreamParameters().getArgs());
+  }
+
+  private void runDaemon() throws Exception {
+    setPhase("Application Start");
+
+    Path cacheDir = getManifest().resolveCacheDir(parameters.getNamed());
+    long pollSeconds = Long.parseLong(getOption(LauncherOption.POLL_INTERVAL));
+    long jitterSeconds = Long.parseLong(getOption(LauncherOption.UPDATE_JITTER));
+    log.info(
+        String.format(
+            "Checking for updates every %d seconds, plus up to %d seconds of jitter",
+            pollSeconds, jitterSeconds));
+    UpdateDaemon daemon = new UpdateDaemon(this, cacheDir, TimeUnit.SECONDS.toMillis(pollSeconds));
+    daemon.setJitter(TimeUnit.SECONDS.toMillis(jitterSeconds));
+    daemon.run();
+  }
+
+  private void launchChildJvm() throws Exception {
+    setPhase("Application Start");
+
+    Path cacheDir = getManifest().resolveCacheDir(parameters.getNamed());
+    String classpath = childClasspath(cacheDir);
+    List<String> arguments =
+        new ArrayList<>(Arrays.asList("-cp", classpath, getManifest().launchClass));
+    arguments.addAll(Arrays.asList(getDownstreamParameters().getArgs()));
+    Process child = startChildJvm(classpath, arguments);
+    int exitCode = waitForChildJvm(child);
+    if (exitCode != 0 && isIsolated())
+      throw new IOException(String.format("Application exited with code %d", exitCode));
+    if (exitCode != 0) {
+      log.warning(String.format("Application exited with code %d", exitCode));
+      System.exit(exitCode);
+    }
   }
 
   protected void reportError(String title, Throwable error) {
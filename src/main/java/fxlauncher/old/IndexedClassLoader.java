@@ -0,0 +1,215 @@
+package fxlauncher.old;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Class loader for the application jars that only looks in the jars the {@link PackageIndex} lists
+ * for the package of a class or resource, instead of probing every jar of the classpath in turn.
+ * Lookups for packages no jar contains, like most service loader and resource bundle probes, fail
+ * without opening a jar at all.
+ *
+ * <p>Urls passed to the constructor are searched like a plain {@link URLClassLoader} does, before
+ * the indexed jars.
+ */
+public class IndexedClassLoader extends URLClassLoader {
+  private static final Logger log = Logger.getLogger("IndexedClassLoader");
+
+  static {
+    ClassLoader.registerAsParallelCapable();
+  }
+
+  private volatile PackageIndex index;
+  private JarFile[] jars = new JarFile[0];
+  private volatile boolean hasUrls;
+  private volatile Consumer<String> classListener;
+
+  public IndexedClassLoader(URL[] urls, ClassLoader parent) {
+    super(urls, parent);
+    hasUrls = urls.length > 0;
+  }
+
+  IndexedClassLoader(PackageIndex index, ClassLoader parent) {
+    this(new URL[0], parent);
+    setIndex(index);
+  }
+
+  /** Make the jars of the index available to this class loader. */
+  synchronized void setIndex(PackageIndex index) {
+    this.jars = new JarFile[index.size()];
+    this.index = index;
+  }
+
+  /**
+   * Be notified of every class this class loader defines from the indexed jars.
+   *
+   * @param listener receives the binary name of every defined class, or null to stop notifying
+   */
+  void setClassListener(Consumer<String> listener) {
+    this.classListener = listener;
+  }
+
+  @Override
+  protected void addURL(URL url) {
+    super.addURL(url);
+    hasUrls = true;
+  }
+
+  @Override
+  protected Class<?> findClass(String name) throws ClassNotFoundException {
+    if (hasUrls) {
+      try {
+        return super.findClass(name);
+      } catch (ClassNotFoundException notOnClasspath) {
+        // try the indexed jars
+      }
+    }
+
+    PackageIndex index = this.index;
+    if (index != null) {
+      String path = name.replace('.', '/').concat(".class");
+      for (int position : index.jarsFor(path)) {
+        try {
+          JarFile jar = jar(position);
+          JarEntry entry = jar != null ? jar.getJarEntry(path) : null;
+          if (entry != null) return define(name, index.url(position), jar, entry);
+        } catch (IOException e) {
+          throw new ClassNotFoundException(name, e);
+        }
+      }
+    }
+    throw new ClassNotFoundException(name);
+  }
+
+  @Override
+  public URL findResource(String name) {
+    URL url = super.findResource(name);
+    if (url != null) return url;
+
+    PackageIndex index = this.index;
+    if (index == null) return null;
+    for (int position : index.jarsFor(name)) {
+      url = resource(index, position, name);
+      if (url != null) return url;
+    }
+    return null;
+  }
+
+  @Override
+  public Enumeration<URL> findResources(String name) throws IOException {
+    List<URL> urls = Collections.list(super.findResources(name));
+    PackageIndex index = this.index;
+    if (index != null) {
+      for (int position : index.jarsFor(name)) {
+        URL url = resource(index, position, name);
+        if (url != null) urls.add(url);
+      }
+    }
+    return Collections.enumeration(urls);
+  }
+
+  @Override
+  public URL[] getURLs() {
+    List<URL> urls = new ArrayList<>();
+    Collections.addAll(urls, super.getURLs());
+    PackageIndex index = this.index;
+    if (index != null) for (int i = 0; i < index.size(); i++) urls.add(index.url(i));
+    return urls.toArray(new URL[urls.size()]);
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      for (JarFile jar : jars) {
+        if (jar != null) jar.close();
+      }
+      jars = new JarFile[0];
+      index = null;
+    }
+    super.close();
+  }
+
+  private URL resource(PackageIndex index, int position, String name) {
+    try {
+      JarFile jar = jar(position);
+      if (jar == null || jar.getEntry(name) == null) return null;
+      return new URL("jar:" + index.url(position) + "!/" + name);
+    } catch (MalformedURLException e) {
+      return null;
+    }
+  }
+
+  private synchronized JarFile jar(int position) {
+    if (position >= jars.length) return null;
+    JarFile jar = jars[position];
+    if (jar == null) {
+      try {
+        jar = jars[position] = new JarFile(index.jar(position).toFile());
+      } catch (IOException e) {
+        log.log(Level.FINE, String.format("Unable to open %s", index.jar(position)), e);
+      }
+    }
+    return jar;
+  }
+
+  private Class<?> define(String name, URL url, JarFile jar, JarEntry entry) throws IOException {
+    byte[] bytes;
+    try (InputStream input = jar.getInputStream(entry)) {
+      bytes = readFully(input, entry.getSize());
+    }
+
+    int dot = name.lastIndexOf('.');
+    if (dot > 0) definePackage(name.substring(0, dot), url, jar);
+
+    // the signers are known once the entry has been read completely
+    CodeSource source = new CodeSource(url, entry.getCodeSigners());
+    Class<?> defined = defineClass(name, bytes, 0, bytes.length, source);
+    Consumer<String> listener = classListener;
+    if (listener != null) listener.accept(name);
+    return defined;
+  }
+
+  @SuppressWarnings("deprecation")
+  private void definePackage(String packageName, URL url, JarFile jar) throws IOException {
+    if (getPackage(packageName) != null) return;
+    Manifest manifest = jar.getManifest();
+    try {
+      if (manifest != null) definePackage(packageName, manifest, url);
+      else definePackage(packageName, null, null, null, null, null, null, null);
+    } catch (IllegalArgumentException definedConcurrently) {
+      // another thread defined it first
+    }
+  }
+
+  private static byte[] readFully(InputStream input, long size) throws IOException {
+    byte[] buf = new byte[size >= 0 ? (int) size : 8192];
+    int length = 0;
+    while (true) {
+      if (length == buf.length) {
+        int next = input.read();
+        if (next < 0) break;
+        buf = Arrays.copyOf(buf, Math.max(8192, buf.length * 2));
+        buf[length++] = (byte) next;
+      }
+      int read = input.read(buf, length, buf.length - length);
+      if (read < 0) break;
+      length += read;
+    }
+    return length == buf.length ? buf : Arrays.copyOf(buf, length);
+  }
+}
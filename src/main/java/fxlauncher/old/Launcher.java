@@ -1,18 +1,31 @@
 package fxlauncher.old;
 
+import static fxlauncher.model.lifecycle.LifecyclePhase.APPLICATION_INIT;
+import static fxlauncher.model.lifecycle.LifecyclePhase.APPLICATION_START;
+import static fxlauncher.model.lifecycle.LifecyclePhase.CREATE_APPLICATION;
+import static fxlauncher.model.lifecycle.LifecyclePhase.CREATE_CLASS_LOADER;
+import static fxlauncher.model.lifecycle.LifecyclePhase.FETCH_REMOTE_MANIFEST;
+import static fxlauncher.model.lifecycle.LifecyclePhase.LOAD_SYSTEM_LIBS;
+import static fxlauncher.model.lifecycle.LifecyclePhase.PARSE_CLI_ARGS;
+import static fxlauncher.model.lifecycle.LifecyclePhase.PREPARE_APPLICATION_ENVIRONMENT;
+import static fxlauncher.model.lifecycle.LifecyclePhase.SYNC_ARTIFACTS;
+
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.net.URI;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.ServiceLoader;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.sun.javafx.application.PlatformImpl;
 
+import fxlauncher.model.lifecycle.LifecycleGraph;
+
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
@@ -29,6 +42,11 @@ import javafx.stage.StageStyle;
 public class Launcher extends Application {
   private static final Logger log = Logger.getLogger("Launcher");
 
+  /** The launcher that started the application, there is one JavaFX application per JVM. */
+  private static volatile AbstractLauncher<?> launched;
+  /** The manifest returned by the previous {@link #checkForUpdate()}. */
+  private static volatile FXManifest lastChecked;
+
   private Application app;
   private Stage primaryStage;
   private Stage stage;
@@ -108,14 +126,26 @@ public class Launcher extends Application {
    * <p>Note that updates will only be detected if the application was actually launched with
    * FXLauncher.
    *
+   * <p>The request is conditional on the manifest having changed since the previous check, so
+   * polling an unchanged repository neither downloads nor parses the manifest again. A version
+   * that is rolled out to a share of the clients, see {@link FXManifest#rollout}, is only returned
+   * to the clients it is rolled out to.
+   *
    * @return The manifest for the new version if available
    * @throws IOException if manifest not found
    */
   public static FXManifest checkForUpdate() throws IOException {
     // We might be called even when FXLauncher wasn't used to start the application
-    if (AbstractLauncher.manifest == null) return null;
-    FXManifest manifest = FXManifest.load(URI.create(AbstractLauncher.manifest.uri + "/app.xml"));
-    return manifest.equals(AbstractLauncher.manifest) ? null : manifest;
+    AbstractLauncher<?> launcher = launched;
+    if (launcher == null || launcher.getManifest() == null) return null;
+    FXManifest current = launcher.getManifest();
+    // ask the repository whether the manifest changed since the last check
+    FXManifest known = lastChecked != null ? lastChecked : current;
+    FXManifest manifest = FXManifest.load(current.getFXAppURI(), known);
+    lastChecked = manifest;
+    if (manifest.equals(current)) return null;
+    Path cacheDir = current.resolveCacheDir(launcher.getParameters().getNamed());
+    return launcher.takesRollout(manifest, cacheDir) ? manifest : null;
   }
 
   /**
@@ -143,44 +173,89 @@ public class Launcher extends Application {
     Scene scene = new Scene(root);
     stage.setScene(scene);
 
-    superLauncher.setupLogFile();
-    superLauncher.checkSSLIgnoreflag();
-    this.uiProvider.init(stage);
-    root.getChildren().add(uiProvider.createLoader());
-
-    stage.show();
+    // the manifest is fetched while the update screen is being shown
+    launched = superLauncher;
+    LifecycleGraph startup = new LifecycleGraph();
+    Executor fxThread = Platform::runLater;
+    startup
+        .lifecycle(superLauncher.getLifecycle())
+        .listener(superLauncher.getStartupReport())
+        .listener(LauncherEvents.get().phases())
+        // the report covers the whole startup, once the application has started
+        .listener(
+            (phase, startNanos, endNanos, failure) -> {
+              if (phase == APPLICATION_START) superLauncher.writeStartupReport(startup);
+            })
+        .task(
+            PARSE_CLI_ARGS,
+            () -> {
+              superLauncher.ingestParameters();
+              superLauncher.setupLogFile();
+              superLauncher.checkSSLIgnoreflag();
+            })
+        .task(
+            PREPARE_APPLICATION_ENVIRONMENT,
+            fxThread,
+            () -> {
+              this.uiProvider.init(stage);
+              root.getChildren().add(uiProvider.createLoader());
+              stage.show();
+            })
+        .task(FETCH_REMOTE_MANIFEST, updateTask(superLauncher::updateManifest))
+        // the update screen replaces the loader
+        .after(SYNC_ARTIFACTS, PREPARE_APPLICATION_ENVIRONMENT)
+        .task(
+            SYNC_ARTIFACTS,
+            updateTask(
+                () -> {
+                  createUpdateWrapper();
+                  filesUpdated[0] = superLauncher.syncFiles();
+                }))
+        .task(LOAD_SYSTEM_LIBS, superLauncher::loadNativeLibraries)
+        .task(CREATE_CLASS_LOADER, superLauncher::indexVerifiedFiles)
+        .task(
+            CREATE_APPLICATION,
+            startup.callerThread(),
+            superLauncher::createApplicationFromManifest)
+        .task(APPLICATION_INIT, startup.callerThread(), this::initApplicationFromManifest)
+        .task(
+            APPLICATION_START,
+            startup.callerThread(),
+            () -> startApplicationFromManifest(filesUpdated[0]));
 
     new Thread(
             () -> {
-              Thread.currentThread().setName("FXLauncher-Thread");
               try {
-                superLauncher.updateManifest();
-                createUpdateWrapper();
-                filesUpdated[0] = superLauncher.syncFiles();
-              } catch (Exception ex) {
-                log.log(
-                    Level.WARNING,
-                    String.format("Error during %s phase", superLauncher.getPhase()),
-                    ex);
-                if (superLauncher.checkIgnoreUpdateErrorSetting()) {
-                  superLauncher.reportError(
-                      String.format("Error during %s phase", superLauncher.getPhase()), ex);
-                  System.exit(1);
-                }
-              }
-
-              try {
-                superLauncher.createApplicationEnvironment();
-                launchAppFromManifest(filesUpdated[0]);
+                startup.run();
               } catch (Exception ex) {
                 superLauncher.reportError(
                     String.format("Error during %s phase", superLauncher.getPhase()), ex);
               }
-            })
+            },
+            "FXLauncher-Thread")
         .start();
   }
 
-  private void launchAppFromManifest(boolean showWhatsnew) throws Exception {
+  /**
+   * Wrap a task of the update phases, whose errors only stop the launch if the launcher is told to
+   * stop on update errors.
+   */
+  private LifecycleGraph.Task updateTask(LifecycleGraph.Task task) {
+    return () -> {
+      try {
+        task.run();
+      } catch (Exception ex) {
+        String message = String.format("Error during %s phase", superLauncher.getPhase());
+        log.log(Level.WARNING, message, ex);
+        if (superLauncher.checkIgnoreUpdateErrorSetting()) {
+          superLauncher.reportError(message, ex);
+          System.exit(1);
+        }
+      }
+    };
+  }
+
+  private void initApplicationFromManifest() {
     superLauncher.setPhase("Application Environment Prepare");
 
     try {
@@ -188,6 +263,9 @@ public class Launcher extends Application {
     } catch (Throwable ex) {
       superLauncher.reportError("Error during app init", ex);
     }
+  }
+
+  private void startApplicationFromManifest(boolean showWhatsnew) {
     superLauncher.setPhase("Application Start");
     log.info("Show whats new dialog? " + showWhatsnew);
 
@@ -268,6 +346,11 @@ public class Launcher extends Application {
       String firstFile = superLauncher.getManifest().files.get(0).file;
       log.info(String.format("No app class defined, starting first file (%s)", firstFile));
       Path cacheDir = superLauncher.getManifest().resolveCacheDir(getParameters().getNamed());
+      if (superLauncher.useChildJvm()) {
+        String jar = cacheDir.resolve(firstFile).toAbsolutePath().toString();
+        superLauncher.startChildJvm(jar, Arrays.asList("-jar", jar));
+        return;
+      }
       String command = String.format("java -jar %s/%s", cacheDir.toAbsolutePath(), firstFile);
       log.info(String.format("Execute command '%s'", command));
       Runtime.getRuntime().exec(command);
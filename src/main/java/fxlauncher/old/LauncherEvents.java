@@ -0,0 +1,130 @@
+package fxlauncher.old;
+
+import fxlauncher.model.lifecycle.LifecycleGraph;
+import fxlauncher.model.lifecycle.LifecyclePhase;
+
+import java.net.URI;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Java Flight Recorder events for the work of the launcher, so a recording of a slow launch shows
+ * which phase, download or verification the time went to, instead of anonymous I/O.
+ *
+ * <p>The events are defined in <code>src/jfr/java</code>, which the <code>jfr</code> profile compiles
+ * when building on Java 11 or later. Without those classes, or on a JVM without the <code>jdk.jfr
+ * </code> API, every method returns a recording that does nothing. The events are in the <code>
+ * FXLauncher</code> category and named <code>fxlauncher.*</code>.
+ */
+abstract class LauncherEvents {
+  private static final Logger log = Logger.getLogger("LauncherEvents");
+
+  private static final LauncherEvents INSTANCE = create();
+
+  /** An event that is in progress. */
+  interface Recording {
+    /**
+     * Complete the event and commit it, if the event is enabled.
+     *
+     * @param amount what the event handled, see the method that started the event
+     * @param failed true if the work failed
+     */
+    void end(long amount, boolean failed);
+  }
+
+  static final Recording NONE = (amount, failed) -> {};
+
+  /** @return the events of the running JVM */
+  static LauncherEvents get() {
+    return INSTANCE;
+  }
+
+  /** @return a listener that records the enter and exit of every phase of a lifecycle graph */
+  abstract LifecycleGraph.Listener phases();
+
+  /**
+   * Start the download of a file.
+   *
+   * @param uri the uri the file is downloaded from
+   * @return the recording, ended with the number of bytes downloaded
+   */
+  abstract Recording download(URI uri);
+
+  /**
+   * Start the checksum verification of a file.
+   *
+   * @param file the file, relative to the cache dir
+   * @return the recording, ended with the number of bytes that were hashed, 0 when the checksum was
+   *     known without reading the file. Failed means the file does not match the manifest.
+   */
+  abstract Recording verification(String file);
+
+  /**
+   * Start fetching a manifest.
+   *
+   * @param uri the uri of the manifest
+   * @return the recording, ended with the content length, -1 if it is not known
+   */
+  abstract Recording manifestFetch(URI uri);
+
+  /**
+   * Start parsing a manifest.
+   *
+   * @param uri the uri of the manifest
+   * @return the recording, ended with the number of files in the manifest
+   */
+  abstract Recording manifestParse(URI uri);
+
+  /**
+   * Start creating the class loader of the application.
+   *
+   * @return the recording, ended with the number of jars on the class path
+   */
+  abstract Recording classLoader();
+
+  private static LauncherEvents create() {
+    try {
+      // only compiled by the jfr profile, and it needs the jdk.jfr module at run time
+      return (LauncherEvents)
+          Class.forName("fxlauncher.old.JfrLauncherEvents").getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      log.log(Level.FINE, "Flight recorder events are not available", e);
+      return new Disabled();
+    }
+  }
+
+  private static class Disabled extends LauncherEvents {
+    private static final LifecycleGraph.Listener PHASES =
+        (LifecyclePhase phase, long startNanos, long endNanos, Throwable failure) -> {};
+
+    @Override
+    LifecycleGraph.Listener phases() {
+      return PHASES;
+    }
+
+    @Override
+    Recording download(URI uri) {
+      return NONE;
+    }
+
+    @Override
+    Recording verification(String file) {
+      return NONE;
+    }
+
+    @Override
+    Recording manifestFetch(URI uri) {
+      return NONE;
+    }
+
+    @Override
+    Recording manifestParse(URI uri) {
+      return NONE;
+    }
+
+    @Override
+    Recording classLoader() {
+      return NONE;
+    }
+  }
+}
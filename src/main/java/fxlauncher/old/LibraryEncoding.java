@@ -0,0 +1,39 @@
+package fxlauncher.old;
+
+import javax.xml.bind.annotation.XmlAttribute;
+
+/**
+ * An encoded copy of a {@link LibraryFile}, published next to the application files, that can be
+ * downloaded instead of the file itself.
+ */
+public class LibraryEncoding {
+  @XmlAttribute String codec;
+  @XmlAttribute String file;
+  @XmlAttribute Long size;
+
+  public LibraryEncoding() {}
+
+  public LibraryEncoding(String codec, String file, long size) {
+    this.codec = codec;
+    this.file = file;
+    this.size = size;
+  }
+
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+
+    LibraryEncoding that = (LibraryEncoding) o;
+
+    if (!codec.equals(that.codec)) return false;
+    if (!file.equals(that.file)) return false;
+    return size.equals(that.size);
+  }
+
+  public int hashCode() {
+    int result = codec.hashCode();
+    result = 31 * result + file.hashCode();
+    result = 31 * result + size.hashCode();
+    return result;
+  }
+}
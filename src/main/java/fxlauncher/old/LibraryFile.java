@@ -1,12 +1,15 @@
 package fxlauncher.old;
 
 import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.zip.Adler32;
@@ -17,12 +20,69 @@ public class LibraryFile {
   @XmlAttribute Long size;
   @XmlAttribute OS os;
 
+  @XmlElement(name = "patch")
+  List<LibraryPatch> patches = new ArrayList<>();
+
+  @XmlElement(name = "encoding")
+  List<LibraryEncoding> encodings = new ArrayList<>();
+
+  /**
+   * Find the patch that updates the version of this file with the given checksum.
+   *
+   * @param checksum the checksum of the version in the cache
+   * @return the patch, or null if none was published for that version
+   */
+  LibraryPatch patchFrom(long checksum) {
+    if (patches == null) return null;
+    for (LibraryPatch patch : patches) if (patch.from == checksum) return patch;
+    return null;
+  }
+
   public boolean needsUpdate(Path cacheDir) {
     Path path = cacheDir.resolve(file);
+    LauncherEvents.Recording event = LauncherEvents.get().verification(file);
+    long hashed = 0;
+    boolean outdated = true;
+    try {
+      if (!Files.exists(path) || Files.size(path) != size) return true;
+      hashed = size;
+      outdated = checksum(path) != checksum;
+      return outdated;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    } finally {
+      event.end(hashed, outdated);
+    }
+  }
+
+  /**
+   * Like {@link #needsUpdate(Path)}, but trusts the checksum recorded in the cache index when the
+   * cached file is unchanged since it was last hashed. Freshly computed checksums are recorded in
+   * the index.
+   */
+  boolean needsUpdate(Path cacheDir, CacheIndex index) {
+    Path path = cacheDir.resolve(file);
+    LauncherEvents.Recording event = LauncherEvents.get().verification(file);
+    long hashed = 0;
+    boolean outdated = true;
     try {
-      return !Files.exists(path) || Files.size(path) != size || checksum(path) != checksum;
+      if (!Files.exists(path) || Files.size(path) != size) return true;
+
+      Long verified = index.verifiedChecksum(file, path);
+      if (verified != null) {
+        outdated = verified != checksum.longValue();
+        return outdated;
+      }
+
+      hashed = size;
+      long actual = checksum(path);
+      index.record(file, path, actual);
+      outdated = actual != checksum;
+      return outdated;
     } catch (IOException e) {
       throw new RuntimeException(e);
+    } finally {
+      event.end(hashed, outdated);
     }
   }
 
@@ -49,6 +109,16 @@ public class LibraryFile {
     }
   }
 
+  /** @return true if the file is a native library, which can not be replaced while it is loaded */
+  boolean isNativeLibrary() {
+    String filename = file.toLowerCase();
+    return filename.endsWith(".dll")
+        || filename.endsWith(".dylib")
+        || filename.endsWith(".jnilib")
+        || filename.endsWith(".so")
+        || filename.contains(".so.");
+  }
+
   public boolean loadForCurrentPlatform() {
     return os == null || os == OS.current;
   }
@@ -61,7 +131,7 @@ public class LibraryFile {
     }
   }
 
-  private static long checksum(Path path) throws IOException {
+  static long checksum(Path path) throws IOException {
     try (InputStream input = Files.newInputStream(path)) {
       Adler32 checksum = new Adler32();
       byte[] buf = new byte[16384];
@@ -0,0 +1,39 @@
+package fxlauncher.old;
+
+import javax.xml.bind.annotation.XmlAttribute;
+
+/**
+ * A binary patch, published next to the application files, that turns the version of a {@link
+ * LibraryFile} with the checksum {@link #from} into the current version.
+ */
+public class LibraryPatch {
+  @XmlAttribute Long from;
+  @XmlAttribute String file;
+  @XmlAttribute Long size;
+
+  public LibraryPatch() {}
+
+  public LibraryPatch(long from, String file, long size) {
+    this.from = from;
+    this.file = file;
+    this.size = size;
+  }
+
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+
+    LibraryPatch that = (LibraryPatch) o;
+
+    if (!from.equals(that.from)) return false;
+    if (!file.equals(that.file)) return false;
+    return size.equals(that.size);
+  }
+
+  public int hashCode() {
+    int result = from.hashCode();
+    result = 31 * result + file.hashCode();
+    result = 31 * result + size.hashCode();
+    return result;
+  }
+}
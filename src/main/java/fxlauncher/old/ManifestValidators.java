@@ -0,0 +1,144 @@
+package fxlauncher.old;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The http cache validators, <code>ETag</code> and <code>Last-Modified</code>, of the response a
+ * manifest was read from. They are stored next to the cached manifest, so the next launch asks the
+ * repository for the manifest with <code>If-None-Match</code> and <code>If-Modified-Since</code>,
+ * and neither downloads nor parses it when the repository answers <code>304 Not Modified</code>.
+ *
+ * <p>The validators also record the manifest they belong to, so they are ignored once the cached
+ * manifest is replaced by other means, like the activation of a staged update.
+ */
+class ManifestValidators {
+  private static final Logger log = Logger.getLogger("ManifestValidators");
+
+  static final String SUFFIX = ".validators";
+
+  final URI uri;
+  final String etag;
+  final String lastModified;
+  private String manifestDigest;
+
+  ManifestValidators(URI uri, String etag, String lastModified) {
+    this.uri = uri;
+    this.etag = etag;
+    this.lastModified = lastModified;
+  }
+
+  /**
+   * Get the validators of a response.
+   *
+   * @param uri the uri of the manifest
+   * @param connection the connection the manifest was read from
+   * @return the validators, or null if the response has none
+   */
+  static ManifestValidators of(URI uri, URLConnection connection) {
+    String etag = connection.getHeaderField("ETag");
+    String lastModified = connection.getHeaderField("Last-Modified");
+    if (etag == null && lastModified == null) return null;
+    return new ManifestValidators(uri, etag, lastModified);
+  }
+
+  /**
+   * Make a request conditional on the manifest having changed since these validators.
+   *
+   * @param connection the connection, not connected yet
+   */
+  void apply(URLConnection connection) {
+    if (etag != null) connection.setRequestProperty("If-None-Match", etag);
+    if (lastModified != null) connection.setRequestProperty("If-Modified-Since", lastModified);
+  }
+
+  /**
+   * @param uri the uri of a request
+   * @return true if these validators were received for the same uri
+   */
+  boolean appliesTo(URI uri) {
+    return Objects.equals(this.uri, uri);
+  }
+
+  /** @return the file the validators of a cached manifest are stored in */
+  static Path pathOf(Path manifestPath) {
+    return manifestPath.resolveSibling(manifestPath.getFileName() + SUFFIX);
+  }
+
+  /**
+   * Load the validators of a cached manifest.
+   *
+   * @param manifestPath the path of the cached manifest
+   * @param manifest the cached manifest
+   * @return the validators, or null if none are stored or they belong to another manifest
+   */
+  static ManifestValidators load(Path manifestPath, FXManifest manifest) {
+    Path file = pathOf(manifestPath);
+    if (!Files.exists(file)) return null;
+
+    Properties props = new Properties();
+    try (InputStream input = Files.newInputStream(file)) {
+      props.load(input);
+    } catch (IOException | IllegalArgumentException e) {
+      log.log(Level.WARNING, String.format("Ignoring unreadable validators %s", file), e);
+      return null;
+    }
+
+    if (!digest(manifest).equals(props.getProperty("manifest"))) {
+      log.fine(String.format("The validators in %s belong to another manifest", file));
+      return null;
+    }
+    String uri = props.getProperty("uri");
+    if (uri == null) return null;
+    ManifestValidators validators =
+        new ManifestValidators(
+            URI.create(uri), props.getProperty("etag"), props.getProperty("last-modified"));
+    validators.manifestDigest = digest(manifest);
+    return validators;
+  }
+
+  /**
+   * Store the validators of a cached manifest, or remove the stored ones if the manifest has none.
+   *
+   * @param manifestPath the path of the cached manifest
+   * @param manifest the cached manifest
+   */
+  static void save(Path manifestPath, FXManifest manifest) {
+    Path file = pathOf(manifestPath);
+    ManifestValidators validators = manifest.validators;
+    try {
+      if (validators == null) {
+        Files.deleteIfExists(file);
+        return;
+      }
+      String digest = digest(manifest);
+      if (digest.equals(validators.manifestDigest) && Files.exists(file)) return;
+
+      Properties props = new Properties();
+      props.setProperty("uri", validators.uri.toString());
+      props.setProperty("manifest", digest);
+      if (validators.etag != null) props.setProperty("etag", validators.etag);
+      if (validators.lastModified != null)
+        props.setProperty("last-modified", validators.lastModified);
+
+      AtomicFiles.replaceAtomically(
+          file, output -> props.store(output, "FXLauncher manifest validators"));
+      validators.manifestDigest = digest;
+    } catch (IOException e) {
+      log.log(Level.WARNING, String.format("Unable to write validators %s", file), e);
+    }
+  }
+
+  /** The timestamp and the files identify the manifest a response carried. */
+  private static String digest(FXManifest manifest) {
+    return String.format("%s:%s", manifest.ts, manifest.filesDigest());
+  }
+}
@@ -0,0 +1,382 @@
+package fxlauncher.old;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * The application repository and the mirrors that serve the same files. Every download is
+ * measured: the time to the first byte and the throughput of each mirror are smoothed over the
+ * downloads so far, and new downloads go to the mirror that is expected to deliver a file of the
+ * average size first. Mirrors that have not been tried yet are tried first, and mirrors that
+ * failed are only used when the others fail too.
+ *
+ * <p>When the time to first byte of a request passes a percentile of the times seen so far, a
+ * hedged request for the same file goes to the next mirror, and whichever answers first is used.
+ * Failed requests fall over to the next mirror right away.
+ */
+class Mirrors implements Closeable {
+  private static final Logger log = Logger.getLogger("Mirrors");
+
+  /** The number of times to first byte needed before requests are hedged. */
+  static final int MIN_SAMPLES = 8;
+
+  private static final int WINDOW = 64;
+  private static final double SMOOTHING = 0.3;
+  // smaller transfers say more about the latency than about the throughput of a mirror
+  private static final long MIN_THROUGHPUT_SAMPLE = 64 * 1024;
+  private static final Object ABANDONED = new Object();
+
+  private final List<Mirror> mirrors = new ArrayList<>();
+  private final int hedgePercentile;
+  private final long[] firstByteWindow = new long[WINDOW];
+  private int firstByteSamples;
+  private double meanTransfer;
+  private int transfers;
+  private final AtomicInteger hedges = new AtomicInteger();
+  private ExecutorService executor;
+
+  /** A repository without mirrors. */
+  Mirrors(URI repositoryUri) {
+    this(Collections.singletonList(repositoryUri), 100);
+  }
+
+  /**
+   * @param uris the repository and its mirrors, in order of preference
+   * @param hedgePercentile the percentile of the time to first byte after which a request is
+   *     hedged, 100 or more to never hedge
+   */
+  Mirrors(List<URI> uris, int hedgePercentile) {
+    for (URI uri : uris) mirrors.add(new Mirror(uri));
+    this.hedgePercentile = hedgePercentile;
+  }
+
+  /**
+   * Collect the mirrors of a repository.
+   *
+   * @param repositoryUri the repository
+   * @param lists comma separated lists of mirror uris, null entries are skipped
+   * @param hedgePercentile see {@link #Mirrors(List, int)}
+   * @return the repository followed by the mirrors, without duplicates
+   */
+  static Mirrors of(URI repositoryUri, List<String> lists, int hedgePercentile) {
+    Set<URI> uris = new LinkedHashSet<>();
+    uris.add(repositoryUri);
+    for (String list : lists) {
+      if (list == null) continue;
+      for (String item : list.split(",")) {
+        String uri = item.trim();
+        if (uri.isEmpty()) continue;
+        try {
+          uris.add(URI.create(uri));
+        } catch (IllegalArgumentException e) {
+          log.warning(String.format("Ignoring the mirror %s, it is not a valid uri", uri));
+        }
+      }
+    }
+    return new Mirrors(new ArrayList<>(uris), hedgePercentile);
+  }
+
+  /** @return the number of mirrors, including the repository itself */
+  int size() {
+    return mirrors.size();
+  }
+
+  /** @return the uris of the mirrors, the one the next download goes to first */
+  List<URI> ranking() {
+    return ranked().stream().map(it -> it.uri).collect(Collectors.toList());
+  }
+
+  /** @return the number of hedged requests so far */
+  int getHedges() {
+    return hedges.get();
+  }
+
+  /**
+   * @param file a path relative to the repository
+   * @return the uri of the file on the mirror the next download goes to
+   */
+  URI resolve(String file) {
+    return resolve(ranked().get(0).uri, file);
+  }
+
+  static URI resolve(URI mirror, String file) {
+    // We avoid using uri.resolve() here so as to not break UNC paths. See issue #143
+    String separator = mirror.getPath().endsWith("/") ? "" : "/";
+    return URI.create(mirror.toString() + separator + file);
+  }
+
+  /**
+   * Open a file on the best mirror, hedged with a request to the next mirror if it takes long to
+   * answer, and falling over to the next mirror if it fails.
+   *
+   * @param file a path relative to the repository
+   * @param offset the offset to start at, see {@link ArtifactDownloader#openDownload}
+   * @return the download of the mirror that answered first
+   * @throws IOException the failure of the last mirror, if none of them could serve the file
+   */
+  ArtifactDownloader.Download open(String file, long offset) throws IOException {
+    List<Mirror> ranked = ranked();
+    if (ranked.size() == 1) return openFrom(ranked.get(0), file, offset);
+
+    AtomicReference<Object> winner = new AtomicReference<>();
+    CompletionService<ArtifactDownloader.Download> completion =
+        new ExecutorCompletionService<>(executor());
+    List<Future<ArtifactDownloader.Download>> futures = new ArrayList<>();
+    long delay = hedgeDelay();
+    int next = 0;
+    int pending = 0;
+    boolean hedged = false;
+    IOException failure = null;
+    try {
+      while (true) {
+        if (pending == 0) {
+          if (next == ranked.size()) throw failure;
+          futures.add(completion.submit(attempt(ranked.get(next++), file, offset, winner)));
+          pending++;
+        }
+
+        Future<ArtifactDownloader.Download> done;
+        if (!hedged && next < ranked.size() && delay < Long.MAX_VALUE) {
+          done = completion.poll(delay, TimeUnit.NANOSECONDS);
+          if (done == null) {
+            hedged = true;
+            hedges.incrementAndGet();
+            Mirror hedge = ranked.get(next++);
+            log.fine(
+                String.format(
+                    "No answer for %s after %d ms, hedging with %s",
+                    file, TimeUnit.NANOSECONDS.toMillis(delay), hedge.uri));
+            futures.add(completion.submit(attempt(hedge, file, offset, winner)));
+            pending++;
+            continue;
+          }
+        } else {
+          done = completion.take();
+        }
+
+        pending--;
+        try {
+          ArtifactDownloader.Download download = done.get();
+          // null means another mirror answered first, its future is still to be taken
+          if (download != null) return download;
+        } catch (ExecutionException e) {
+          IOException cause = asIOException(e);
+          if (failure != null) cause.addSuppressed(failure);
+          failure = cause;
+        }
+      }
+    } catch (InterruptedException e) {
+      Object won = winner.getAndSet(ABANDONED);
+      if (won instanceof ArtifactDownloader.Download) ((ArtifactDownloader.Download) won).close();
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(String.format("Download of %s cancelled", file));
+    } finally {
+      // requests that lose the race close their own stream
+      futures.forEach(future -> future.cancel(true));
+    }
+  }
+
+  private Callable<ArtifactDownloader.Download> attempt(
+      Mirror mirror, String file, long offset, AtomicReference<Object> winner) {
+    return () -> {
+      ArtifactDownloader.Download download = openFrom(mirror, file, offset);
+      if (winner.compareAndSet(null, download)) return download;
+      download.close();
+      return null;
+    };
+  }
+
+  private ArtifactDownloader.Download openFrom(Mirror mirror, String file, long offset)
+      throws IOException {
+    synchronized (this) {
+      mirror.started++;
+    }
+    long start = System.nanoTime();
+    ArtifactDownloader.Download download;
+    try {
+      download = ArtifactDownloader.openDownload(resolve(mirror.uri, file), offset);
+    } catch (InterruptedIOException e) {
+      throw e;
+    } catch (IOException | RuntimeException e) {
+      recordFailure(mirror);
+      throw e;
+    }
+    long firstByte = System.nanoTime();
+    recordFirstByte(mirror, firstByte - start);
+    return new ArtifactDownloader.Download(
+        new MeasuredInputStream(download.input, mirror, firstByte), download.offset);
+  }
+
+  private synchronized void recordFirstByte(Mirror mirror, long nanos) {
+    mirror.failures = 0;
+    mirror.firstByteNanos = smooth(mirror.firstByteNanos, nanos);
+    firstByteWindow[firstByteSamples++ % WINDOW] = nanos;
+  }
+
+  private synchronized void recordFailure(Mirror mirror) {
+    mirror.failures++;
+    mirror.failed++;
+  }
+
+  private synchronized void recordTransfer(Mirror mirror, long bytes, long nanos) {
+    transfers++;
+    meanTransfer += (bytes - meanTransfer) / transfers;
+    mirror.bytes += bytes;
+    mirror.files++;
+    if (bytes >= MIN_THROUGHPUT_SAMPLE && nanos > 0)
+      mirror.bytesPerNano = smooth(mirror.bytesPerNano, (double) bytes / nanos);
+  }
+
+  private static double smooth(double average, double sample) {
+    return average < 0 ? sample : average + SMOOTHING * (sample - average);
+  }
+
+  /** @return the time to first byte after which a request is hedged, Long.MAX_VALUE for never */
+  synchronized long hedgeDelay() {
+    if (hedgePercentile >= 100 || firstByteSamples < MIN_SAMPLES) return Long.MAX_VALUE;
+    long[] samples = Arrays.copyOf(firstByteWindow, Math.min(firstByteSamples, WINDOW));
+    Arrays.sort(samples);
+    int index = (int) Math.ceil(hedgePercentile / 100.0 * samples.length) - 1;
+    return samples[Math.max(0, index)];
+  }
+
+  private synchronized List<Mirror> ranked() {
+    List<Mirror> ranked = new ArrayList<>(mirrors);
+    // the sort is stable, so the order of preference breaks ties
+    ranked.sort(
+        Comparator.<Mirror>comparingInt(it -> it.failures)
+            .thenComparingDouble(this::expectedNanos));
+    return ranked;
+  }
+
+  /**
+   * The expected time to download a file of average size: -1 for a mirror never tried, and the
+   * maximum for one that has not answered yet, so a slow mirror does not draw every download.
+   */
+  private double expectedNanos(Mirror mirror) {
+    if (mirror.started == 0) return -1;
+    if (mirror.firstByteNanos < 0) return Double.MAX_VALUE;
+    double transfer = mirror.bytesPerNano > 0 ? meanTransfer / mirror.bytesPerNano : 0;
+    return mirror.firstByteNanos + transfer;
+  }
+
+  /** @return one line per mirror with the downloads and measurements so far */
+  synchronized String summary() {
+    StringBuilder summary = new StringBuilder();
+    for (Mirror mirror : ranked()) {
+      if (summary.length() > 0) summary.append('\n');
+      summary.append(
+          String.format(
+              "%s: %d files, %d bytes, %.1f ms to first byte, %.0f KiB/s, %d failures",
+              mirror.uri,
+              mirror.files,
+              mirror.bytes,
+              Math.max(0, mirror.firstByteNanos) / 1e6,
+              Math.max(0, mirror.bytesPerNano) * 1e9 / 1024,
+              mirror.failed));
+    }
+    return summary.append(String.format("\n%d hedged requests", hedges.get())).toString();
+  }
+
+  private synchronized ExecutorService executor() {
+    if (executor == null) {
+      AtomicInteger count = new AtomicInteger();
+      executor =
+          Executors.newCachedThreadPool(
+              task -> {
+                Thread thread = new Thread(task, "FXLauncher-Mirror-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    return executor;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (executor != null) executor.shutdownNow();
+  }
+
+  private static IOException asIOException(ExecutionException e) {
+    Throwable cause = e.getCause();
+    if (cause instanceof IOException) return (IOException) cause;
+    if (cause instanceof Error) throw (Error) cause;
+    return new IOException(cause);
+  }
+
+  private static class Mirror {
+    final URI uri;
+    int started;
+    int failures;
+    int failed;
+    int files;
+    long bytes;
+    double firstByteNanos = -1;
+    double bytesPerNano = -1;
+
+    Mirror(URI uri) {
+      this.uri = uri;
+    }
+  }
+
+  /** Measures the throughput of a download when it is closed. */
+  private class MeasuredInputStream extends FilterInputStream {
+    private final Mirror mirror;
+    private final long firstByte;
+    private long count;
+    private boolean closed;
+
+    MeasuredInputStream(InputStream input, Mirror mirror, long firstByte) {
+      super(input);
+      this.mirror = mirror;
+      this.firstByte = firstByte;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int read = super.read();
+      if (read >= 0) count++;
+      return read;
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws IOException {
+      int read = super.read(buf, off, len);
+      if (read > 0) count += read;
+      return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (!closed) {
+        closed = true;
+        // a request that lost the race is closed before it is read
+        if (count > 0) recordTransfer(mirror, count, System.nanoTime() - firstByte);
+      }
+      super.close();
+    }
+  }
+}
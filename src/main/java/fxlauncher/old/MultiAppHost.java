@@ -0,0 +1,147 @@
+package fxlauncher.old;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.FileHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Runs several headless applications in one JVM, so they share its startup and heap overhead.
+ *
+ * <p>The arguments of the applications are separated by <code>--</code>, and each group is what
+ * {@link HeadlessMainLauncher} would be given for the application alone:
+ *
+ * <pre>
+ * java -cp fxlauncher.jar fxlauncher.old.MultiAppHost \
+ *     --uri=https://example.com/tool-a/ --cache-dir=USERLIB/tool-a \
+ *     -- --uri=https://example.com/tool-b/ --cache-dir=USERLIB/tool-b --verbose
+ * </pre>
+ *
+ * <p>Every application is synchronized and started on a thread of its own, by an isolated launcher
+ * with its own lifecycle, configuration and class loader. The <code>main</code> method of each
+ * application gets the arguments of its group that are not meant for the launcher. State that
+ * belongs to the whole JVM is still shared: system properties, <code>System.exit</code>, the
+ * default SSL settings of <code>--ignoressl</code>, and the classes of the launcher jar itself.
+ */
+public class MultiAppHost {
+  private static final Logger log = Logger.getLogger("MultiAppHost");
+
+  static final String SEPARATOR = "--";
+
+  private final List<HeadlessMainLauncher> launchers = new ArrayList<>();
+
+  /** @param applications the parameters of every application */
+  MultiAppHost(List<LauncherParams> applications) {
+    for (LauncherParams parameters : applications) {
+      launchers.add(new HeadlessMainLauncher(parameters, true));
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    List<LauncherParams> applications = split(args);
+    if (applications.isEmpty()) {
+      System.err.println(
+          "Usage: MultiAppHost --uri=<application uri> [args] [-- --uri=<application uri> [args]]");
+      System.exit(1);
+    }
+
+    setupLogFile(applications.get(0));
+    int failures = new MultiAppHost(applications).run();
+    if (failures > 0) System.exit(1);
+  }
+
+  /**
+   * Split the command line into the parameters of every application.
+   *
+   * @param args the command line
+   * @return the parameters of each application, in order
+   * @throws IllegalArgumentException if an application has neither <code>--uri</code> nor <code>
+   *     --app</code>, as the embedded manifest can only describe one of them
+   */
+  static List<LauncherParams> split(String... args) {
+    List<LauncherParams> applications = new ArrayList<>();
+    List<String> group = new ArrayList<>();
+    for (String arg : args) {
+      if (SEPARATOR.equals(arg)) {
+        addApplication(applications, group);
+        group = new ArrayList<>();
+      } else {
+        group.add(arg);
+      }
+    }
+    addApplication(applications, group);
+    return applications;
+  }
+
+  private static void addApplication(List<LauncherParams> applications, List<String> args) {
+    if (args.isEmpty()) return;
+    LauncherParams parameters = new LauncherParams(args);
+    if (!parameters.getNamed().containsKey("uri") && !parameters.getNamed().containsKey("app"))
+      throw new IllegalArgumentException(
+          String.format("Application %d needs --uri or --app: %s", applications.size() + 1, args));
+    applications.add(parameters);
+  }
+
+  /**
+   * Synchronize and start every application concurrently, and wait for their <code>main</code>
+   * methods to return.
+   *
+   * @return the number of applications that failed
+   * @throws InterruptedException if interrupted while waiting for the applications
+   */
+  int run() throws InterruptedException {
+    AtomicInteger failures = new AtomicInteger();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < launchers.size(); i++) {
+      HeadlessMainLauncher launcher = launchers.get(i);
+      String name = describe(launcher);
+      Thread thread =
+          new Thread(
+              () -> {
+                try {
+                  launcher.process();
+                  log.info(String.format("Application %s returned from main", name));
+                } catch (Throwable e) {
+                  failures.incrementAndGet();
+                  log.log(
+                      Level.SEVERE,
+                      String.format(
+                          "Application %s failed during %s", name, launcher.getPhase()),
+                      e);
+                }
+              },
+              "FXLauncher-App-" + (i + 1));
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) thread.join();
+    return failures.get();
+  }
+
+  /** @return the isolated launcher of every application, in order */
+  List<HeadlessMainLauncher> getLaunchers() {
+    return Collections.unmodifiableList(launchers);
+  }
+
+  private static String describe(HeadlessMainLauncher launcher) {
+    String uri = launcher.getParameters().getNamed().get("uri");
+    return uri != null ? uri : launcher.getParameters().getNamed().get("app");
+  }
+
+  /** Log to the <code>--logfile</code> of the first application, or the default log file. */
+  private static void setupLogFile(LauncherParams parameters) throws IOException {
+    String filename = System.getProperty("java.io.tmpdir") + File.separator + "fxlauncher.log";
+    if (parameters.getNamed().containsKey("logfile"))
+      filename = parameters.getNamed().get("logfile");
+    System.out.println("logging to " + filename);
+    FileHandler handler = new FileHandler(filename);
+    handler.setFormatter(new SimpleFormatter());
+    Logger.getLogger("").addHandler(handler);
+  }
+}
@@ -0,0 +1,207 @@
+package fxlauncher.old;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Maps every directory of the application jars to the jars that contain entries in it, so a class
+ * or resource lookup only opens the jars that can hold it.
+ *
+ * <p>The directories of a jar are only listed once per version of the jar: they are stored in
+ * <code>fxlauncher-packages.index</code> next to the manifest, keyed by the path, checksum and size
+ * of the jar, and reused as long as those are unchanged.
+ */
+final class PackageIndex {
+  private static final Logger log = Logger.getLogger("PackageIndex");
+
+  static final String FILENAME = "fxlauncher-packages.index";
+
+  private static final int VERSION = 1;
+  private static final int[] NONE = new int[0];
+
+  private final List<Path> jars;
+  private final Map<String, int[]> directories;
+
+  private PackageIndex(List<Path> jars, Map<String, int[]> directories) {
+    this.jars = jars;
+    this.directories = directories;
+  }
+
+  /**
+   * Index the given files of the cache dir, reusing the stored listing of unchanged jars.
+   *
+   * @param cacheDir the cache dir
+   * @param files the files of the classpath, in classpath order
+   * @return the index
+   */
+  static PackageIndex load(Path cacheDir, List<LibraryFile> files) {
+    Path indexFile = cacheDir.resolve(FILENAME);
+    Map<String, Entry> stored = read(indexFile);
+    boolean changed = false;
+
+    List<Path> jars = new ArrayList<>(files.size());
+    Map<String, List<Integer>> owners = new HashMap<>();
+    for (LibraryFile lib : files) {
+      Path jar = cacheDir.resolve(lib.file);
+      Entry entry = stored.get(lib.file);
+      if (entry == null || !entry.describes(lib, jar)) {
+        entry = Entry.scan(lib, jar);
+        stored.put(lib.file, entry);
+        changed = true;
+      }
+
+      Integer position = jars.size();
+      jars.add(jar);
+      for (String dir : entry.directories)
+        owners.computeIfAbsent(dir, it -> new ArrayList<>(1)).add(position);
+    }
+
+    // listings of jars that are gone are dropped, other applications may share the cache dir
+    changed |= stored.keySet().removeIf(file -> !Files.isRegularFile(cacheDir.resolve(file)));
+    if (changed) write(indexFile, stored);
+
+    Map<String, int[]> directories = new HashMap<>(owners.size() * 2);
+    owners.forEach(
+        (dir, positions) -> directories.put(dir, positions.stream().mapToInt(i -> i).toArray()));
+    return new PackageIndex(jars, directories);
+  }
+
+  /** The directory part of a class or resource name, which is how the index is keyed. */
+  static String directoryOf(String name) {
+    // a directory entry belongs to its parent
+    return name.substring(0, name.lastIndexOf('/', name.length() - 2) + 1);
+  }
+
+  /**
+   * Find the jars that may contain a resource.
+   *
+   * @param name the resource name, like <code>com/example/Main.class</code>
+   * @return the positions of the jars, in classpath order
+   */
+  int[] jarsFor(String name) {
+    int[] found = directories.get(directoryOf(name));
+    return found != null ? found : NONE;
+  }
+
+  int size() {
+    return jars.size();
+  }
+
+  Path jar(int position) {
+    return jars.get(position);
+  }
+
+  URL url(int position) {
+    try {
+      return jars.get(position).toUri().toURL();
+    } catch (MalformedURLException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Map<String, Entry> read(Path indexFile) {
+    Map<String, Entry> entries = new LinkedHashMap<>();
+    if (!Files.exists(indexFile)) return entries;
+
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+      if (in.readInt() != VERSION) return entries;
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        String file = in.readUTF();
+        long checksum = in.readLong();
+        long size = in.readLong();
+        String[] directories = new String[in.readInt()];
+        for (int d = 0; d < directories.length; d++) directories[d] = in.readUTF();
+        entries.put(file, new Entry(checksum, size, directories));
+      }
+    } catch (IOException e) {
+      log.log(Level.WARNING, String.format("Ignoring unreadable package index %s", indexFile), e);
+      entries.clear();
+    }
+    return entries;
+  }
+
+  private static void write(Path indexFile, Map<String, Entry> entries) {
+    try {
+      AtomicFiles.replaceAtomically(
+          indexFile,
+          output -> {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> it : entries.entrySet()) {
+              out.writeUTF(it.getKey());
+              out.writeLong(it.getValue().checksum);
+              out.writeLong(it.getValue().size);
+              out.writeInt(it.getValue().directories.length);
+              for (String dir : it.getValue().directories) out.writeUTF(dir);
+            }
+            out.flush();
+          });
+    } catch (IOException e) {
+      log.log(Level.WARNING, String.format("Unable to write package index %s", indexFile), e);
+    }
+  }
+
+  private static class Entry {
+    private final long checksum;
+    private final long size;
+    private final String[] directories;
+
+    private Entry(long checksum, long size, String[] directories) {
+      this.checksum = checksum;
+      this.size = size;
+      this.directories = directories;
+    }
+
+    private static Entry scan(LibraryFile lib, Path jar) {
+      long checksum = lib.checksum != null ? lib.checksum : -1;
+      long size;
+      try {
+        size = Files.size(jar);
+      } catch (IOException e) {
+        return new Entry(checksum, -1, new String[0]);
+      }
+
+      Set<String> directories = new LinkedHashSet<>();
+      try (ZipFile zip = new ZipFile(jar.toFile())) {
+        Enumeration<? extends ZipEntry> entries = zip.entries();
+        while (entries.hasMoreElements())
+          directories.add(directoryOf(entries.nextElement().getName()));
+      } catch (IOException e) {
+        // not a jar, the class loader would not find anything in it either
+        log.log(Level.FINE, String.format("Not indexing %s", jar), e);
+        directories.clear();
+      }
+      return new Entry(checksum, size, directories.toArray(new String[0]));
+    }
+
+    private boolean describes(LibraryFile lib, Path jar) {
+      try {
+        return lib.checksum != null && checksum == lib.checksum && size == Files.size(jar);
+      } catch (IOException e) {
+        return false;
+      }
+    }
+  }
+}
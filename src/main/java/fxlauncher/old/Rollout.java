@@ -0,0 +1,76 @@
+package fxlauncher.old;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Decides which clients take a release that is rolled out to a share of them, see {@link
+ * FXManifest#rollout}.
+ *
+ * <p>Every client is put in one of a hundred buckets by a hash of its client id and the content of
+ * the release, and takes the release when its bucket is below the rollout percentage. The decision
+ * is the same on every check, and raising the percentage of a release only adds clients to it.
+ * Because the content is part of the hash, the clients that go first change from release to
+ * release.
+ *
+ * <p>The client id is the <code>--client-id</code> option, or a random id that is kept in the
+ * cache dir.
+ */
+class Rollout {
+  private static final Logger log = Logger.getLogger("Rollout");
+
+  static final String CLIENT_ID_FILE = "fxlauncher-client.id";
+  static final int BUCKETS = 100;
+
+  private Rollout() {}
+
+  /**
+   * The id of this client, created the first time it is asked for.
+   *
+   * @param cacheDir the cache dir the id is kept in
+   * @return the id, or a new random id if it cannot be kept
+   */
+  // the lock is only held, never read
+  @SuppressWarnings("try")
+  static String clientId(Path cacheDir) {
+    Path file = cacheDir.resolve(CLIENT_ID_FILE);
+    try (CacheLock lock = CacheLock.acquire(cacheDir, CLIENT_ID_FILE)) {
+      if (Files.isRegularFile(file)) {
+        String id = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim();
+        if (!id.isEmpty()) return id;
+      }
+      String id = UUID.randomUUID().toString();
+      AtomicFiles.replaceAtomically(
+          file, output -> output.write(id.getBytes(StandardCharsets.UTF_8)));
+      return id;
+    } catch (IOException e) {
+      log.log(Level.WARNING, String.format("Unable to keep the client id in %s", file), e);
+      return UUID.randomUUID().toString();
+    }
+  }
+
+  /**
+   * @param clientId the id of the client
+   * @param manifest the release
+   * @return the bucket of the client for the release, from 0 to 99
+   */
+  static int bucket(String clientId, FXManifest manifest) {
+    String hash = Strings.sha256(clientId + ":" + manifest.filesDigest());
+    return (int) (Long.parseLong(hash.substring(0, 8), 16) % BUCKETS);
+  }
+
+  /**
+   * @param clientId the id of the client
+   * @param manifest the release
+   * @return true if the client takes the release
+   */
+  static boolean includes(String clientId, FXManifest manifest) {
+    if (manifest.rollout == null || manifest.rollout >= BUCKETS) return true;
+    return bucket(clientId, manifest) < manifest.rollout;
+  }
+}
@@ -0,0 +1,211 @@
+package fxlauncher.old;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A new version of the application that is prepared next to the cache while the current version
+ * runs, and activated on the next launch.
+ *
+ * <p>Only the files that differ from the cache are staged, in a folder inside the cache dir. The
+ * manifest of the new version is written to the staging folder last, after every staged file has
+ * been verified, so its presence marks a complete update. Activating the update moves the staged
+ * files into the cache and the manifest over the cached manifest. The files it replaces are kept
+ * as backups until the manifest is moved, so an activation that fails part way puts the cache back
+ * as it was instead of leaving a mix of both versions.
+ *
+ * <p>The {@link ManifestValidators} of the response the update was read from are staged and
+ * activated with its manifest, so the next check for updates is a conditional request.
+ */
+class StagedUpdate {
+  private static final Logger log = Logger.getLogger("StagedUpdate");
+
+  static final String DIRNAME = ".fxlauncher-staging";
+  static final String BACKUP_SUFFIX = ".backup";
+
+  private final Path cacheDir;
+  private final Path dir;
+  private final Path manifestFile;
+
+  /**
+   * @param cacheDir the cache dir of the application
+   * @param manifestName the file name of the cached manifest, see {@link FXManifest#getFilename()}
+   */
+  StagedUpdate(Path cacheDir, String manifestName) {
+    this.cacheDir = cacheDir;
+    this.dir = cacheDir.resolve(DIRNAME);
+    this.manifestFile = dir.resolve(manifestName);
+  }
+
+  Path getDir() {
+    return dir;
+  }
+
+  /**
+   * Get the manifest of the completely staged update.
+   *
+   * @return the manifest with its validators, or null if no update is ready
+   */
+  FXManifest getReadyManifest() {
+    if (!Files.exists(manifestFile)) return null;
+    try {
+      FXManifest manifest = FXManifestXml.read(manifestFile);
+      manifest.validators = ManifestValidators.load(manifestFile, manifest);
+      return manifest;
+    } catch (IOException e) {
+      log.log(Level.WARNING, String.format("Discarding unreadable %s", manifestFile), e);
+      discard();
+      return null;
+    }
+  }
+
+  /**
+   * Put the cached version of a file in the staging folder, so a patch can be applied to it. The
+   * cached file is hard linked when possible, it is never modified: a patched file replaces the
+   * link.
+   *
+   * @param lib the file that is about to be staged
+   */
+  void seed(LibraryFile lib) {
+    if (lib.patches == null || lib.patches.isEmpty()) return;
+    Path cached = cacheDir.resolve(lib.file);
+    Path staged = dir.resolve(lib.file);
+    if (!Files.isRegularFile(cached) || Files.exists(staged)) return;
+
+    try {
+      Files.createDirectories(staged.getParent());
+      try {
+        Files.createLink(staged, cached);
+      } catch (IOException | UnsupportedOperationException e) {
+        Files.copy(cached, staged);
+      }
+    } catch (IOException e) {
+      log.log(Level.FINE, String.format("Unable to seed %s", staged), e);
+    }
+  }
+
+  /** Mark the staged update as incomplete, keeping the files that were staged so far. */
+  void discard() {
+    try {
+      Files.deleteIfExists(manifestFile);
+    } catch (IOException e) {
+      log.log(Level.WARNING, String.format("Unable to delete %s", manifestFile), e);
+    }
+  }
+
+  /**
+   * Mark the update as complete. Every file of the manifest must either be staged or unchanged in
+   * the cache.
+   *
+   * @param manifest the manifest of the update
+   */
+  void markReady(FXManifest manifest) throws IOException {
+    ManifestValidators.save(manifestFile, manifest);
+    // written to a temporary file and moved into place, so the marker is never incomplete
+    FXManifestXml.write(manifest, manifestFile);
+  }
+
+  /**
+   * Move a complete staged update into the cache.
+   *
+   * @param cachedManifest where the manifest of the cached version is stored
+   * @return true if an update was activated, false if there was none or the cache was put back as
+   *     it was
+   */
+  // the lock is only held, never read
+  @SuppressWarnings("try")
+  boolean activate(Path cachedManifest) {
+    if (!Files.exists(manifestFile)) return false;
+
+    // launchers starting together activate the update once, the others find it activated
+    try (CacheLock lock = CacheLock.acquire(cacheDir, DIRNAME)) {
+      FXManifest staged = getReadyManifest();
+      if (staged == null) return false;
+
+      Deque<LibraryFile> replaced = new ArrayDeque<>();
+      try {
+        for (LibraryFile lib : staged.files) {
+          if (!Files.isRegularFile(dir.resolve(lib.file))) continue;
+          // a backup left by an activation that was cut short is never put back
+          Files.deleteIfExists(backupOf(lib));
+          replaced.push(lib);
+          replace(lib);
+        }
+        // moving the manifest activates the update and removes the marker in one step
+        AtomicFiles.move(manifestFile, cachedManifest, true);
+      } catch (IOException e) {
+        // the most recently replaced file first
+        boolean restored = true;
+        for (LibraryFile lib : replaced) restored &= restore(lib);
+        if (!restored)
+          log.severe(String.format("Unable to put back the files replaced from %s", dir));
+        throw e;
+      }
+      for (LibraryFile lib : replaced) Files.deleteIfExists(backupOf(lib));
+      activateValidators(cachedManifest);
+      Files.deleteIfExists(dir.resolve(CacheIndex.FILENAME));
+      log.info(String.format("Activated the update staged in %s", dir));
+      return true;
+    } catch (IOException e) {
+      // files still in use by another instance, the next launch tries again
+      log.log(Level.WARNING, String.format("Unable to activate the update staged in %s", dir), e);
+      return false;
+    }
+  }
+
+  /**
+   * Move the validators of the staged manifest next to the cached manifest, replacing those of the
+   * version it replaced.
+   */
+  private void activateValidators(Path cachedManifest) {
+    Path staged = ManifestValidators.pathOf(manifestFile);
+    Path cached = ManifestValidators.pathOf(cachedManifest);
+    try {
+      if (Files.exists(staged)) AtomicFiles.move(staged, cached, true);
+      else Files.deleteIfExists(cached);
+    } catch (IOException e) {
+      log.log(
+          Level.INFO,
+          String.format("Unable to move %s, the next check is not conditional", staged),
+          e);
+    }
+  }
+
+  /** Move a staged file into the cache, keeping the cached file it replaces as a backup. */
+  private void replace(LibraryFile lib) throws IOException {
+    Path target = cacheDir.resolve(lib.file);
+    Path backup = backupOf(lib);
+    Files.createDirectories(target.getParent());
+    if (Files.exists(target)) AtomicFiles.move(target, backup, false);
+    AtomicFiles.move(dir.resolve(lib.file), target, true);
+  }
+
+  /**
+   * Undo {@link #replace(LibraryFile)}, however far it got. The staged file goes back to the
+   * staging folder, so the next attempt does not download it again.
+   *
+   * @return true if the cached file is back in place
+   */
+  private boolean restore(LibraryFile lib) {
+    Path staged = dir.resolve(lib.file);
+    Path target = cacheDir.resolve(lib.file);
+    Path backup = backupOf(lib);
+    try {
+      if (!Files.exists(staged) && Files.exists(target)) AtomicFiles.move(target, staged, true);
+      if (Files.exists(backup)) AtomicFiles.move(backup, target, true);
+      return true;
+    } catch (IOException e) {
+      log.log(Level.WARNING, String.format("Unable to put back %s", target), e);
+      return false;
+    }
+  }
+
+  private Path backupOf(LibraryFile lib) {
+    return dir.resolve(lib.file + BACKUP_SUFFIX);
+  }
+}
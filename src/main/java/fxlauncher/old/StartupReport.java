@@ -0,0 +1,294 @@
+package fxlauncher.old;
+
+import fxlauncher.model.lifecycle.LifecycleGraph;
+import fxlauncher.model.lifecycle.LifecyclePhase;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Timing of a single launch: every lifecycle phase, download and verification step is recorded as
+ * a span with its wall time, thread, and the number of bytes and files it handled.
+ *
+ * <p>The report is written to <code>fxlauncher-startup.json</code> in the cache dir, replacing the
+ * report of the previous launch. A phase that is still running when the report is written, like
+ * the <code>main</code> method of a headless application, is reported as running up to then. With
+ * <code>--startup-trace</code> the spans are also written to
+ * <code>fxlauncher-startup.trace.json</code> in the Chrome trace event format, which can be opened
+ * in <code>chrome://tracing</code> or Perfetto.
+ */
+class StartupReport implements LifecycleGraph.Listener {
+  private static final Logger log = Logger.getLogger("StartupReport");
+
+  static final String FILENAME = "fxlauncher-startup.json";
+  static final String TRACE_FILENAME = "fxlauncher-startup.trace.json";
+
+  static final String PHASE = "phase";
+  static final String DOWNLOAD = "download";
+  static final String VERIFY = "verify";
+
+  private final Instant startedAt = Instant.now();
+  private final long origin = System.nanoTime();
+  private final Queue<Span> spans = new ConcurrentLinkedQueue<>();
+  private final Map<LifecyclePhase, Span> running = new ConcurrentHashMap<>();
+
+  /**
+   * Start timing a step. The step is recorded once {@link Span#end()} is called.
+   *
+   * @param category the kind of step, like {@link #DOWNLOAD}
+   * @param name what the step handles, like the file that is downloaded
+   * @return the span of the step
+   */
+  Span begin(String category, String name) {
+    return new Span(category, name, System.nanoTime());
+  }
+
+  @Override
+  public void phaseStarted(LifecyclePhase phase) {
+    running.put(phase, new Span(PHASE, phase.name(), System.nanoTime()));
+  }
+
+  @Override
+  public void phaseFinished(
+      LifecyclePhase phase, long startNanos, long endNanos, Throwable failure) {
+    running.remove(phase);
+    Span span = new Span(PHASE, phase.name(), startNanos);
+    span.failed = failure != null;
+    span.end(endNanos);
+  }
+
+  /**
+   * @return the completed spans, and the phases that are still running up to now, in the order
+   *     they started
+   */
+  List<Span> getSpans() {
+    List<Span> sorted = new ArrayList<>(spans);
+    long now = System.nanoTime();
+    for (Span span : running.values()) {
+      span.end = now;
+      span.running = true;
+      sorted.add(span);
+    }
+    sorted.sort(Comparator.comparingLong(it -> it.start));
+    return sorted;
+  }
+
+  /**
+   * Write the report of the spans completed so far to the cache dir.
+   *
+   * @param cacheDir the cache dir
+   * @param trace if true, write the Chrome trace event file as well
+   */
+  void write(Path cacheDir, boolean trace) {
+    try {
+      Files.createDirectories(cacheDir);
+      write(cacheDir.resolve(FILENAME), toJson());
+      if (trace) write(cacheDir.resolve(TRACE_FILENAME), toTraceEvents());
+    } catch (IOException e) {
+      log.log(
+          Level.WARNING, String.format("Unable to write the startup report to %s", cacheDir), e);
+    }
+  }
+
+  /** The report: the totals per category, followed by every span. */
+  String toJson() {
+    List<Span> sorted = getSpans();
+    long end = origin;
+    for (Span span : sorted) end = Math.max(end, span.end);
+
+    Map<String, long[]> totals = new LinkedHashMap<>();
+    for (Span span : sorted) {
+      long[] total = totals.computeIfAbsent(span.category, it -> new long[4]);
+      total[0]++;
+      total[1] += span.end - span.start;
+      total[2] += span.bytes;
+      total[3] += span.files;
+    }
+
+    StringBuilder json = new StringBuilder();
+    json.append("{\n");
+    json.append("  \"version\": 1,\n");
+    json.append("  \"started\": ").append(quote(startedAt.toString())).append(",\n");
+    json.append("  \"totalMicros\": ").append(micros(end - origin)).append(",\n");
+    json.append("  \"totals\": {");
+    String separator = "\n";
+    for (Map.Entry<String, long[]> total : totals.entrySet()) {
+      long[] values = total.getValue();
+      json.append(separator).append("    ").append(quote(total.getKey())).append(": ");
+      json.append(
+          String.format(
+              "{\"count\": %d, \"micros\": %d, \"bytes\": %d, \"files\": %d}",
+              values[0], micros(values[1]), values[2], values[3]));
+      separator = ",\n";
+    }
+    json.append("\n  },\n");
+    json.append("  \"spans\": [");
+    separator = "\n";
+    for (Span span : sorted) {
+      json.append(separator).append("    ");
+      json.append(
+          String.format(
+              "{\"category\": %s, \"name\": %s, \"thread\": %s, \"startMicros\": %d, "
+                  + "\"durationMicros\": %d, \"bytes\": %d, \"files\": %d, \"failed\": %b, "
+                  + "\"running\": %b}",
+              quote(span.category),
+              quote(span.name),
+              quote(span.thread),
+              micros(span.start - origin),
+              micros(span.end - span.start),
+              span.bytes,
+              span.files,
+              span.failed,
+              span.running));
+      separator = ",\n";
+    }
+    json.append("\n  ]\n}\n");
+    return json.toString();
+  }
+
+  /** The spans as complete events of the Chrome trace event format. */
+  String toTraceEvents() {
+    StringBuilder json = new StringBuilder();
+    json.append("{\"displayTimeUnit\": \"ms\", \"traceEvents\": [");
+    String separator = "\n";
+    Map<String, Integer> threads = new LinkedHashMap<>();
+    for (Span span : getSpans()) {
+      Integer tid = threads.computeIfAbsent(span.thread, it -> threads.size() + 1);
+      json.append(separator);
+      json.append(
+          String.format(
+              "{\"name\": %s, \"cat\": %s, \"ph\": \"X\", \"ts\": %d, \"dur\": %d, \"pid\": 1, "
+                  + "\"tid\": %d, \"args\": {\"bytes\": %d, \"files\": %d, \"failed\": %b, "
+                  + "\"running\": %b}}",
+              quote(span.name),
+              quote(span.category),
+              micros(span.start - origin),
+              micros(span.end - span.start),
+              tid,
+              span.bytes,
+              span.files,
+              span.failed,
+              span.running));
+      separator = ",\n";
+    }
+    // name the rows of the viewer after the threads
+    for (Map.Entry<String, Integer> thread : threads.entrySet()) {
+      json.append(separator);
+      json.append(
+          String.format(
+              "{\"name\": \"thread_name\", \"ph\": \"M\", \"pid\": 1, \"tid\": %d, "
+                  + "\"args\": {\"name\": %s}}",
+              thread.getValue(), quote(thread.getKey())));
+    }
+    json.append("\n]}\n");
+    return json.toString();
+  }
+
+  private static void write(Path file, String content) throws IOException {
+    AtomicFiles.replaceAtomically(
+        file, output -> output.write(content.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static long micros(long nanos) {
+    return TimeUnit.NANOSECONDS.toMicros(nanos);
+  }
+
+  static String quote(String value) {
+    if (value == null) return "null";
+    StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') quoted.append('\\').append(c);
+      else if (c < 0x20) quoted.append(String.format("\\u%04x", (int) c));
+      else quoted.append(c);
+    }
+    return quoted.append('"').toString();
+  }
+
+  /** A timed step of the launch. */
+  class Span {
+    private final String category;
+    private final String name;
+    private final String thread = Thread.currentThread().getName();
+    private final long start;
+    private long end;
+    private long bytes;
+    private int files;
+    private boolean failed;
+    private boolean running;
+
+    private Span(String category, String name, long start) {
+      this.category = category;
+      this.name = name;
+      this.start = start;
+    }
+
+    /**
+     * Account for work done during the step.
+     *
+     * @param bytes the number of bytes handled
+     * @param files the number of files handled
+     * @return this span
+     */
+    Span add(long bytes, int files) {
+      this.bytes += bytes;
+      this.files += files;
+      return this;
+    }
+
+    /** Mark the step as failed. */
+    Span fail() {
+      this.failed = true;
+      return this;
+    }
+
+    /** Complete the step and record it in the report. */
+    void end() {
+      end(System.nanoTime());
+    }
+
+    private void end(long nanos) {
+      this.end = nanos;
+      spans.add(this);
+    }
+
+    String getCategory() {
+      return category;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    long getBytes() {
+      return bytes;
+    }
+
+    int getFiles() {
+      return files;
+    }
+
+    boolean isFailed() {
+      return failed;
+    }
+
+    /** @return true if the step had not completed when the report was made */
+    boolean isRunning() {
+      return running;
+    }
+  }
+}
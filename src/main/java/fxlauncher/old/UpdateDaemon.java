@@ -0,0 +1,257 @@
+package fxlauncher.old;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps a long running headless application up to date without restarting the JVM, for <code>
+ * --daemon</code>.
+ *
+ * <p>The daemon polls the repository every <code>--poll-interval</code> seconds, plus a random part
+ * of <code>--update-jitter</code> so a fleet of daemons does not poll in step. A manifest that
+ * is newer than the running one, see {@link FXManifest#isNewerThan(FXManifest)}, is staged next to
+ * the cache while the current version keeps running, like <code>--background-update</code> does.
+ * Once every file is staged and verified, the daemon stops the current version, closes its class
+ * loader, activates the staged files and starts the new version in a class loader of its own. The
+ * application is only down while it stops and starts. When the staged files cannot be activated,
+ * the current version is started again, once its files are back in the cache.
+ *
+ * <p>An application takes part by declaring <code>public static void stop()</code> next to its
+ * <code>main</code> method. It should release what the application holds and end the threads it
+ * started, including the one running <code>main</code>. The same method is called from a shutdown
+ * hook when the JVM exits. An application without it has the thread that runs <code>main</code>
+ * interrupted instead. Native libraries stay loaded by the first version.
+ */
+class UpdateDaemon {
+  private static final Logger log = Logger.getLogger("UpdateDaemon");
+
+  static final String STOP_METHOD = "stop";
+  static final long STOP_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+  private final HeadlessMainLauncher launcher;
+  private final Path cacheDir;
+  private final long pollMillis;
+  private long jitterMillis;
+  private final Thread shutdownHook = new Thread(this::stop, "FXLauncher-Daemon-Shutdown");
+
+  private Class<?> appClass;
+  private Thread mainThread;
+  private boolean stopped;
+
+  /**
+   * @param launcher the launcher that synchronized the current version
+   * @param cacheDir the cache dir of the application
+   * @param pollMillis the time between checks for a new version
+   */
+  UpdateDaemon(HeadlessMainLauncher launcher, Path cacheDir, long pollMillis) {
+    this.launcher = launcher;
+    this.cacheDir = cacheDir;
+    this.pollMillis = pollMillis;
+  }
+
+  /** @param jitterMillis the longest random time added to every wait between polls */
+  void setJitter(long jitterMillis) {
+    this.jitterMillis = jitterMillis;
+  }
+
+  /**
+   * Start the current version, and keep the application up to date until the thread is
+   * interrupted. The application is stopped before returning.
+   */
+  void run() throws Exception {
+    start();
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        Thread.sleep(pollMillis + Backoff.jitter(jitterMillis));
+        poll();
+      }
+    } catch (InterruptedException e) {
+      log.info("The update daemon is interrupted, stopping the application");
+    } finally {
+      stop();
+    }
+  }
+
+  /** Start the current version in a class loader of its own. */
+  synchronized void start() throws Exception {
+    if (mainThread != null) return;
+    startApplication();
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+  }
+
+  /**
+   * Check for a new version, stage it and switch to it.
+   *
+   * @return true if the application was restarted with a new version
+   */
+  boolean poll() {
+    if (!restart()) return false;
+    FXManifest current = launcher.getManifest();
+    StagedUpdate staging = new StagedUpdate(cacheDir, current.getFilename());
+    FXManifest next;
+    try {
+      if (!launcher.stageUpdate(current, cacheDir)) return false;
+      next = staging.getReadyManifest();
+    } catch (Exception e) {
+      log.log(Level.WARNING, "Unable to stage an update, trying again on the next poll", e);
+      return false;
+    }
+    return next != null && swap(staging, current, next);
+  }
+
+  /** Stop the running version and close its class loader. */
+  synchronized void stop() {
+    stopped = true;
+    stopApplication();
+    try {
+      Runtime.getRuntime().removeShutdownHook(shutdownHook);
+    } catch (IllegalStateException e) {
+      // the JVM is exiting, this is the shutdown hook
+    }
+  }
+
+  /** @return the launch class of the running version, or null if it is stopped */
+  synchronized Class<?> getAppClass() {
+    return appClass;
+  }
+
+  /** @return false if the daemon is stopped, or the application could not be started again */
+  private synchronized boolean restart() {
+    if (stopped) return false;
+    if (mainThread != null) return true;
+    try {
+      syncCurrentVersion();
+      startApplication();
+      return true;
+    } catch (Exception e) {
+      log.log(Level.SEVERE, "Unable to start the application, trying again on the next poll", e);
+      return false;
+    }
+  }
+
+  private synchronized boolean swap(StagedUpdate staging, FXManifest current, FXManifest next) {
+    if (stopped) return false;
+    long started = System.nanoTime();
+    stopApplication();
+
+    boolean activated = staging.activate(current.getPath(cacheDir));
+    if (activated) launcher.manifest = next;
+    else log.warning("Unable to activate the staged update, restarting the current version");
+    try {
+      if (!activated) syncCurrentVersion();
+      startApplication();
+    } catch (Exception e) {
+      log.log(Level.SEVERE, "Unable to start the application, trying again on the next poll", e);
+      return false;
+    }
+    log.info(
+        String.format(
+            "Restarted the application with version %s in %d ms",
+            launcher.getManifest().ts,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)));
+    return activated;
+  }
+
+  /**
+   * Download the files of the current version again if the cache does not match it, like after an
+   * activation that could not be undone.
+   */
+  private void syncCurrentVersion() throws Exception {
+    FXManifest current = launcher.getManifest();
+    if (launcher.isCacheComplete(current, cacheDir)) return;
+    log.warning("The cache does not match the current version, synchronizing it again");
+    launcher.syncFiles(
+        current,
+        cacheDir,
+        null,
+        progress -> log.fine(String.format("Synchronizing: %d%%", (int) (progress * 100))));
+  }
+
+  private void startApplication() throws Exception {
+    Thread thread = Thread.currentThread();
+    ClassLoader context = thread.getContextClassLoader();
+    ClassLoader classLoader;
+    try {
+      classLoader = launcher.createClassLoader(cacheDir);
+    } finally {
+      // the class loader belongs to the thread of the application only
+      thread.setContextClassLoader(context);
+    }
+    Class<?> loaded = classLoader.loadClass(launcher.getManifest().launchClass);
+    Method main = loaded.getMethod("main", String[].class);
+    String[] args = launcher.getDownstreamParameters().getArgs();
+
+    Thread started =
+        new Thread(
+            () -> {
+              try {
+                main.invoke(null, (Object) args);
+              } catch (InvocationTargetException e) {
+                if (!(e.getCause() instanceof InterruptedException))
+                  log.log(Level.SEVERE, "The application failed", e.getCause());
+              } catch (ReflectiveOperationException e) {
+                log.log(Level.SEVERE, "Unable to start the application", e);
+              }
+            },
+            "FXLauncher-App");
+    started.setContextClassLoader(classLoader);
+    started.start();
+    appClass = loaded;
+    mainThread = started;
+  }
+
+  private void stopApplication() {
+    if (mainThread == null) return;
+    Method stop = stopMethod(appClass);
+    if (stop != null) {
+      try {
+        stop.invoke(null);
+      } catch (ReflectiveOperationException e) {
+        log.log(Level.WARNING, "The application failed to stop", e);
+      }
+    } else {
+      log.warning(
+          String.format("%s declares no static %s(), interrupting it", appClass, STOP_METHOD));
+      mainThread.interrupt();
+    }
+
+    boolean interrupted = false;
+    try {
+      mainThread.join(STOP_TIMEOUT);
+    } catch (InterruptedException e) {
+      interrupted = true;
+    }
+    if (mainThread.isAlive()) {
+      log.warning(String.format("%s is still running after %s()", appClass, STOP_METHOD));
+      mainThread.interrupt();
+    }
+
+    ClassLoader classLoader = appClass.getClassLoader();
+    if (classLoader instanceof Closeable) {
+      try {
+        ((Closeable) classLoader).close();
+      } catch (IOException e) {
+        log.log(Level.FINE, "Unable to close the class loader of the application", e);
+      }
+    }
+    appClass = null;
+    mainThread = null;
+    if (interrupted) Thread.currentThread().interrupt();
+  }
+
+  private static Method stopMethod(Class<?> appClass) {
+    try {
+      Method stop = appClass.getMethod(STOP_METHOD);
+      return Modifier.isStatic(stop.getModifiers()) ? stop : null;
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package fxlauncher.config;
 
 import static fxlauncher.config.LauncherOption.CACHE_DIR;
+import static fxlauncher.config.LauncherOption.DOWNLOAD_THREADS;
 import static fxlauncher.testutils.ReflectionTools.setCurrentOS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -8,12 +9,15 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import fxlauncher.except.FXLauncherConfigException;
 import fxlauncher.model.GenericPathLabel;
 import fxlauncher.model.OS;
+import fxlauncher.model.lifecycle.Lifecycle;
+import fxlauncher.model.lifecycle.LifecyclePhase;
 
 @DisplayName("LauncherConfigTest")
 public class LauncherConfigTest extends LauncherConfigTestHarness {
@@ -66,4 +70,21 @@ public class LauncherConfigTest extends LauncherConfigTestHarness {
     assertTrue(opt.isSet());
     assertEquals("true", actual);
   }
+
+  @DisplayName("A launcher's own configuration is kept apart from the shared one")
+  @Test
+  void testOwnConfiguration() {
+    Lifecycle lifecycle = new Lifecycle();
+    lifecycle.setCurrent(LifecyclePhase.PARSE_CLI_ARGS);
+    LauncherConfig config = new LauncherConfig(lifecycle);
+
+    config.set(DOWNLOAD_THREADS, "8");
+
+    assertEquals("8", config.get(DOWNLOAD_THREADS));
+    assertEquals(LifecyclePhase.PARSE_CLI_ARGS, config.getSetDuring(DOWNLOAD_THREADS));
+    assertEquals(DOWNLOAD_THREADS.getDefault(), LauncherConfig.getOption(DOWNLOAD_THREADS));
+    assertFalse(DOWNLOAD_THREADS.isSet());
+    assertEquals(
+        DOWNLOAD_THREADS.getDefault(), new LauncherConfig(lifecycle).get(DOWNLOAD_THREADS));
+  }
 }
@@ -1,19 +1,32 @@
 package fxlauncher.config;
 
 import static fxlauncher.config.LauncherOption.ACCEPT_DOWNGRADE;
+import static fxlauncher.config.LauncherOption.APP_CDS;
 import static fxlauncher.config.LauncherOption.ARTIFACTS_REPO_URL;
+import static fxlauncher.config.LauncherOption.ARTIFACT_STORE;
+import static fxlauncher.config.LauncherOption.BACKGROUND_UPDATE;
 import static fxlauncher.config.LauncherOption.CACHE_DIR;
+import static fxlauncher.config.LauncherOption.CLASS_TRACE;
+import static fxlauncher.config.LauncherOption.CLIENT_ID;
 import static fxlauncher.config.LauncherOption.CONFIG_FILE;
+import static fxlauncher.config.LauncherOption.DAEMON;
+import static fxlauncher.config.LauncherOption.DOWNLOAD_THREADS;
 import static fxlauncher.config.LauncherOption.HEADLESS;
+import static fxlauncher.config.LauncherOption.HEDGE_PERCENTILE;
 import static fxlauncher.config.LauncherOption.IGNORE_SSL;
 import static fxlauncher.config.LauncherOption.LINGERING_UPDATE_SCREEN;
 import static fxlauncher.config.LauncherOption.LOG_FILE;
 import static fxlauncher.config.LauncherOption.MANIFEST_FILE;
 import static fxlauncher.config.LauncherOption.MANIFEST_URL;
+import static fxlauncher.config.LauncherOption.MIRRORS;
 import static fxlauncher.config.LauncherOption.OFFLINE;
 import static fxlauncher.config.LauncherOption.OVERRIDES_URL;
+import static fxlauncher.config.LauncherOption.POLL_INTERVAL;
 import static fxlauncher.config.LauncherOption.PRELOAD_NATIVE_LIBS;
+import static fxlauncher.config.LauncherOption.STARTUP_TRACE;
 import static fxlauncher.config.LauncherOption.STOP_ON_UPDATE_ERROR;
+import static fxlauncher.config.LauncherOption.UPDATE_JITTER;
+import static fxlauncher.config.LauncherOption.VERIFY_CACHE;
 import static fxlauncher.config.LauncherOption.WHATS_NEW_URL;
 import static fxlauncher.model.GenericPathLabel.ALLUSERS;
 import static fxlauncher.model.GenericPathLabel.USERLIB;
@@ -87,6 +100,19 @@ public class LauncherConfigTestHarness {
           put(HEADLESS, asSet("true", "false"));
           put(WHATS_NEW_URL, asSet("http://some.url.for/whats-new.file"));
           put(LINGERING_UPDATE_SCREEN, asSet("true", "false"));
+          put(DOWNLOAD_THREADS, asSet("1", "16"));
+          put(VERIFY_CACHE, asSet("true", "false"));
+          put(ARTIFACT_STORE, asSet("./non-default/store"));
+          put(BACKGROUND_UPDATE, asSet("true", "false"));
+          put(APP_CDS, asSet("true", "false"));
+          put(CLASS_TRACE, asSet("0", "1", "30"));
+          put(STARTUP_TRACE, asSet("true", "false"));
+          put(MIRRORS, asSet("http://mirror.one/app,https://mirror.two/app"));
+          put(HEDGE_PERCENTILE, asSet("50", "99"));
+          put(DAEMON, asSet("true", "false"));
+          put(POLL_INTERVAL, asSet("60", "3600"));
+          put(UPDATE_JITTER, asSet("0", "1", "600"));
+          put(CLIENT_ID, asSet("workstation-17"));
         }
       };
 
@@ -183,6 +209,12 @@ public class LauncherConfigTestHarness {
 
   private static final Set<String> BLANK_SET = generateSet("", null);
 
+  private static final Set<String> NOT_A_POSITIVE_INT_SET =
+      generateSet("", null, "0", "-4", "four", "2.5");
+
+  private static final Set<String> NOT_A_NON_NEGATIVE_INT_SET =
+      generateSet("", null, "-4", "four", "2.5");
+
   // treating null and the empty string as implicitly true
   private static final Set<String> NOT_A_BOOL_SET =
       generateSet("https://this.isnt/a/bool", "Scooby-Doo");
@@ -206,6 +238,19 @@ public class LauncherConfigTestHarness {
           put(HEADLESS, NOT_A_BOOL_SET);
           put(WHATS_NEW_URL, NOT_A_URL_SET);
           put(LINGERING_UPDATE_SCREEN, NOT_A_BOOL_SET);
+          put(DOWNLOAD_THREADS, NOT_A_POSITIVE_INT_SET);
+          put(VERIFY_CACHE, NOT_A_BOOL_SET);
+          put(ARTIFACT_STORE, BLANK_SET);
+          put(BACKGROUND_UPDATE, NOT_A_BOOL_SET);
+          put(APP_CDS, NOT_A_BOOL_SET);
+          put(CLASS_TRACE, NOT_A_NON_NEGATIVE_INT_SET);
+          put(STARTUP_TRACE, NOT_A_BOOL_SET);
+          put(MIRRORS, BLANK_SET);
+          put(HEDGE_PERCENTILE, NOT_A_POSITIVE_INT_SET);
+          put(DAEMON, NOT_A_BOOL_SET);
+          put(POLL_INTERVAL, NOT_A_POSITIVE_INT_SET);
+          put(UPDATE_JITTER, NOT_A_NON_NEGATIVE_INT_SET);
+          put(CLIENT_ID, BLANK_SET);
         }
       };
 
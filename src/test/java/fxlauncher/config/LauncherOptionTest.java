@@ -14,6 +14,8 @@ import static java.util.stream.Collectors.toSet;
 import static org.apache.commons.collections4.SetUtils.difference;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Set;
@@ -72,6 +74,18 @@ public class LauncherOptionTest extends LauncherOptionTestHarness {
 
 			assertEquals(presetOpts, LauncherOption.getSet());
 		}
+
+		@DisplayName("'forLabel()' returns null for strings that are not a label")
+		@Test
+		void forLabelUnknownTest() {
+			assertNull(LauncherOption.forLabel(""));
+			assertNull(LauncherOption.forLabel("unknown"));
+			assertNull(LauncherOption.forLabel("cache-di"));
+			assertNull(LauncherOption.forLabel("cache-dirs"));
+			assertNull(LauncherOption.forLabel("Cache-Dir"));
+			assertNull(LauncherOption.forLabel("--cache-dir=x", 0, 11));
+			assertSame(CACHE_DIR, LauncherOption.forLabel("--cache-dir=x", 2, 11));
+		}
 	}
 
 	@DisplayName("Instance method tests: ")
@@ -136,6 +150,22 @@ public class LauncherOptionTest extends LauncherOptionTestHarness {
 			assertTrue(opt.getMatcher(matchString).matches());
 		}
 
+		@DisplayName("'forLabel()'...")
+		@ParameterizedTest(name = "finds LauncherOption {0} by its label, alone or within an argument")
+		@EnumSource(LauncherOption.class)
+		void forLabelTest(LauncherOption opt) {
+			String label = opt.getLabel();
+			assertSame(opt, LauncherOption.forLabel(label));
+			assertSame(opt, LauncherOption.forLabel("--" + label + "=value", 2, 2 + label.length()));
+		}
+
+		@DisplayName("'hasArg()'...")
+		@ParameterizedTest(name = "tells whether LauncherOption {0} takes a value")
+		@EnumSource(LauncherOption.class)
+		void hasArgTest(LauncherOption opt) {
+			assertEquals(matcherMap.get(opt).contains("="), opt.hasArg());
+		}
+
 		@DisplayName("'getResolver()'...")
 		@ParameterizedTest(name = "returns the appropriate Resolver for LauncherOption {0}")
 		@EnumSource(LauncherOption.class)
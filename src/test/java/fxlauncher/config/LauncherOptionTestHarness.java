@@ -1,19 +1,32 @@
 package fxlauncher.config;
 
 import static fxlauncher.config.LauncherOption.ACCEPT_DOWNGRADE;
+import static fxlauncher.config.LauncherOption.APP_CDS;
 import static fxlauncher.config.LauncherOption.ARTIFACTS_REPO_URL;
+import static fxlauncher.config.LauncherOption.ARTIFACT_STORE;
+import static fxlauncher.config.LauncherOption.BACKGROUND_UPDATE;
 import static fxlauncher.config.LauncherOption.CACHE_DIR;
+import static fxlauncher.config.LauncherOption.CLASS_TRACE;
+import static fxlauncher.config.LauncherOption.CLIENT_ID;
 import static fxlauncher.config.LauncherOption.CONFIG_FILE;
+import static fxlauncher.config.LauncherOption.DAEMON;
+import static fxlauncher.config.LauncherOption.DOWNLOAD_THREADS;
 import static fxlauncher.config.LauncherOption.HEADLESS;
+import static fxlauncher.config.LauncherOption.HEDGE_PERCENTILE;
 import static fxlauncher.config.LauncherOption.IGNORE_SSL;
 import static fxlauncher.config.LauncherOption.LINGERING_UPDATE_SCREEN;
 import static fxlauncher.config.LauncherOption.LOG_FILE;
 import static fxlauncher.config.LauncherOption.MANIFEST_FILE;
 import static fxlauncher.config.LauncherOption.MANIFEST_URL;
+import static fxlauncher.config.LauncherOption.MIRRORS;
 import static fxlauncher.config.LauncherOption.OFFLINE;
 import static fxlauncher.config.LauncherOption.OVERRIDES_URL;
+import static fxlauncher.config.LauncherOption.POLL_INTERVAL;
 import static fxlauncher.config.LauncherOption.PRELOAD_NATIVE_LIBS;
+import static fxlauncher.config.LauncherOption.STARTUP_TRACE;
 import static fxlauncher.config.LauncherOption.STOP_ON_UPDATE_ERROR;
+import static fxlauncher.config.LauncherOption.UPDATE_JITTER;
+import static fxlauncher.config.LauncherOption.VERIFY_CACHE;
 import static fxlauncher.config.LauncherOption.WHATS_NEW_URL;
 import static fxlauncher.model.lifecycle.LifecyclePhase.STARTUP;
 import static java.util.stream.Collectors.toSet;
@@ -53,6 +66,19 @@ public class LauncherOptionTestHarness {
           put(HEADLESS, "headless");
           put(WHATS_NEW_URL, "whats-new-url");
           put(LINGERING_UPDATE_SCREEN, "lingering-update-screen");
+          put(DOWNLOAD_THREADS, "download-threads");
+          put(VERIFY_CACHE, "verify-cache");
+          put(ARTIFACT_STORE, "artifact-store");
+          put(BACKGROUND_UPDATE, "background-update");
+          put(APP_CDS, "app-cds");
+          put(CLASS_TRACE, "class-trace");
+          put(STARTUP_TRACE, "startup-trace");
+          put(MIRRORS, "mirrors");
+          put(HEDGE_PERCENTILE, "hedge-percentile");
+          put(DAEMON, "daemon");
+          put(POLL_INTERVAL, "poll-interval");
+          put(UPDATE_JITTER, "update-jitter");
+          put(CLIENT_ID, "client-id");
         }
       };
 
@@ -74,6 +100,19 @@ public class LauncherOptionTestHarness {
           put(HEADLESS, Boolean.FALSE.toString());
           put(WHATS_NEW_URL, null);
           put(LINGERING_UPDATE_SCREEN, Boolean.TRUE.toString());
+          put(DOWNLOAD_THREADS, "4");
+          put(VERIFY_CACHE, Boolean.FALSE.toString());
+          put(ARTIFACT_STORE, null);
+          put(BACKGROUND_UPDATE, Boolean.FALSE.toString());
+          put(APP_CDS, Boolean.FALSE.toString());
+          put(CLASS_TRACE, "10");
+          put(STARTUP_TRACE, Boolean.FALSE.toString());
+          put(MIRRORS, null);
+          put(HEDGE_PERCENTILE, "95");
+          put(DAEMON, Boolean.FALSE.toString());
+          put(POLL_INTERVAL, "300");
+          put(UPDATE_JITTER, "60");
+          put(CLIENT_ID, null);
         }
       };
 
@@ -95,12 +134,26 @@ public class LauncherOptionTestHarness {
           put(HEADLESS, "--headless");
           put(WHATS_NEW_URL, "--whats-new-url=https://some-url");
           put(LINGERING_UPDATE_SCREEN, "--lingering-update-screen");
+          put(DOWNLOAD_THREADS, "--download-threads=8");
+          put(VERIFY_CACHE, "--verify-cache");
+          put(ARTIFACT_STORE, "--artifact-store=somedir");
+          put(BACKGROUND_UPDATE, "--background-update");
+          put(APP_CDS, "--app-cds");
+          put(CLASS_TRACE, "--class-trace=5");
+          put(STARTUP_TRACE, "--startup-trace");
+          put(MIRRORS, "--mirrors=http://mirror.one/app,http://mirror.two/app");
+          put(HEDGE_PERCENTILE, "--hedge-percentile=90");
+          put(DAEMON, "--daemon");
+          put(POLL_INTERVAL, "--poll-interval=60");
+          put(UPDATE_JITTER, "--update-jitter=30");
+          put(CLIENT_ID, "--client-id=workstation-17");
         }
       };
 
   protected static final Resolver getExpectedResolver(LauncherOption opt) {
     switch (opt) {
       case CACHE_DIR:
+      case ARTIFACT_STORE:
         return Resolver.CACHE_DIR;
       case IGNORE_SSL:
       case OFFLINE:
@@ -108,6 +161,11 @@ public class LauncherOptionTestHarness {
       case ACCEPT_DOWNGRADE:
       case HEADLESS:
       case LINGERING_UPDATE_SCREEN:
+      case VERIFY_CACHE:
+      case BACKGROUND_UPDATE:
+      case APP_CDS:
+      case STARTUP_TRACE:
+      case DAEMON:
         return Resolver.BOOL;
       default:
         return Resolver.DEFAULT;
@@ -127,7 +185,19 @@ public class LauncherOptionTestHarness {
       case ACCEPT_DOWNGRADE:
       case HEADLESS:
       case LINGERING_UPDATE_SCREEN:
+      case VERIFY_CACHE:
+      case BACKGROUND_UPDATE:
+      case APP_CDS:
+      case STARTUP_TRACE:
+      case DAEMON:
         return Validator.BOOL;
+      case DOWNLOAD_THREADS:
+      case HEDGE_PERCENTILE:
+      case POLL_INTERVAL:
+        return Validator.POSITIVE_INT;
+      case CLASS_TRACE:
+      case UPDATE_JITTER:
+        return Validator.NON_NEGATIVE_INT;
       default:
         return Validator.DEFAULT;
     }
@@ -136,7 +206,7 @@ public class LauncherOptionTestHarness {
   protected static Set<String> expectedLabels = labelMap.values().stream().collect(toSet());
 
   private static final Random random = new Random();
-  private static final int maxIndex = LauncherOption.values().length - 1;
+  private static final int maxIndex = LifecyclePhase.values().length - 1;
 
   protected LifecyclePhase getRandomNonStartupPhase() {
     int index = random.nextInt(maxIndex - 1) + 1;
@@ -79,4 +79,44 @@ public class ValidatorTest {
       assertFalse(Validator.URL.test(input));
     }
   }
+
+  @Nested
+  @DisplayName("Validator.POSITIVE_INT...")
+  class PositiveIntValidator {
+
+    @DisplayName("returns true for a positive whole number")
+    @ParameterizedTest(name = "returns true for \"{0}\"")
+    @ValueSource(strings = {"1", "8", " 32 "})
+    public void returnsTrue(String input) {
+      assertTrue(Validator.POSITIVE_INT.test(input));
+    }
+
+    @DisplayName("returns false for anything else")
+    @ParameterizedTest(name = "returns false for \"{0}\"")
+    @ValueSource(strings = {"", "null", "0", "-1", "1.5", "Some string"})
+    public void returnsFalse(String input) {
+      input = input.equals("null") ? null : input;
+      assertFalse(Validator.POSITIVE_INT.test(input));
+    }
+  }
+
+  @Nested
+  @DisplayName("Validator.NON_NEGATIVE_INT...")
+  class NonNegativeIntValidator {
+
+    @DisplayName("returns true for zero or a positive whole number")
+    @ParameterizedTest(name = "returns true for \"{0}\"")
+    @ValueSource(strings = {"0", "1", " 32 "})
+    public void returnsTrue(String input) {
+      assertTrue(Validator.NON_NEGATIVE_INT.test(input));
+    }
+
+    @DisplayName("returns false for anything else")
+    @ParameterizedTest(name = "returns false for \"{0}\"")
+    @ValueSource(strings = {"", "null", "-1", "1.5", "Some string"})
+    public void returnsFalse(String input) {
+      input = input.equals("null") ? null : input;
+      assertFalse(Validator.NON_NEGATIVE_INT.test(input));
+    }
+  }
 }
@@ -14,6 +14,12 @@ import static fxlauncher.config.LauncherOption.OVERRIDES_URL;
 import static fxlauncher.config.LauncherOption.PRELOAD_NATIVE_LIBS;
 import static fxlauncher.config.LauncherOption.STOP_ON_UPDATE_ERROR;
 import static fxlauncher.config.LauncherOption.WHATS_NEW_URL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -77,4 +83,49 @@ public class ArgsIngesterTest extends ArgsIngesterTestHarness {
 	verifyExpectedIngestOpCalls();
 	assertExpectedDownstreamParams();
     }
+
+    @DisplayName("Sends arguments that only resemble launcher options downstream")
+    @Test
+    public void nearMissesTest() {
+	setArgs("--offline=true", "--cache-dir", "--cache-dir=", "-offline", "--Offline", "--log-file=a=b");
+
+	expectIngestOpCalledWith(LOG_FILE, "a=b");
+
+	expectDownstreamNamed("offline", "true");
+	expectDownstreamUnnamed("--cache-dir");
+	expectDownstreamUnnamed("--cache-dir=");
+	expectDownstreamUnnamed("-offline");
+	expectDownstreamUnnamed("--Offline");
+
+	ingester.ingest();
+
+	verifyExpectedIngestOpCalls();
+	verifyNoMoreInteractions(ingestOp);
+	assertExpectedDownstreamParams();
+    }
+
+    @DisplayName("Picks the launcher options out of hundreds of downstream arguments, in order")
+    @Test
+    public void manyDownstreamArgsTest() {
+	List<String> args = new ArrayList<>();
+	List<String> downstream = new ArrayList<>();
+	for (int i = 0; i < 500; i++) {
+	    String arg = i % 2 == 0 ? "--app-option-" + i + "=" + i : "document-" + i + ".txt";
+	    args.add(arg);
+	    downstream.add(arg);
+	    if (i % 50 == 0) args.add(ALL_ARGS[i / 50]);
+	}
+	setArgs(args.toArray(new String[0]));
+
+	expectIngestOpCalledWith(CONFIG_FILE, "test-config-file");
+	expectIngestOpCalledWith(CACHE_DIR, "test-cache-dir");
+	expectIngestOpCalledWith(OFFLINE, null);
+
+	ingester.ingest();
+
+	verifyExpectedIngestOpCalls();
+	assertEquals(downstream, ingester.downstreamParams.getRaw());
+	assertEquals(Arrays.asList("document-1.txt", "document-3.txt"),
+		ingester.downstreamParams.getUnnamed().subList(0, 2));
+    }
 }
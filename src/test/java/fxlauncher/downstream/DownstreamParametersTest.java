@@ -119,4 +119,20 @@ public class DownstreamParametersTest {
 		assertEquals(params.getRaw(), params2.getRaw());
 		assertArrayEquals(params.getArgs(), params2.getArgs());
 	}
+
+	@DisplayName("Named parameters split at the last '=' that is followed by a value")
+	@Test
+	void testNamedParameterSplitting() {
+		params.merge("--key=a=b", false);
+		params.merge("--other=b=", false);
+		params.merge("prefix--third=c", false);
+		params.merge("--empty=", false);
+		params.merge("--=novalue", false);
+
+		assertEquals("b", params.getNamed().get("key=a"));
+		assertEquals("b=", params.getNamed().get("other"));
+		assertEquals("c", params.getNamed().get("third"));
+		assertEquals(3, params.getNamed().size());
+		assertEquals(Arrays.asList("--empty=", "--=novalue"), params.getUnnamed());
+	}
 }
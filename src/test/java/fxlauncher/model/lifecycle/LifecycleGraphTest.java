@@ -0,0 +1,198 @@
+package fxlauncher.model.lifecycle;
+
+import static fxlauncher.model.lifecycle.LifecyclePhase.APPLICATION_START;
+import static fxlauncher.model.lifecycle.LifecyclePhase.CREATE_APPLICATION;
+import static fxlauncher.model.lifecycle.LifecyclePhase.CREATE_CLASS_LOADER;
+import static fxlauncher.model.lifecycle.LifecyclePhase.FETCH_REMOTE_MANIFEST;
+import static fxlauncher.model.lifecycle.LifecyclePhase.LOAD_SYSTEM_LIBS;
+import static fxlauncher.model.lifecycle.LifecyclePhase.PREPARE_APPLICATION_ENVIRONMENT;
+import static fxlauncher.model.lifecycle.LifecyclePhase.STARTUP;
+import static fxlauncher.model.lifecycle.LifecyclePhase.SYNC_ARTIFACTS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class LifecycleGraphTest {
+
+	@ParameterizedTest(name = "Phase {0} only depends on phases declared before it")
+	@EnumSource(LifecyclePhase.class)
+	@DisplayName("Test declaration order is a valid run order")
+	public void testDependenciesAreDeclaredFirst(LifecyclePhase phase) {
+		phase.getDependencies().forEach(it -> assertTrue(it.ordinal() < phase.ordinal()));
+	}
+
+	@Test
+	@DisplayName("Test phases run after their dependencies")
+	public void testRunsAfterDependencies() throws Exception {
+		Queue<LifecyclePhase> ran = new ConcurrentLinkedQueue<>();
+		LifecycleGraph graph = new LifecycleGraph();
+		for (LifecyclePhase phase : LifecyclePhase.values())
+			graph.task(phase, () -> ran.add(phase));
+
+		graph.run();
+
+		List<LifecyclePhase> order = Arrays.asList(ran.toArray(new LifecyclePhase[0]));
+		assertEquals(LifecyclePhase.values().length, order.size());
+		for (LifecyclePhase phase : LifecyclePhase.values())
+			for (LifecyclePhase dependency : phase.getDependencies())
+				assertTrue(order.indexOf(dependency) < order.indexOf(phase));
+	}
+
+	@Test
+	@DisplayName("Test independent phases run concurrently")
+	public void testRunsIndependentPhasesConcurrently() throws Exception {
+		CountDownLatch bothRunning = new CountDownLatch(2);
+		LifecycleGraph.Task meet = () -> {
+			bothRunning.countDown();
+			if (!bothRunning.await(10, TimeUnit.SECONDS))
+				throw new IllegalStateException("ran one after the other");
+		};
+
+		new LifecycleGraph().task(SYNC_ARTIFACTS, meet).task(CREATE_CLASS_LOADER, meet).run();
+	}
+
+	@Test
+	@DisplayName("Test listeners are notified in declaration order")
+	public void testNotifiesInOrder() throws Exception {
+		Queue<LifecyclePhase> announced = new ConcurrentLinkedQueue<>();
+		for (LifecyclePhase phase : LifecyclePhase.values())
+			phase.registerEnterListener(() -> announced.add(LifecyclePhase.current));
+
+		// finishes last, but is declared before the phases that overtake it
+		new LifecycleGraph().task(SYNC_ARTIFACTS, () -> Thread.sleep(100)).run();
+
+		assertEquals(Arrays.asList(LifecyclePhase.values()), Arrays.asList(announced.toArray()));
+	}
+
+	@Test
+	@DisplayName("Test a failure stops the dependent phases only")
+	public void testFailureStopsDependents() {
+		IOException failure = new IOException("unreachable");
+		AtomicBoolean created = new AtomicBoolean();
+		AtomicBoolean indexed = new AtomicBoolean();
+		AtomicBoolean loadedLibs = new AtomicBoolean();
+		LifecycleGraph graph = new LifecycleGraph()
+				.task(SYNC_ARTIFACTS, () -> {
+					throw failure;
+				})
+				.task(CREATE_CLASS_LOADER, () -> indexed.set(true))
+				.task(LOAD_SYSTEM_LIBS, () -> loadedLibs.set(true))
+				.task(CREATE_APPLICATION, () -> created.set(true));
+
+		assertSame(failure, assertThrows(IOException.class, graph::run));
+		assertTrue(indexed.get());
+		assertFalse(loadedLibs.get());
+		assertFalse(created.get());
+	}
+
+	@Test
+	@DisplayName("Test work for the caller thread runs on the thread that runs the graph")
+	public void testRunsOnCallerThread() throws Exception {
+		Thread[] ranOn = new Thread[1];
+		LifecycleGraph graph = new LifecycleGraph();
+		graph.task(CREATE_APPLICATION, graph.callerThread(), () -> ranOn[0] = Thread.currentThread());
+
+		graph.run();
+
+		assertSame(Thread.currentThread(), ranOn[0]);
+	}
+
+	@Test
+	@DisplayName("Test the critical path follows the slowest dependencies")
+	public void testCriticalPath() throws Exception {
+		LifecycleGraph graph = new LifecycleGraph()
+				.task(FETCH_REMOTE_MANIFEST, () -> Thread.sleep(20))
+				.task(SYNC_ARTIFACTS, () -> Thread.sleep(200))
+				.task(CREATE_CLASS_LOADER, () -> Thread.sleep(20))
+				.task(PREPARE_APPLICATION_ENVIRONMENT, () -> Thread.sleep(20));
+
+		graph.run();
+
+		List<LifecyclePhase> path = graph.getCriticalPath();
+		assertEquals(STARTUP, path.get(0));
+		assertEquals(APPLICATION_START, path.get(path.size() - 1));
+		assertTrue(path.containsAll(Arrays.asList(FETCH_REMOTE_MANIFEST, SYNC_ARTIFACTS)));
+		assertFalse(path.contains(CREATE_CLASS_LOADER));
+		assertFalse(path.contains(PREPARE_APPLICATION_ENVIRONMENT));
+		assertTrue(graph.describeCriticalPath().contains("SYNC_ARTIFACTS"));
+	}
+
+	@Test
+	@DisplayName("Test listeners receive the timing and failure of every phase")
+	public void testListener() {
+		Queue<LifecyclePhase> started = new ConcurrentLinkedQueue<>();
+		Queue<LifecyclePhase> finished = new ConcurrentLinkedQueue<>();
+		Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+		IOException failure = new IOException("failed");
+		LifecycleGraph graph = new LifecycleGraph()
+				.task(LOAD_SYSTEM_LIBS, () -> {
+					throw failure;
+				})
+				.listener(new LifecycleGraph.Listener() {
+					@Override
+					public void phaseStarted(LifecyclePhase phase) {
+						started.add(phase);
+					}
+
+					@Override
+					public void phaseFinished(LifecyclePhase phase, long startNanos, long endNanos,
+							Throwable error) {
+						assertTrue(endNanos >= startNanos);
+						finished.add(phase);
+						if (error != null)
+							failures.add(error);
+					}
+				});
+
+		assertThrows(IOException.class, graph::run);
+
+		assertTrue(finished.contains(SYNC_ARTIFACTS));
+		assertFalse(started.contains(CREATE_APPLICATION));
+		assertEquals(started.size(), finished.size());
+		assertEquals(Arrays.asList(failure), Arrays.asList(failures.toArray()));
+	}
+
+	@Test
+	@DisplayName("Test extra dependencies on later phases run in dependency order")
+	public void testExtraDependency() throws Exception {
+		Queue<LifecyclePhase> ran = new ConcurrentLinkedQueue<>();
+		new LifecycleGraph()
+				.after(SYNC_ARTIFACTS, PREPARE_APPLICATION_ENVIRONMENT)
+				.task(PREPARE_APPLICATION_ENVIRONMENT, () -> {
+					Thread.sleep(50);
+					ran.add(PREPARE_APPLICATION_ENVIRONMENT);
+				})
+				.task(SYNC_ARTIFACTS, () -> ran.add(SYNC_ARTIFACTS))
+				.run();
+
+		assertEquals(
+				Arrays.asList(PREPARE_APPLICATION_ENVIRONMENT, SYNC_ARTIFACTS),
+				Arrays.asList(ran.toArray()));
+	}
+
+	@Test
+	@DisplayName("Test extra dependencies can not create a cycle")
+	public void testRejectsCycle() {
+		LifecycleGraph graph = new LifecycleGraph();
+
+		assertThrows(
+				IllegalArgumentException.class,
+				() -> graph.after(FETCH_REMOTE_MANIFEST, SYNC_ARTIFACTS));
+	}
+}
@@ -0,0 +1,57 @@
+package fxlauncher.model.lifecycle;
+
+import static fxlauncher.model.lifecycle.LifecyclePhase.STARTUP;
+import static fxlauncher.model.lifecycle.LifecyclePhase.SYNC_ARTIFACTS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LifecycleTest {
+
+	@Test
+	@DisplayName("Lifecycles of different launchers move independently")
+	public void testIndependentLifecycles() {
+		LifecyclePhase.setCurrent(STARTUP);
+		Lifecycle one = new Lifecycle();
+		Lifecycle two = new Lifecycle();
+
+		one.setCurrent(SYNC_ARTIFACTS);
+
+		assertEquals(SYNC_ARTIFACTS, one.getCurrent());
+		assertEquals(STARTUP, two.getCurrent());
+		assertEquals(STARTUP, LifecyclePhase.current);
+	}
+
+	@Test
+	@DisplayName("Listeners are only notified by the lifecycle they registered with")
+	public void testListenersPerLifecycle() {
+		Lifecycle one = new Lifecycle();
+		Lifecycle two = new Lifecycle();
+		LifecycleListener entered = mock(LifecycleListener.class);
+		LifecycleListener exited = mock(LifecycleListener.class);
+		one.registerEnterListener(SYNC_ARTIFACTS, entered);
+		one.registerExitListener(STARTUP, exited);
+
+		two.setCurrent(SYNC_ARTIFACTS);
+		verify(entered, never()).notifyListener();
+
+		one.setCurrent(SYNC_ARTIFACTS);
+		verify(entered, times(1)).notifyListener();
+		verify(exited, times(1)).notifyListener();
+	}
+
+	@Test
+	@DisplayName("The global lifecycle is the one of the static phase methods")
+	public void testGlobalLifecycle() {
+		Lifecycle.global().setCurrent(SYNC_ARTIFACTS);
+		assertEquals(SYNC_ARTIFACTS, LifecyclePhase.current);
+
+		LifecyclePhase.setCurrent(STARTUP);
+		assertEquals(STARTUP, Lifecycle.global().getCurrent());
+	}
+}
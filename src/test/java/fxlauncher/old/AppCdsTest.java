@@ -0,0 +1,172 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AppCdsTest {
+
+  @TempDir Path cacheDir;
+
+  private FXManifest manifest;
+  private String classpath;
+
+  @BeforeEach
+  void createApplication() throws IOException {
+    Path jar = cacheDir.resolve("lib/app.jar");
+    TestJars.write(jar, Collections.singletonList("com.example.Main"), Collections.emptyMap());
+
+    manifest = new FXManifest();
+    manifest.uri = URI.create("http://fxldemo.tornado.no/");
+    manifest.launchClass = "com.example.Main";
+    manifest.files.add(new LibraryFile(cacheDir, jar));
+    classpath = jar.toAbsolutePath().toString();
+  }
+
+  @DisplayName("Derives a new archive name when a file changes")
+  @Test
+  void keysArchiveByChecksums() {
+    String key = new AppCds(cacheDir, manifest, classpath).getKey();
+    assertEquals(key, new AppCds(cacheDir, manifest, classpath).getKey());
+
+    manifest.files.get(0).checksum++;
+
+    assertNotEquals(key, new AppCds(cacheDir, manifest, classpath).getKey());
+  }
+
+  @DisplayName("Records a class list when there is no archive")
+  @Test
+  void recordsClassList() {
+    AppCds cds = new AppCds(cacheDir, manifest, classpath);
+
+    List<String> options = cds.jvmOptions();
+
+    assertEquals(
+        Collections.singletonList("-XX:DumpLoadedClassList=" + cds.classList().toAbsolutePath()),
+        options);
+  }
+
+  @DisplayName("Removes the class lists and archives of earlier files")
+  @Test
+  void deletesStaleArchives() throws IOException {
+    AppCds old = new AppCds(cacheDir, manifest, classpath);
+    old.jvmOptions();
+    Files.write(old.classList(), new byte[0]);
+    Files.write(old.archive(), new byte[0]);
+    manifest.files.get(0).checksum++;
+    AppCds current = new AppCds(cacheDir, manifest, classpath);
+    current.dumpArchive();
+
+    current.jvmOptions();
+
+    assertFalse(Files.exists(old.classList()));
+    assertFalse(Files.exists(old.archive()));
+  }
+
+  @DisplayName("Dumps the recorded class list into an archive the next JVM can map")
+  @Test
+  void dumpsAndUsesArchive() throws Exception {
+    assumeTrue(AppCds.isSupported());
+    AppCds cds = new AppCds(cacheDir, manifest, classpath);
+    cds.jvmOptions();
+    Files.write(
+        cds.classList(),
+        "java/lang/Object\ncom/example/Main\n".getBytes(StandardCharsets.UTF_8));
+
+    List<String> options = cds.jvmOptions();
+
+    assertTrue(Files.exists(cds.archive()));
+    assertTrue(options.contains("-XX:SharedArchiveFile=" + cds.archive().toAbsolutePath()));
+    List<String> command = new ArrayList<>();
+    command.add(AppCds.javaExecutable());
+    command.add("-Xshare:on");
+    command.add("-XX:SharedArchiveFile=" + cds.archive().toAbsolutePath());
+    command.add("-cp");
+    command.add(classpath);
+    command.add("-version");
+    Process jvm = new ProcessBuilder(command).redirectErrorStream(true).start();
+    drain(jvm);
+    assertEquals(0, jvm.waitFor());
+  }
+
+  @DisplayName("Runs without an archive once dumping failed")
+  @Test
+  void givesUpAfterFailedDump() throws IOException {
+    assumeTrue(AppCds.isSupported());
+    AppCds cds =
+        new AppCds(cacheDir, manifest, classpath) {
+          @Override
+          List<String> dumpCommand(Path target) {
+            // the dump JVM does not start
+            return Arrays.asList(AppCds.javaExecutable(), "-XX:+NoSuchOption");
+          }
+        };
+    cds.jvmOptions();
+    Files.write(cds.classList(), "java/lang/Object\n".getBytes(StandardCharsets.UTF_8));
+
+    assertTrue(cds.jvmOptions().isEmpty());
+    assertFalse(Files.exists(cds.archive()));
+    assertTrue(cds.jvmOptions().isEmpty());
+  }
+
+  @DisplayName("Dumps the archive once for launchers that share the cache dir")
+  @Test
+  void dumpsOnceForConcurrentLaunchers() throws Exception {
+    assumeTrue(AppCds.isSupported());
+    AtomicInteger dumps = new AtomicInteger();
+    List<AppCds> launchers = new ArrayList<>();
+    for (int i = 0; i < 2; i++)
+      launchers.add(
+          new AppCds(cacheDir, manifest, classpath) {
+            @Override
+            List<String> dumpCommand(Path target) {
+              dumps.incrementAndGet();
+              return super.dumpCommand(target);
+            }
+          });
+    launchers.get(0).jvmOptions();
+    Files.write(
+        launchers.get(0).classList(),
+        "java/lang/Object\ncom/example/Main\n".getBytes(StandardCharsets.UTF_8));
+
+    CompletableFuture.allOf(
+            launchers
+                .stream()
+                .map(it -> CompletableFuture.runAsync(it::dumpArchive))
+                .toArray(CompletableFuture<?>[]::new))
+        .get();
+
+    assertEquals(1, dumps.get());
+    assertTrue(Files.exists(launchers.get(0).archive()));
+    try (Stream<Path> files = Files.list(launchers.get(0).archive().getParent())) {
+      assertFalse(files.anyMatch(it -> it.toString().endsWith(".tmp")));
+    }
+  }
+
+  private static void drain(Process process) throws IOException {
+    byte[] buf = new byte[8192];
+    while (process.getInputStream().read(buf) > -1) {
+      // discard
+    }
+  }
+}
@@ -0,0 +1,455 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class ArtifactDownloaderTest {
+
+  @TempDir Path tempDir;
+
+  private Path repo;
+  private Path cacheDir;
+
+  private final List<LibraryFile> files = new ArrayList<>();
+  private final List<Double> reported = new ArrayList<>();
+  private long totalBytes;
+
+  @BeforeEach
+  void createRepository() throws IOException {
+    repo = Files.createDirectory(tempDir.resolve("repo"));
+    cacheDir = Files.createDirectory(tempDir.resolve("cache"));
+
+    Random random = new Random(42);
+    for (int i = 0; i < 12; i++) {
+      byte[] content = new byte[20_000 + random.nextInt(200_000)];
+      random.nextBytes(content);
+      Path file = repo.resolve("lib").resolve(String.format("artifact-%d.jar", i));
+      Files.createDirectories(file.getParent());
+      Files.write(file, content);
+      files.add(new LibraryFile(repo, file));
+      totalBytes += content.length;
+    }
+  }
+
+  @DisplayName("Downloads every file with a bounded worker pool and reports aggregate progress")
+  @Test
+  void downloadsAllFilesInParallel() throws Exception {
+    DownloadProgress progress = new DownloadProgress(totalBytes, this::recordProgress);
+
+    new ArtifactDownloader(repo.toUri(), cacheDir, progress).downloadAll(files, 4);
+
+    for (LibraryFile lib : files)
+      assertDownloaded(lib);
+    assertEquals(totalBytes, progress.getWritten());
+    assertEquals(1d, reported.get(reported.size() - 1));
+  }
+
+  @DisplayName("Fails fast with the first error when one of the files cannot be downloaded")
+  @Test
+  void failsFastWhenOneFileFails() throws Exception {
+    LibraryFile missing = new LibraryFile();
+    missing.file = "lib/does-not-exist.jar";
+    missing.size = 1L;
+    missing.checksum = 1L;
+    files.add(0, missing);
+
+    DownloadProgress progress = new DownloadProgress(totalBytes, this::recordProgress);
+    ArtifactDownloader downloader = new ArtifactDownloader(repo.toUri(), cacheDir, progress);
+
+    assertThrows(IOException.class, () -> downloader.downloadAll(files, 4));
+  }
+
+  @DisplayName("Resumes a partial file from a file: repository and moves it into place")
+  @Test
+  void resumesPartialFileFromFileRepository() throws Exception {
+    LibraryFile lib = files.get(0);
+    byte[] content = Files.readAllBytes(repo.resolve(lib.file));
+    Path part = stagePart(lib, Arrays.copyOf(content, content.length / 2));
+
+    DownloadProgress progress = new DownloadProgress(lib.size, this::recordProgress);
+    new ArtifactDownloader(repo.toUri(), cacheDir, progress).download(lib);
+
+    assertArrayEquals(content, Files.readAllBytes(cacheDir.resolve(lib.file)));
+    assertFalse(Files.exists(part));
+    assertEquals(lib.size.longValue(), progress.getWritten());
+  }
+
+  @DisplayName("Links files from a file: repository on the same volume instead of copying them")
+  @Test
+  void linksFilesFromLocalRepository() throws Exception {
+    LibraryFile lib = files.get(0);
+
+    DownloadProgress progress = new DownloadProgress(lib.size, this::recordProgress);
+    new ArtifactDownloader(repo.toUri(), cacheDir, progress).download(lib);
+
+    BasicFileAttributes source = readAttributes(repo.resolve(lib.file));
+    BasicFileAttributes cached = readAttributes(cacheDir.resolve(lib.file));
+    assertEquals(source.fileKey(), cached.fileKey());
+    assertEquals(lib.size.longValue(), progress.getWritten());
+  }
+
+  @DisplayName("Resolves UNC style file: uris with a host")
+  @Test
+  void resolvesLocalPaths() {
+    assertEquals(
+        repo.resolve("lib/a.jar"),
+        ArtifactDownloader.localPath(repo.resolve("lib/a.jar").toUri()));
+    assertTrue(
+        ArtifactDownloader.localPath(URI.create("file://server/share/lib/a.jar"))
+            .toString()
+            .replace('\\', '/')
+            .endsWith("share/lib/a.jar"));
+  }
+
+  @DisplayName("Starts over when the staged prefix belongs to other content")
+  @Test
+  void restartsWhenStagedPrefixIsStale() throws Exception {
+    LibraryFile lib = files.get(0);
+    byte[] content = Files.readAllBytes(repo.resolve(lib.file));
+    stagePart(lib, new byte[content.length / 2]);
+
+    DownloadProgress progress = new DownloadProgress(lib.size, this::recordProgress);
+    new ArtifactDownloader(repo.toUri(), cacheDir, progress).download(lib);
+
+    assertArrayEquals(content, Files.readAllBytes(cacheDir.resolve(lib.file)));
+  }
+
+  @DisplayName("Never moves a file with the wrong checksum into place")
+  @Test
+  void rejectsChecksumMismatch() throws Exception {
+    LibraryFile lib = files.get(0);
+    lib.checksum = lib.checksum + 1;
+
+    DownloadProgress progress = new DownloadProgress(lib.size, this::recordProgress);
+    ArtifactDownloader downloader = new ArtifactDownloader(repo.toUri(), cacheDir, progress);
+
+    assertThrows(IOException.class, () -> downloader.download(lib));
+    assertFalse(Files.exists(cacheDir.resolve(lib.file)));
+    assertFalse(Files.exists(cacheDir.resolve(lib.file + ArtifactDownloader.PART_SUFFIX)));
+  }
+
+  @DisplayName("Resumes over http with a Range request")
+  @Test
+  void resumesWithRangeRequest() throws Exception {
+    assertResumesOverHttp(true);
+  }
+
+  @DisplayName("Falls back to a full download when the server ignores the Range header")
+  @Test
+  void fallsBackWhenServerIgnoresRange() throws Exception {
+    assertResumesOverHttp(false);
+  }
+
+  @DisplayName("Applies a published patch to the cached copy of the previous release")
+  @Test
+  void appliesPatchToPreviousVersion() throws Exception {
+    LibraryFile lib = createPatchedRelease();
+    // the patch is all there is to download
+    Files.delete(repo.resolve(lib.file));
+
+    DownloadProgress progress = new DownloadProgress(lib.size, this::recordProgress);
+    new ArtifactDownloader(repo.toUri(), cacheDir, progress).download(lib);
+
+    assertEquals(lib.checksum.longValue(), LibraryFile.checksum(cacheDir.resolve(lib.file)));
+    assertEquals(lib.size.longValue(), progress.getWritten());
+  }
+
+  @DisplayName("Downloads the whole file when no patch applies to the cached copy")
+  @Test
+  void downloadsWholeFileWithoutMatchingPatch() throws Exception {
+    LibraryFile lib = createPatchedRelease();
+    Files.write(cacheDir.resolve(lib.file), new byte[] {1, 2, 3});
+
+    DownloadProgress progress = new DownloadProgress(lib.size, this::recordProgress);
+    new ArtifactDownloader(repo.toUri(), cacheDir, progress).download(lib);
+
+    assertDownloaded(lib);
+  }
+
+  @DisplayName("Downloads the whole file when the patch cannot be applied")
+  @Test
+  void downloadsWholeFileWhenPatchIsCorrupt() throws Exception {
+    LibraryFile lib = createPatchedRelease();
+    Files.write(repo.resolve(lib.patches.get(0).file), new byte[] {1, 2, 3});
+
+    DownloadProgress progress = new DownloadProgress(lib.size, this::recordProgress);
+    new ArtifactDownloader(repo.toUri(), cacheDir, progress).download(lib);
+
+    assertDownloaded(lib);
+    // the bytes of the failed patch are not counted on top of the whole file
+    assertEquals(lib.size.longValue(), progress.getWritten());
+  }
+
+  /**
+   * Publish a new version of lib/app.jar with a patch from the previous version, which is also put
+   * in the cache.
+   */
+  private LibraryFile createPatchedRelease() throws Exception {
+    byte[] previous = Files.readAllBytes(repo.resolve(files.get(0).file));
+    byte[] current = Arrays.copyOf(previous, previous.length + 100);
+    current[previous.length / 2] ^= 1;
+
+    Path previousRelease = tempDir.resolve("previous");
+    Files.createDirectories(previousRelease.resolve("lib"));
+    Files.write(previousRelease.resolve("lib/app.jar"), previous);
+    Files.write(repo.resolve("lib/app.jar"), current);
+    Files.createDirectories(cacheDir.resolve("lib"));
+    Files.write(cacheDir.resolve("lib/app.jar"), previous);
+
+    FXManifest manifest = CreateManifest.create(repo.toUri(), "app.Main", repo, previousRelease);
+    LibraryFile lib =
+        manifest.files.stream().filter(it -> it.file.equals("lib/app.jar")).findFirst().get();
+    assertEquals(1, lib.patches.size());
+    assertTrue(lib.patches.get(0).size < current.length / 10);
+    return lib;
+  }
+
+  @DisplayName("Retries a file whose bytes were damaged in transit, and records it as verified")
+  @Test
+  void retriesCorruptTransfer() throws Exception {
+    LibraryFile lib = files.get(0);
+    byte[] content = Files.readAllBytes(repo.resolve(lib.file));
+    AtomicInteger requests = new AtomicInteger();
+    HttpServer server = serve(content, () -> requests.incrementAndGet() == 1);
+    try {
+      CacheIndex index = CacheIndex.load(cacheDir, true);
+      DownloadProgress progress = new DownloadProgress(lib.size, this::recordProgress);
+
+      new ArtifactDownloader(uri(server), cacheDir, progress, index).download(lib);
+
+      assertDownloaded(lib);
+      assertEquals(2, requests.get());
+      // the damaged attempt is not counted on top of the one that succeeded
+      assertEquals(lib.size.longValue(), progress.getWritten());
+      assertEquals(lib.checksum, index.verifiedChecksum(lib.file, cacheDir.resolve(lib.file)));
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @DisplayName("Gives up on a file that keeps arriving damaged")
+  @Test
+  void failsAfterRepeatedCorruptTransfers() throws Exception {
+    LibraryFile lib = files.get(0);
+    byte[] content = Files.readAllBytes(repo.resolve(lib.file));
+    AtomicInteger requests = new AtomicInteger();
+    HttpServer server = serve(content, () -> requests.incrementAndGet() > 0);
+    try {
+      DownloadProgress progress = new DownloadProgress(lib.size, this::recordProgress);
+      ArtifactDownloader downloader = new ArtifactDownloader(uri(server), cacheDir, progress);
+
+      assertThrows(IOException.class, () -> downloader.download(lib));
+      assertEquals(3, requests.get());
+      assertFalse(Files.exists(cacheDir.resolve(lib.file)));
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @DisplayName("Waits for a busy repository and downloads every file once it is served")
+  @Test
+  void backsOffWhileRepositoryIsBusy() throws Exception {
+    try (StandInServer server = new StandInServer(repo)) {
+      server.errors(0.5, 503).capacity(0, 0).seed(3);
+      DownloadProgress progress = new DownloadProgress(totalBytes, this::recordProgress);
+      ArtifactDownloader downloader = new ArtifactDownloader(server.uri(), cacheDir, progress);
+      downloader.setBackoff(new Backoff(10, 1000, 20));
+
+      downloader.downloadAll(files, 4);
+
+      for (LibraryFile lib : files) assertDownloaded(lib);
+      assertTrue(server.getInjectedErrors() > 0);
+      assertEquals(files.size() + server.getInjectedErrors(), server.getRequests().size());
+      assertEquals(1d, reported.get(reported.size() - 1));
+    }
+  }
+
+  @DisplayName("Downloads an encoded copy, reporting progress against the encoded bytes")
+  @Test
+  void downloadsEncodedCopy() throws Exception {
+    LibraryFile lib = createEncodedRelease();
+    List<String> requests = new ArrayList<>();
+    HttpServer server = serveRepository(requests);
+    try {
+      long transferSize = ArtifactDownloader.transferSize(uri(server), lib);
+      DownloadProgress progress = new DownloadProgress(transferSize, this::recordProgress);
+
+      new ArtifactDownloader(uri(server), cacheDir, progress).download(lib);
+
+      assertDownloaded(lib);
+      assertEquals(Arrays.asList("/" + lib.encodings.get(0).file), requests);
+      assertEquals(lib.encodings.get(0).size.longValue(), progress.getWritten());
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @DisplayName("Downloads the file itself when the encoded copy cannot be decoded")
+  @Test
+  void fallsBackWhenEncodedCopyIsCorrupt() throws Exception {
+    LibraryFile lib = createEncodedRelease();
+    Files.write(repo.resolve(lib.encodings.get(0).file), new byte[] {1, 2, 3});
+    List<String> requests = new ArrayList<>();
+    HttpServer server = serveRepository(requests);
+    try {
+      DownloadProgress progress = new DownloadProgress(lib.size, this::recordProgress);
+
+      new ArtifactDownloader(uri(server), cacheDir, progress).download(lib);
+
+      assertDownloaded(lib);
+      assertEquals(Arrays.asList("/" + lib.encodings.get(0).file, "/" + lib.file), requests);
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  /** Publish a compressible lib/data.jar with a gzip encoded copy. */
+  private LibraryFile createEncodedRelease() throws Exception {
+    byte[] content = new byte[300_000];
+    for (int i = 0; i < content.length; i++) content[i] = (byte) (i % 8 + i / 1000);
+    Files.write(repo.resolve("lib/data.jar"), content);
+
+    CreateManifest.setEncodings(Arrays.asList("gzip"));
+    try {
+      FXManifest manifest = CreateManifest.create(repo.toUri(), "app.Main", repo);
+      LibraryFile lib =
+          manifest.files.stream().filter(it -> it.file.equals("lib/data.jar")).findFirst().get();
+      assertEquals(1, lib.encodings.size());
+      assertTrue(lib.encodings.get(0).size < content.length / 10);
+      // the random content of the other files does not compress
+      assertTrue(manifest.files.get(0).encodings.isEmpty());
+      return lib;
+    } finally {
+      CreateManifest.setEncodings(Collections.emptyList());
+    }
+  }
+
+  /** Serve the files of the repository, recording the requested paths. */
+  private HttpServer serveRepository(List<String> requests) throws IOException {
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          String path = exchange.getRequestURI().getPath();
+          requests.add(path);
+          Path file = repo.resolve(path.substring(1));
+          if (!Files.isRegularFile(file)) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+          }
+          exchange.sendResponseHeaders(200, Files.size(file));
+          try (OutputStream output = exchange.getResponseBody()) {
+            Files.copy(file, output);
+          }
+        });
+    server.start();
+    return server;
+  }
+
+  /** Serve the given content for any path, flipping a byte whenever {@code corrupt} says so. */
+  private static HttpServer serve(byte[] content, BooleanSupplier corrupt) throws IOException {
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          byte[] body = content.clone();
+          if (corrupt.getAsBoolean()) body[body.length / 2]++;
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+          }
+        });
+    server.start();
+    return server;
+  }
+
+  private static URI uri(HttpServer server) {
+    return URI.create(String.format("http://localhost:%d/", server.getAddress().getPort()));
+  }
+
+  private void assertResumesOverHttp(boolean honourRanges) throws Exception {
+    LibraryFile lib = files.get(0);
+    byte[] content = Files.readAllBytes(repo.resolve(lib.file));
+    int offset = content.length / 3;
+    stagePart(lib, Arrays.copyOf(content, offset));
+
+    List<String> ranges = new ArrayList<>();
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          String range = exchange.getRequestHeaders().getFirst("Range");
+          ranges.add(range);
+          int from = honourRanges && range != null ? offset : 0;
+          if (from > 0) {
+            exchange
+                .getResponseHeaders()
+                .add(
+                    "Content-Range",
+                    String.format("bytes %d-%d/%d", from, content.length - 1, content.length));
+            exchange.sendResponseHeaders(206, content.length - from);
+          } else {
+            exchange.sendResponseHeaders(200, content.length);
+          }
+          try (OutputStream output = exchange.getResponseBody()) {
+            output.write(content, from, content.length - from);
+          }
+        });
+    server.start();
+    try {
+      DownloadProgress progress = new DownloadProgress(lib.size, this::recordProgress);
+
+      new ArtifactDownloader(uri(server), cacheDir, progress).download(lib);
+
+      assertArrayEquals(content, Files.readAllBytes(cacheDir.resolve(lib.file)));
+      assertEquals(Arrays.asList(String.format("bytes=%d-", offset)), ranges);
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  private static BasicFileAttributes readAttributes(Path file) throws IOException {
+    return Files.readAttributes(file, BasicFileAttributes.class);
+  }
+
+  private void assertDownloaded(LibraryFile lib) throws IOException {
+    assertArrayEquals(
+        Files.readAllBytes(repo.resolve(lib.file)), Files.readAllBytes(cacheDir.resolve(lib.file)));
+  }
+
+  private Path stagePart(LibraryFile lib, byte[] prefix) throws IOException {
+    Path part = cacheDir.resolve(lib.file + ArtifactDownloader.PART_SUFFIX);
+    Files.createDirectories(part.getParent());
+    return Files.write(part, prefix);
+  }
+
+  private synchronized void recordProgress(double progress) {
+    reported.add(progress);
+  }
+}
@@ -0,0 +1,92 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ArtifactStoreTest {
+
+  @TempDir Path tempDir;
+
+  private Path repo;
+  private ArtifactStore store;
+  private LibraryFile lib;
+  private byte[] content;
+
+  @BeforeEach
+  void createRepository() throws IOException {
+    repo = Files.createDirectory(tempDir.resolve("repo"));
+    store = new ArtifactStore(tempDir.resolve("store"));
+
+    content = new byte[50_000];
+    new Random(3).nextBytes(content);
+    Path file = repo.resolve("lib/shared.jar");
+    Files.createDirectories(file.getParent());
+    Files.write(file, content);
+    lib = new LibraryFile(repo, file);
+  }
+
+  @DisplayName("A file downloaded by one application is linked into the cache of another")
+  @Test
+  void sharesDownloadsBetweenCacheDirs() throws Exception {
+    Path first = tempDir.resolve("first");
+    Path second = tempDir.resolve("second");
+
+    download(first);
+    // nothing left to download from, the second app has to use the store
+    Files.delete(repo.resolve(lib.file));
+    download(second);
+
+    assertArrayEquals(content, Files.readAllBytes(second.resolve(lib.file)));
+    assertEquals(fileKey(first.resolve(lib.file)), fileKey(second.resolve(lib.file)));
+  }
+
+  @DisplayName("Publishes files without duplicating their content")
+  @Test
+  void publishesWithHardLink() throws IOException {
+    Path file = repo.resolve(lib.file);
+    store.publish(lib, file);
+    store.publish(lib, file);
+
+    assertTrue(Files.isRegularFile(store.blob(lib)));
+    assertEquals(fileKey(file), fileKey(store.blob(lib)));
+  }
+
+  @DisplayName("Discards stored content that does not match its checksum")
+  @Test
+  void discardsCorruptContent() throws IOException {
+    store.publish(lib, repo.resolve(lib.file));
+    byte[] corrupt = content.clone();
+    corrupt[0]++;
+    Files.delete(store.blob(lib));
+    Files.write(store.blob(lib), corrupt);
+
+    assertFalse(store.restore(lib, tempDir.resolve("cache").resolve(lib.file)));
+    assertFalse(Files.exists(store.blob(lib)));
+  }
+
+  private void download(Path cacheDir) throws Exception {
+    DownloadProgress progress = new DownloadProgress(lib.size, it -> {});
+    ArtifactDownloader downloader = new ArtifactDownloader(repo.toUri(), cacheDir, progress);
+    downloader.setStore(store);
+    downloader.downloadAll(Collections.singletonList(lib), 1);
+    assertEquals(lib.size.longValue(), progress.getWritten());
+  }
+
+  private static Object fileKey(Path file) throws IOException {
+    return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+  }
+}
@@ -0,0 +1,58 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AtomicFilesTest {
+
+  @TempDir Path dir;
+
+  @DisplayName("The target is replaced by the written content")
+  @Test
+  void replacesTarget() throws IOException {
+    Path target = dir.resolve("file.txt");
+    Files.write(target, "old".getBytes(StandardCharsets.UTF_8));
+
+    AtomicFiles.replaceAtomically(target, out -> out.write("new".getBytes(StandardCharsets.UTF_8)));
+
+    assertArrayEquals("new".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(target));
+    assertEquals(1, count(dir));
+  }
+
+  @DisplayName("A failed write leaves the target alone and no temporary file behind")
+  @Test
+  void failedWriteIsCleanedUp() throws IOException {
+    Path target = dir.resolve("file.txt");
+    Files.write(target, "old".getBytes(StandardCharsets.UTF_8));
+
+    assertThrows(
+        IOException.class,
+        () ->
+            AtomicFiles.replaceAtomically(
+                target,
+                out -> {
+                  out.write("partial".getBytes(StandardCharsets.UTF_8));
+                  throw new IOException("disk full");
+                }));
+
+    assertArrayEquals("old".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(target));
+    assertEquals(1, count(dir));
+  }
+
+  private static long count(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.count();
+    }
+  }
+}
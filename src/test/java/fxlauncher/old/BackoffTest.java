@@ -0,0 +1,88 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BackoffTest {
+
+  @TempDir Path tempDir;
+
+  @DisplayName("Reads Retry-After as seconds or as an http date")
+  @Test
+  void parsesRetryAfter() {
+    assertEquals(120_000, Backoff.parseRetryAfter("120"));
+    assertEquals(0, Backoff.parseRetryAfter(" 0 "));
+    assertEquals(-1, Backoff.parseRetryAfter(null));
+    assertEquals(-1, Backoff.parseRetryAfter("soon"));
+
+    String date =
+        DateTimeFormatter.RFC_1123_DATE_TIME.format(
+            ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(30));
+    long wait = Backoff.parseRetryAfter(date);
+    assertTrue(wait > 25_000 && wait <= 30_000, "waits until the date: " + wait);
+    assertEquals(0, Backoff.parseRetryAfter("Thu, 01 Jan 2015 00:00:00 GMT"));
+  }
+
+  @DisplayName("Waits a random share of a doubling ceiling, on top of Retry-After")
+  @Test
+  void growsExponentiallyWithJitter() {
+    Backoff backoff = new Backoff(100, 1000, 10);
+    for (int i = 0; i < 100; i++) {
+      assertTrue(backoff.delay(1, -1) <= 100);
+      assertTrue(backoff.delay(3, -1) <= 400);
+      assertTrue(backoff.delay(8, -1) <= 1000);
+      long delay = backoff.delay(1, 500);
+      assertTrue(delay >= 500 && delay <= 600);
+    }
+  }
+
+  @DisplayName("Loads the manifest once the repository stops turning requests away")
+  @Test
+  void retriesBusyRepository() throws Exception {
+    try (StandInServer server = new StandInServer(tempDir)) {
+      FXManifest published =
+          new SyntheticRepository(tempDir).jars(1).sizes(1024, 0, 1024).create(server.uri());
+      server.errors(0.75, 503).capacity(0, 0).seed(7);
+
+      FXManifest loaded =
+          FXManifest.load(published.getFXAppURI(), null, new Backoff(10, 1000, 20));
+
+      assertEquals(published.files, loaded.files);
+      assertTrue(server.getInjectedErrors() > 0);
+      assertEquals(server.getInjectedErrors() + 1, server.getRequests().size());
+    }
+  }
+
+  @DisplayName("Gives up after the last attempt, or when Retry-After asks for too long a wait")
+  @Test
+  void givesUpOnBusyRepository() throws Exception {
+    try (StandInServer server = new StandInServer(tempDir)) {
+      URI app = new SyntheticRepository(tempDir).jars(1).create(server.uri()).getFXAppURI();
+      server.errors(1, 503).capacity(0, 0);
+
+      assertThrows(
+          Backoff.ServerBusyException.class,
+          () -> FXManifest.load(app, null, new Backoff(10, 1000, 3)));
+      assertEquals(3, server.getRequests().size());
+
+      server.errors(1, 429).capacity(0, 3600);
+      Backoff.ServerBusyException e =
+          assertThrows(
+              Backoff.ServerBusyException.class,
+              () -> FXManifest.load(app, null, new Backoff(10, 1000, 3)));
+      assertEquals(3_600_000, e.getRetryAfter());
+      assertEquals(4, server.getRequests().size());
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BinaryDeltaTest {
+
+  @TempDir Path tempDir;
+
+  private final Random random = new Random(7);
+
+  @DisplayName("A patch for a few edited and moved regions is a fraction of the file size")
+  @Test
+  void patchesEditedAndShiftedContent() throws IOException {
+    byte[] source = randomBytes(500_000);
+
+    // insert a few bytes near the start, replace a region in the middle and cut off the end
+    ByteArrayOutputStream edited = new ByteArrayOutputStream();
+    edited.write(source, 0, 1000);
+    edited.write(randomBytes(37));
+    edited.write(source, 1000, 200_000);
+    edited.write(randomBytes(5000));
+    edited.write(source, 206_000, 250_000);
+    byte[] target = edited.toByteArray();
+
+    byte[] patch = createPatch(source, target);
+
+    assertTrue(patch.length < 20_000, String.format("patch is %d bytes", patch.length));
+    assertArrayEquals(target, applyPatch(source, patch));
+  }
+
+  @DisplayName("Round trips files that share nothing, and files smaller than a block")
+  @Test
+  void patchesUnrelatedAndTinyContent() throws IOException {
+    for (int[] sizes : new int[][] {{100_000, 80_000}, {0, 10}, {10, 0}, {1500, 1500}}) {
+      byte[] source = randomBytes(sizes[0]);
+      byte[] target = randomBytes(sizes[1]);
+      assertArrayEquals(target, applyPatch(source, createPatch(source, target)));
+    }
+  }
+
+  @DisplayName("Handles long runs of repeated content")
+  @Test
+  void patchesRepetitiveContent() throws IOException {
+    byte[] source = new byte[64 * 1024];
+    byte[] target = Arrays.copyOf(source, source.length + 3000);
+    target[source.length + 5] = 1;
+
+    assertArrayEquals(target, applyPatch(source, createPatch(source, target)));
+  }
+
+  @DisplayName("Refuses to apply a patch to a different source file")
+  @Test
+  void rejectsWrongSource() throws IOException {
+    byte[] source = randomBytes(10_000);
+    byte[] patch = createPatch(source, randomBytes(10_000));
+
+    assertThrows(IOException.class, () -> applyPatch(randomBytes(9_999), patch));
+    assertThrows(IOException.class, () -> applyPatch(source, Arrays.copyOf(patch, 100)));
+  }
+
+  private byte[] randomBytes(int length) {
+    byte[] bytes = new byte[length];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+
+  private static byte[] createPatch(byte[] source, byte[] target) throws IOException {
+    ByteArrayOutputStream patch = new ByteArrayOutputStream();
+    BinaryDelta.create(source, target, patch);
+    return patch.toByteArray();
+  }
+
+  private byte[] applyPatch(byte[] source, byte[] patch) throws IOException {
+    Path file = Files.write(Files.createTempFile(tempDir, "source", ".jar"), source);
+    ByteArrayOutputStream target = new ByteArrayOutputStream();
+    BinaryDelta.apply(file, new ByteArrayInputStream(patch), target);
+    return target.toByteArray();
+  }
+}
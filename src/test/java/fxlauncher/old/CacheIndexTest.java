@@ -0,0 +1,75 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CacheIndexTest {
+
+  @TempDir Path cacheDir;
+
+  private Path jar;
+  private LibraryFile lib;
+
+  @BeforeEach
+  void createCachedFile() throws IOException {
+    jar = cacheDir.resolve("app.jar");
+    byte[] content = new byte[4096];
+    Arrays.fill(content, (byte) 7);
+    Files.write(jar, content);
+    lib = new LibraryFile(cacheDir, jar);
+  }
+
+  @DisplayName("A recorded checksum survives a reload of the index")
+  @Test
+  void recordedChecksumIsPersisted() {
+    CacheIndex index = CacheIndex.load(cacheDir, true);
+    assertFalse(lib.needsUpdate(cacheDir, index));
+    index.save();
+
+    CacheIndex reloaded = CacheIndex.load(cacheDir, true);
+    assertEquals(lib.checksum, reloaded.verifiedChecksum(lib.file, jar));
+  }
+
+  @DisplayName("A recorded checksum is not trusted once the file has been touched")
+  @Test
+  void changedFileIsNotTrusted() throws IOException {
+    CacheIndex index = CacheIndex.load(cacheDir, true);
+    index.record(lib.file, jar, lib.checksum);
+
+    Files.setLastModifiedTime(
+        jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 5000));
+
+    assertNull(index.verifiedChecksum(lib.file, jar));
+  }
+
+  @DisplayName("Unchanged stat data skips hashing, unless the stored entries are discarded")
+  @Test
+  void unchangedStatSkipsHashing() throws IOException {
+    CacheIndex index = CacheIndex.load(cacheDir, true);
+    assertFalse(lib.needsUpdate(cacheDir, index));
+    index.save();
+
+    // corrupt the content in place, keeping size and modification time
+    FileTime modified = Files.getLastModifiedTime(jar);
+    byte[] content = Files.readAllBytes(jar);
+    content[0] = 8;
+    Files.write(jar, content);
+    Files.setLastModifiedTime(jar, modified);
+
+    assertFalse(lib.needsUpdate(cacheDir, CacheIndex.load(cacheDir, true)));
+    assertTrue(lib.needsUpdate(cacheDir, CacheIndex.load(cacheDir, false)));
+  }
+}
@@ -0,0 +1,134 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CacheLockTest {
+
+  @TempDir Path cacheDir;
+
+  @DisplayName("Waits for a lock that another process holds")
+  @Test
+  void waitsForOtherProcess() throws Exception {
+    Process holder =
+        new ProcessBuilder(
+                AppCds.javaExecutable(),
+                "-cp",
+                System.getProperty("java.class.path"),
+                Holder.class.getName(),
+                cacheDir.toString(),
+                "lib/a.jar",
+                "1000")
+            .redirectErrorStream(true)
+            .start();
+    try (BufferedReader output =
+        new BufferedReader(
+            new InputStreamReader(holder.getInputStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = output.readLine()) != null && !line.equals("locked")) {}
+      assertEquals("locked", line);
+
+      long started = System.nanoTime();
+      try (CacheLock lock = CacheLock.acquire(cacheDir, "lib/a.jar")) {
+        assertTrue(lock.wasContended());
+        assertTrue(System.nanoTime() - started > TimeUnit.MILLISECONDS.toNanos(500));
+      }
+    }
+    assertEquals(0, holder.waitFor());
+  }
+
+  @DisplayName("Serializes launchers in the same JVM, but only for the same file")
+  @Test
+  // the locks are only held, never read
+  @SuppressWarnings("try")
+  void locksPerFile() throws Exception {
+    CountDownLatch locked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Void> holder =
+        CompletableFuture.runAsync(
+            () -> {
+              try (CacheLock lock = CacheLock.acquire(cacheDir, "lib/a.jar")) {
+                locked.countDown();
+                release.await();
+              } catch (IOException | InterruptedException e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    locked.await();
+
+    try (CacheLock other = CacheLock.acquire(cacheDir, "lib/b.jar")) {
+      assertFalse(other.wasContended());
+    }
+    CompletableFuture<Boolean> waiter =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try (CacheLock lock = CacheLock.acquire(cacheDir, "lib/a.jar")) {
+                return lock.wasContended();
+              } catch (IOException e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    Thread.sleep(200);
+    assertFalse(waiter.isDone());
+
+    release.countDown();
+    assertTrue(waiter.get(5, TimeUnit.SECONDS));
+    holder.get(5, TimeUnit.SECONDS);
+  }
+
+  @DisplayName("Downloads every file once when two launchers sync the same cache dir")
+  @Test
+  void downloadsOnceForSharedCache(@TempDir Path repo) throws Exception {
+    try (StandInServer server = new StandInServer(repo)) {
+      FXManifest manifest =
+          new SyntheticRepository(repo).jars(8).sizes(65536, 0.2, 131072).create(server.uri());
+      server.bandwidth(2 * 1024 * 1024, 0);
+      long total = manifest.files.stream().mapToLong(it -> it.size).sum();
+
+      CompletableFuture<Void> first = CompletableFuture.runAsync(() -> sync(manifest));
+      CompletableFuture<Void> second = CompletableFuture.runAsync(() -> sync(manifest));
+      first.get(30, TimeUnit.SECONDS);
+      second.get(30, TimeUnit.SECONDS);
+
+      assertEquals(total, server.getBytesSent());
+      for (LibraryFile lib : manifest.files) assertFalse(lib.needsUpdate(cacheDir), lib.file);
+    }
+  }
+
+  private void sync(FXManifest manifest) {
+    DownloadProgress progress = new DownloadProgress(Long.MAX_VALUE, it -> {});
+    try {
+      new ArtifactDownloader(manifest.uri, cacheDir, progress).downloadAll(manifest.files, 2);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Holds a lock in another process: cache dir, file, milliseconds. */
+  public static class Holder {
+    // the lock is only held, never read
+    @SuppressWarnings("try")
+    public static void main(String[] args) throws Exception {
+      try (CacheLock lock = CacheLock.acquire(Paths.get(args[0]), args[1])) {
+        System.out.println("locked");
+        System.out.flush();
+        Thread.sleep(Long.parseLong(args[2]));
+      }
+    }
+  }
+}
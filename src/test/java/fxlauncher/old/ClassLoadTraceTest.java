@@ -0,0 +1,112 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ClassLoadTraceTest {
+
+  @TempDir Path cacheDir;
+
+  private FXManifest manifest;
+
+  @BeforeEach
+  void createApplication() throws IOException {
+    Path jar = cacheDir.resolve("lib/app.jar");
+    TestJars.write(
+        jar,
+        Arrays.asList("com.example.Main", "com.example.View", "com.example.Model"),
+        Collections.emptyMap());
+
+    manifest = new FXManifest();
+    manifest.uri = URI.create("http://fxldemo.tornado.no/");
+    manifest.launchClass = "com.example.Main";
+    manifest.files.add(new LibraryFile(cacheDir, jar));
+  }
+
+  @DisplayName("Records the classes loaded during the window in load order")
+  @Test
+  void recordsLoadOrder() throws Exception {
+    ClassLoadTrace trace = new ClassLoadTrace(cacheDir, manifest);
+    try (IndexedClassLoader loader = classLoader()) {
+      CompletableFuture<Void> stored = trace.start(loader, 500);
+      loader.loadClass("com.example.Main");
+      loader.loadClass("com.example.Model");
+      stored.get(10, TimeUnit.SECONDS);
+
+      // after the window
+      loader.loadClass("com.example.View");
+    }
+
+    assertEquals(Arrays.asList("com.example.Main", "com.example.Model"), trace.load());
+  }
+
+  @DisplayName("Preloads the recorded classes on the next launch")
+  @Test
+  void preloadsRecordedClasses() throws Exception {
+    try (IndexedClassLoader first = classLoader()) {
+      CompletableFuture<Void> stored = new ClassLoadTrace(cacheDir, manifest).start(first, 300);
+      first.loadClass("com.example.View");
+      first.loadClass("com.example.Main");
+      stored.get(10, TimeUnit.SECONDS);
+    }
+
+    Queue<String> preloaded = new ConcurrentLinkedQueue<>();
+    try (IndexedClassLoader second = classLoader()) {
+      second.setClassListener(preloaded::add);
+      new ClassLoadTrace(cacheDir, manifest).start(second, 300).get(10, TimeUnit.SECONDS);
+    }
+
+    List<String> sorted = new ArrayList<>(preloaded);
+    Collections.sort(sorted);
+    assertEquals(Arrays.asList("com.example.Main", "com.example.View"), sorted);
+  }
+
+  @DisplayName("Ignores a trace recorded for other files")
+  @Test
+  void ignoresTraceOfOtherVersion() throws Exception {
+    try (IndexedClassLoader loader = classLoader()) {
+      ClassLoadTrace trace = new ClassLoadTrace(cacheDir, manifest);
+      CompletableFuture<Void> stored = trace.start(loader, 200);
+      loader.loadClass("com.example.Main");
+      stored.get(10, TimeUnit.SECONDS);
+    }
+
+    manifest.files.get(0).checksum++;
+
+    assertNull(new ClassLoadTrace(cacheDir, manifest).load());
+  }
+
+  @DisplayName("Skips classes that are no longer there")
+  @Test
+  void skipsMissingClasses() throws Exception {
+    List<String> classNames = Arrays.asList("com.example.Gone", "com.example.Main");
+    Queue<String> preloaded = new ConcurrentLinkedQueue<>();
+    try (IndexedClassLoader loader = classLoader()) {
+      loader.setClassListener(preloaded::add);
+      ClassLoadTrace.preload(loader, classNames, 2).get(10, TimeUnit.SECONDS);
+    }
+
+    assertEquals(Collections.singletonList("com.example.Main"), Arrays.asList(preloaded.toArray()));
+  }
+
+  private IndexedClassLoader classLoader() {
+    return new IndexedClassLoader(PackageIndex.load(cacheDir, manifest.files), null);
+  }
+}
@@ -0,0 +1,125 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.xml.bind.JAXB;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FXManifestXmlTest {
+
+  private FXManifest manifest;
+
+  @BeforeEach
+  void createManifest() {
+    manifest = new FXManifest();
+    manifest.ts = 1546000000000L;
+    manifest.uri = URI.create("http://fxldemo.tornado.no/");
+    manifest.launchClass = "no.tornado.FxlDemo";
+    manifest.parameters = "--some-param=some value";
+    manifest.cacheDir = "USERLIB/FxlDemo";
+    manifest.acceptDowngrade = true;
+    manifest.preloadNativeLibraries = "jfxwebkit";
+    manifest.whatsNewPage = "http://fxldemo.tornado.no/whatsnew.html";
+    manifest.lingeringUpdateScreen = true;
+    manifest.rollout = 25;
+
+    for (OS os : new OS[] {null, OS.win, OS.mac, OS.linux}) {
+      LibraryFile lib = new LibraryFile();
+      lib.file = String.format("lib/native-%s.jar", os);
+      lib.checksum = 123456789L;
+      lib.size = 4200L;
+      lib.os = os;
+      manifest.files.add(lib);
+    }
+    List<LibraryPatch> patches = manifest.files.get(0).patches;
+    patches.add(new LibraryPatch(42L, "patches/lib/native-null.jar.42.fxpatch", 12L));
+    patches.add(new LibraryPatch(43L, "patches/lib/native-null.jar.43.fxpatch", 13L));
+    manifest.files.get(0).encodings.add(new LibraryEncoding("gzip", "encoded/native.jar.gz", 9L));
+    manifest.files.get(1).encodings.add(new LibraryEncoding("gzip", "encoded/native.jar.gz", 8L));
+  }
+
+  @DisplayName("Writes the same document as JAXB")
+  @Test
+  void writesSameDocumentAsJaxb() throws IOException {
+    ByteArrayOutputStream jaxb = new ByteArrayOutputStream();
+    JAXB.marshal(manifest, jaxb);
+
+    ByteArrayOutputStream stax = new ByteArrayOutputStream();
+    FXManifestXml.write(manifest, stax);
+
+    assertEquals(jaxb.toString("UTF-8"), stax.toString("UTF-8"));
+  }
+
+  @DisplayName("Reads a document written by JAXB into an equal manifest")
+  @Test
+  void readsJaxbDocument() throws IOException {
+    ByteArrayOutputStream jaxb = new ByteArrayOutputStream();
+    JAXB.marshal(manifest, jaxb);
+
+    FXManifest read = FXManifestXml.read(new ByteArrayInputStream(jaxb.toByteArray()));
+
+    assertManifestEquals(manifest, read);
+  }
+
+  @DisplayName("Produces documents JAXB reads into an equal manifest")
+  @Test
+  void roundTripsThroughJaxb() throws IOException {
+    ByteArrayOutputStream stax = new ByteArrayOutputStream();
+    FXManifestXml.write(manifest, stax);
+
+    FXManifest read =
+        JAXB.unmarshal(new ByteArrayInputStream(stax.toByteArray()), FXManifest.class);
+
+    assertManifestEquals(manifest, read);
+  }
+
+  @DisplayName("Keeps defaults for missing elements and ignores unknown ones")
+  @Test
+  void toleratesMissingAndUnknownElements() throws IOException {
+    String xml =
+        "<Application ts=\" 12 \" launch=\"a.B\"><unknown><nested/></unknown>"
+            + "<lib file=\"a.jar\" checksum=\"1\" size=\"2\"><future/></lib>"
+            + "<stopOnUpdateErrors>1</stopOnUpdateErrors></Application>";
+
+    FXManifest read = read(xml);
+
+    assertEquals(Long.valueOf(12), read.ts);
+    assertEquals(1, read.files.size());
+    assertEquals("a.jar", read.files.get(0).file);
+    assertEquals(true, read.stopOnUpdateErrors);
+    assertEquals(new FXManifest().updateText, read.updateText);
+  }
+
+  @DisplayName("Reports a malformed document as an IOException")
+  @Test
+  void rejectsMalformedDocument() {
+    assertThrows(IOException.class, () -> read("<Application ts=\"yesterday\"/>"));
+    assertThrows(IOException.class, () -> read("<Manifest/>"));
+  }
+
+  private static FXManifest read(String xml) throws IOException {
+    return FXManifestXml.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static void assertManifestEquals(FXManifest expected, FXManifest actual) {
+    assertEquals(expected, actual);
+    assertEquals(expected.preloadNativeLibraries, actual.preloadNativeLibraries);
+    assertEquals(expected.whatsNewPage, actual.whatsNewPage);
+    for (int i = 0; i < expected.files.size(); i++) {
+      assertEquals(expected.files.get(i).os, actual.files.get(i).os);
+      assertEquals(expected.files.get(i).patches, actual.files.get(i).patches);
+      assertEquals(expected.files.get(i).encodings, actual.files.get(i).encodings);
+    }
+  }
+}
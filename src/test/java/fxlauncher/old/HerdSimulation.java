@@ -0,0 +1,219 @@
+package fxlauncher.old;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Simulates a fleet of launchers that see a new release at the same time, like launchers that are
+ * started at nine in the morning or daemons that poll in step, against a {@link StandInServer} with
+ * a limited capacity. Every client fetches the manifest and, if the release is rolled out to it,
+ * downloads the files, with the herd control of the launcher: a random delay before the check, a
+ * {@link Backoff} while the server turns requests away, and a {@link Rollout} percentage. The
+ * result is the number of requests the server saw in every time slot.
+ *
+ * <p>Run it to print the request rate curve without and with herd control:
+ *
+ * <pre>
+ * mvn test-compile org.codehaus.mojo:exec-maven-plugin:3.0.0:java \
+ *     -Dexec.classpathScope=test -Dexec.mainClass=fxlauncher.old.HerdSimulation
+ * </pre>
+ */
+public class HerdSimulation {
+  static final long SLOT_MILLIS = 100;
+
+  private final Path dir;
+  private int clients = 200;
+  private int capacity = 8;
+  private int retryAfterSeconds = 1;
+  private long latencyMillis = 20;
+  private long jitterMillis;
+  private Backoff backoff = new Backoff(0, 0, 1);
+  private Integer rollout;
+
+  /** @param dir the directory for the repository and the cache dirs of the clients */
+  HerdSimulation(Path dir) {
+    this.dir = dir;
+  }
+
+  /** @param clients the number of launchers, 200 by default */
+  HerdSimulation clients(int clients) {
+    this.clients = clients;
+    return this;
+  }
+
+  /**
+   * @param maxConcurrent the number of requests the server serves at once, 8 by default
+   * @param retryAfterSeconds the <code>Retry-After</code> of the requests it turns away, 1 by
+   *     default
+   */
+  HerdSimulation capacity(int maxConcurrent, int retryAfterSeconds) {
+    this.capacity = maxConcurrent;
+    this.retryAfterSeconds = retryAfterSeconds;
+    return this;
+  }
+
+  /** @param millis the time the server takes for every request, 20 ms by default */
+  HerdSimulation latency(long millis) {
+    this.latencyMillis = millis;
+    return this;
+  }
+
+  /** @param millis the longest random delay before a client checks, none by default */
+  HerdSimulation jitter(long millis) {
+    this.jitterMillis = millis;
+    return this;
+  }
+
+  /** @param backoff the retries of a client that is turned away, a single attempt by default */
+  HerdSimulation backoff(Backoff backoff) {
+    this.backoff = backoff;
+    return this;
+  }
+
+  /** @param percentage the share of the clients the release is rolled out to, all by default */
+  HerdSimulation rollout(Integer percentage) {
+    this.rollout = percentage;
+    return this;
+  }
+
+  /**
+   * Publish a release and let every client check for it at once.
+   *
+   * @return what the server saw, and what became of the clients
+   */
+  Result run() throws IOException, InterruptedException {
+    Path repo = Files.createTempDirectory(dir, "repo");
+    try (StandInServer server = new StandInServer(repo)) {
+      server.latency(latencyMillis).capacity(capacity, retryAfterSeconds);
+      FXManifest release =
+          new SyntheticRepository(repo).jars(3).sizes(16384, 0.2, 32768).create(server.uri());
+      release.rollout = rollout;
+      FXManifestXml.write(release, repo.resolve("app.xml"));
+
+      Result result = new Result();
+      long start = System.nanoTime();
+      List<Thread> threads = new ArrayList<>();
+      for (int i = 0; i < clients; i++) {
+        String clientId = "client-" + i;
+        Path cacheDir = dir.resolve(repo.getFileName() + "-" + clientId);
+        Thread thread = new Thread(() -> check(release.getFXAppURI(), clientId, cacheDir, result));
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+      }
+      for (Thread thread : threads) thread.join();
+
+      result.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      result.requests = server.getRequestTimes().size();
+      result.rejected = server.getRejected();
+      result.rate = new int[(int) (result.elapsedMillis / SLOT_MILLIS) + 1];
+      for (long time : server.getRequestTimes()) {
+        int slot = (int) (TimeUnit.NANOSECONDS.toMillis(time - start) / SLOT_MILLIS);
+        result.rate[Math.min(Math.max(slot, 0), result.rate.length - 1)]++;
+      }
+      return result;
+    }
+  }
+
+  /** What one launcher does: check for the release, and download it if it takes it. */
+  private void check(URI app, String clientId, Path cacheDir, Result result) {
+    try {
+      Thread.sleep(Backoff.jitter(jitterMillis));
+      FXManifest release = FXManifest.load(app, null, backoff);
+      if (!Rollout.includes(clientId, release)) {
+        result.heldBack.incrementAndGet();
+        return;
+      }
+      List<LibraryFile> files =
+          release
+              .files
+              .stream()
+              .filter(LibraryFile::loadForCurrentPlatform)
+              .collect(Collectors.toList());
+      long total = files.stream().mapToLong(it -> it.size).sum();
+      ArtifactDownloader downloader =
+          new ArtifactDownloader(release.uri, cacheDir, new DownloadProgress(total, it -> {}));
+      downloader.setBackoff(backoff);
+      downloader.downloadAll(files, 1);
+      result.updated.incrementAndGet();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      result.failed.incrementAndGet();
+    }
+  }
+
+  /** The requests the server saw, and what became of the clients. */
+  static class Result {
+    final AtomicInteger updated = new AtomicInteger();
+    final AtomicInteger heldBack = new AtomicInteger();
+    final AtomicInteger failed = new AtomicInteger();
+    int requests;
+    int rejected;
+    long elapsedMillis;
+    int[] rate;
+
+    /** @return the most requests in one time slot */
+    int peak() {
+      int peak = 0;
+      for (int requests : rate) peak = Math.max(peak, requests);
+      return peak;
+    }
+
+    /** @return the request rate curve, a bar for every time slot */
+    String curve() {
+      StringBuilder curve = new StringBuilder();
+      int peak = Math.max(1, peak());
+      for (int slot = 0; slot < rate.length; slot++) {
+        StringBuilder bar = new StringBuilder();
+        for (int i = 0; i < rate[slot] * 60 / peak; i++) bar.append('#');
+        curve.append(String.format("%6d ms %5d %s%n", slot * SLOT_MILLIS, rate[slot], bar));
+      }
+      return curve.toString();
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d requests in %d ms, peak %d per %d ms, %d turned away; "
+              + "%d clients updated, %d held back, %d failed",
+          requests,
+          elapsedMillis,
+          peak(),
+          SLOT_MILLIS,
+          rejected,
+          updated.get(),
+          heldBack.get(),
+          failed.get());
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    // every retry is logged, which drowns out the curves
+    Logger.getLogger("").setLevel(Level.WARNING);
+    Path dir = Files.createTempDirectory("herd-simulation");
+    Backoff backoff = new Backoff(200, 5000, 8);
+
+    print("Without herd control", new HerdSimulation(dir).run());
+    print("Jittered checks", new HerdSimulation(dir).jitter(3000).run());
+    print(
+        "Jittered checks and Retry-After backoff",
+        new HerdSimulation(dir).jitter(3000).backoff(backoff).run());
+    print(
+        "Jittered checks, Retry-After backoff and a 25% rollout",
+        new HerdSimulation(dir).jitter(3000).backoff(backoff).rollout(25).run());
+  }
+
+  private static void print(String scenario, Result result) {
+    System.out.printf("%s: %s%n%s%n", scenario, result, result.curve());
+  }
+}
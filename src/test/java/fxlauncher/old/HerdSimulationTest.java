@@ -0,0 +1,52 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class HerdSimulationTest {
+
+  private static final int CLIENTS = 60;
+
+  @TempDir Path tempDir;
+
+  @DisplayName("A herd that checks at once overwhelms the server, a controlled herd is served")
+  @Test
+  void spreadsRequests() throws Exception {
+    HerdSimulation.Result herd =
+        new HerdSimulation(tempDir).clients(CLIENTS).capacity(4, 0).latency(20).run();
+    HerdSimulation.Result controlled =
+        new HerdSimulation(tempDir)
+            .clients(CLIENTS)
+            .capacity(4, 0)
+            .latency(20)
+            .jitter(1500)
+            .backoff(new Backoff(50, 2000, 10))
+            .run();
+
+    assertTrue(herd.failed.get() > 0, herd.toString());
+    assertTrue(herd.rejected > 0, herd.toString());
+    assertEquals(CLIENTS, controlled.updated.get(), controlled.toString());
+    // the peaks depend on scheduling, the share of requests turned away does not
+    assertTrue(
+        controlled.rejected * herd.requests < herd.rejected * controlled.requests,
+        controlled + " / " + herd);
+  }
+
+  @DisplayName("Clients outside the rollout only fetch the manifest")
+  @Test
+  void holdsBackClientsOutsideRollout() throws Exception {
+    HerdSimulation.Result result =
+        new HerdSimulation(tempDir).clients(CLIENTS).capacity(0, -1).rollout(25).run();
+
+    assertEquals(CLIENTS, result.updated.get() + result.heldBack.get(), result.toString());
+    assertTrue(result.heldBack.get() > CLIENTS / 2, result.toString());
+    // the manifest, plus the files for the clients that take the release
+    assertEquals(CLIENTS + 3 * result.updated.get(), result.requests, result.toString());
+  }
+}
@@ -0,0 +1,144 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class IndexedClassLoaderTest {
+
+  @TempDir Path cacheDir;
+
+  private List<LibraryFile> libs;
+
+  @BeforeEach
+  void createJars() throws IOException {
+    TestJars.write(
+        cacheDir.resolve("lib/first.jar"),
+        Arrays.asList("com.example.first.Main", "com.example.shared.One"),
+        Collections.singletonMap("com/example/shared/messages.properties", "first"));
+    TestJars.write(
+        cacheDir.resolve("lib/second.jar"),
+        Arrays.asList("com.example.second.Util", "com.example.shared.Two"),
+        Collections.singletonMap("com/example/shared/messages.properties", "second"));
+    libs = new ArrayList<>();
+    libs.add(new LibraryFile(cacheDir, cacheDir.resolve("lib/first.jar")));
+    libs.add(new LibraryFile(cacheDir, cacheDir.resolve("lib/second.jar")));
+  }
+
+  @DisplayName("Loads classes from the jar that contains them")
+  @Test
+  void loadsFromOwningJar() throws Exception {
+    try (IndexedClassLoader loader = load()) {
+      Class<?> util = loader.loadClass("com.example.second.Util");
+
+      assertEquals(loader, util.getClassLoader());
+      assertEquals(
+          cacheDir.resolve("lib/second.jar").toUri().toURL(),
+          util.getProtectionDomain().getCodeSource().getLocation());
+      assertNotNull(util.getPackage());
+      assertEquals("com.example.first.Main", loader.loadClass("com.example.first.Main").getName());
+    }
+  }
+
+  @DisplayName("Finds a package that is split over several jars in classpath order")
+  @Test
+  void findsSplitPackages() throws Exception {
+    try (IndexedClassLoader loader = load()) {
+      assertNotNull(loader.loadClass("com.example.shared.One"));
+      assertNotNull(loader.loadClass("com.example.shared.Two"));
+      String messages = "com/example/shared/messages.properties";
+      assertEquals("first", read(loader.getResourceAsStream(messages)));
+
+      List<URL> all = Collections.list(loader.getResources(messages));
+      assertEquals(2, all.size());
+      assertEquals("second", read(all.get(1).openStream()));
+    }
+  }
+
+  @DisplayName("Fails lookups for packages no jar contains")
+  @Test
+  void missesUnknownPackages() throws Exception {
+    try (IndexedClassLoader loader = load()) {
+      assertThrows(ClassNotFoundException.class, () -> loader.loadClass("com.example.Missing"));
+      assertThrows(
+          ClassNotFoundException.class, () -> loader.loadClass("com.example.first.Missing"));
+      assertNull(loader.getResource("META-INF/services/com.example.Service"));
+      assertTrue(Collections.list(loader.getResources("com/example/missing.fxml")).isEmpty());
+    }
+  }
+
+  @DisplayName("Reuses the stored listing of unchanged jars")
+  @Test
+  void storesIndexInCacheDir() throws Exception {
+    Path indexFile = cacheDir.resolve(PackageIndex.FILENAME);
+    PackageIndex.load(cacheDir, libs);
+    assertTrue(Files.exists(indexFile));
+    FileTime written = FileTime.fromMillis(1000);
+    Files.setLastModifiedTime(indexFile, written);
+
+    PackageIndex.load(cacheDir, libs);
+
+    assertEquals(written, Files.getLastModifiedTime(indexFile));
+  }
+
+  @DisplayName("Lists a jar again when its checksum changes")
+  @Test
+  void rescansChangedJars() throws Exception {
+    PackageIndex.load(cacheDir, libs);
+    TestJars.write(
+        cacheDir.resolve("lib/second.jar"),
+        Collections.singletonList("com.example.third.Added"),
+        Collections.emptyMap());
+    libs.set(1, new LibraryFile(cacheDir, cacheDir.resolve("lib/second.jar")));
+
+    try (IndexedClassLoader loader = load()) {
+      assertNotNull(loader.loadClass("com.example.third.Added"));
+      assertThrows(ClassNotFoundException.class, () -> loader.loadClass("com.example.second.Util"));
+    }
+  }
+
+  @DisplayName("Lists the indexed jars as its urls")
+  @Test
+  void listsIndexedUrls() throws Exception {
+    try (IndexedClassLoader loader = load()) {
+      assertArrayEquals(
+          new URL[] {
+            cacheDir.resolve("lib/first.jar").toUri().toURL(),
+            cacheDir.resolve("lib/second.jar").toUri().toURL()
+          },
+          loader.getURLs());
+    }
+  }
+
+  private IndexedClassLoader load() {
+    return new IndexedClassLoader(PackageIndex.load(cacheDir, libs), null);
+  }
+
+  private static String read(InputStream input) throws IOException {
+    try (InputStream in = input) {
+      byte[] buf = new byte[64];
+      int length = in.read(buf);
+      return new String(buf, 0, length, StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ManifestValidatorsTest {
+
+  @TempDir Path tempDir;
+
+  private Path repo;
+
+  @BeforeEach
+  void createRepository() throws IOException {
+    repo = Files.createDirectory(tempDir.resolve("repo"));
+    Files.write(repo.resolve("app.jar"), new byte[] {1, 2, 3});
+  }
+
+  @DisplayName("Neither downloads nor parses a manifest the repository reports as not modified")
+  @Test
+  void skipsUnmodifiedManifest() throws Exception {
+    try (StandInServer server = new StandInServer(repo)) {
+      publish(server.uri(), 1L);
+      URI app = server.uri().resolve("app.xml");
+
+      FXManifest first = FXManifest.load(app, null);
+      assertNotNull(first.validators);
+      assertNotNull(first.validators.etag);
+      assertNotNull(first.validators.lastModified);
+
+      assertSame(first, FXManifest.load(app, first));
+      assertEquals(1, server.getNotModified());
+    }
+  }
+
+  @DisplayName("Reads the manifest again once it changed in the repository")
+  @Test
+  void readsChangedManifest() throws Exception {
+    try (StandInServer server = new StandInServer(repo)) {
+      publish(server.uri(), 1L);
+      URI app = server.uri().resolve("app.xml");
+      FXManifest first = FXManifest.load(app, null);
+
+      publish(server.uri(), 2L);
+      FXManifest second = FXManifest.load(app, first);
+
+      assertNotSame(first, second);
+      assertEquals(Long.valueOf(2L), second.ts);
+      assertEquals(0, server.getNotModified());
+    }
+  }
+
+  @DisplayName("Stores the validators next to the cached manifest they belong to")
+  @Test
+  void storesValidatorsWithManifest() throws Exception {
+    Path manifestPath = tempDir.resolve("app.Main.xml");
+    FXManifest manifest = manifest(URI.create("http://localhost/"), 1L);
+    manifest.validators =
+        new ManifestValidators(manifest.getFXAppURI(), "\"abc\"", "Sat, 17 Oct 2026 10:00:00 GMT");
+
+    ManifestValidators.save(manifestPath, manifest);
+    ManifestValidators loaded = ManifestValidators.load(manifestPath, manifest);
+
+    assertEquals("\"abc\"", loaded.etag);
+    assertEquals("Sat, 17 Oct 2026 10:00:00 GMT", loaded.lastModified);
+    assertTrue(loaded.appliesTo(manifest.getFXAppURI()));
+    assertFalse(loaded.appliesTo(URI.create("http://elsewhere/app.xml")));
+    assertNull(ManifestValidators.load(manifestPath, manifest(manifest.uri, 2L)));
+
+    manifest.validators = null;
+    ManifestValidators.save(manifestPath, manifest);
+    assertFalse(Files.exists(ManifestValidators.pathOf(manifestPath)));
+  }
+
+  private FXManifest manifest(URI uri, long ts) throws IOException {
+    FXManifest manifest = new FXManifest();
+    manifest.uri = uri;
+    manifest.ts = ts;
+    manifest.launchClass = "app.Main";
+    manifest.files.add(new LibraryFile(repo, repo.resolve("app.jar")));
+    return manifest;
+  }
+
+  private void publish(URI uri, long ts) throws IOException {
+    Path app = repo.resolve("app.xml");
+    FXManifestXml.write(manifest(uri, ts), app);
+    // a new version gets a new modification time, even within the resolution of the file system
+    Files.setLastModifiedTime(app, FileTime.fromMillis(ts * 10_000));
+  }
+}
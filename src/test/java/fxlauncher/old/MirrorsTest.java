@@ -0,0 +1,136 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MirrorsTest {
+
+  @TempDir Path tempDir;
+
+  private Path repo;
+  private Path cacheDir;
+
+  @BeforeEach
+  void createDirs() throws IOException {
+    repo = Files.createDirectory(tempDir.resolve("repo"));
+    cacheDir = tempDir.resolve("cache");
+  }
+
+  @DisplayName("Collects the repository and the mirrors without duplicates or invalid uris")
+  @Test
+  void collectsMirrors() {
+    Mirrors mirrors =
+        Mirrors.of(
+            URI.create("http://origin/app/"),
+            Arrays.asList(" http://one/app/, ,http://origin/app/", null, "http://two/app/,a b"),
+            95);
+
+    assertEquals(
+        Arrays.asList(
+            URI.create("http://origin/app/"),
+            URI.create("http://one/app/"),
+            URI.create("http://two/app/")),
+        mirrors.ranking());
+  }
+
+  @DisplayName("Falls over to a mirror when the repository fails")
+  @Test
+  void fallsOverToMirror() throws Exception {
+    try (StandInServer origin = new StandInServer(repo);
+        StandInServer mirror = new StandInServer(repo)) {
+      FXManifest manifest = new SyntheticRepository(repo).jars(10).create(origin.uri());
+      origin.errors(1.0, 503);
+
+      sync(manifest, new Mirrors(Arrays.asList(origin.uri(), mirror.uri()), 100));
+
+      assertTrue(origin.getInjectedErrors() > 0);
+      assertCached(manifest);
+    }
+  }
+
+  @DisplayName("Sends most downloads to the mirror with the lowest latency")
+  @Test
+  void prefersFastestMirror() throws Exception {
+    try (StandInServer slow = new StandInServer(repo);
+        StandInServer fast = new StandInServer(repo)) {
+      FXManifest manifest =
+          new SyntheticRepository(repo).jars(30).sizes(8192, 0.2, 16384).create(slow.uri());
+      slow.latency(100);
+      Mirrors mirrors = new Mirrors(Arrays.asList(slow.uri(), fast.uri()), 100);
+
+      sync(manifest, mirrors);
+
+      assertEquals(fast.uri(), mirrors.ranking().get(0));
+      assertTrue(
+          fast.getRequests().size() > slow.getRequests().size() * 3,
+          mirrors.summary());
+      assertCached(manifest);
+    }
+  }
+
+  @DisplayName("Hedges a request that takes longer than usual with a request to the next mirror")
+  @Test
+  void hedgesSlowRequest() throws Exception {
+    try (StandInServer first = new StandInServer(repo);
+        StandInServer second = new StandInServer(repo);
+        Mirrors mirrors = new Mirrors(Arrays.asList(first.uri(), second.uri()), 50)) {
+      new SyntheticRepository(repo).jars(1).sizes(1024, 0, 1024).create(first.uri());
+      String file = "lib/module-0000.jar";
+      for (int i = 0; i < Mirrors.MIN_SAMPLES; i++) mirrors.open(file, 0).close();
+      assertTrue(mirrors.hedgeDelay() < Long.MAX_VALUE);
+
+      URI best = mirrors.ranking().get(0);
+      StandInServer slow = best.equals(first.uri()) ? first : second;
+      slow.latency(2000);
+      long started = System.nanoTime();
+      mirrors.open(file, 0).close();
+      long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+      assertEquals(1, mirrors.getHedges());
+      assertTrue(elapsedMillis < 1000, elapsedMillis + " ms");
+    }
+  }
+
+  @DisplayName("Fails with the error of the last mirror when every mirror fails")
+  @Test
+  void failsWhenAllMirrorsFail() throws Exception {
+    try (StandInServer first = new StandInServer(repo);
+        StandInServer second = new StandInServer(repo);
+        Mirrors mirrors = new Mirrors(Arrays.asList(first.uri(), second.uri()), 100)) {
+      first.errors(1.0, 503);
+      second.errors(1.0, 500);
+
+      assertThrows(IOException.class, () -> mirrors.open("lib/missing.jar", 0));
+      assertEquals(1, first.getRequests().size());
+      assertEquals(1, second.getRequests().size());
+    }
+  }
+
+  private void sync(FXManifest manifest, Mirrors mirrors) throws Exception {
+    DownloadProgress progress = new DownloadProgress(Long.MAX_VALUE, it -> {});
+    ArtifactDownloader downloader = new ArtifactDownloader(manifest.uri, cacheDir, progress);
+    downloader.setMirrors(mirrors);
+    try {
+      downloader.downloadAll(manifest.files, 4);
+    } finally {
+      mirrors.close();
+    }
+  }
+
+  private void assertCached(FXManifest manifest) {
+    for (LibraryFile lib : manifest.files) assertFalse(lib.needsUpdate(cacheDir), lib.file);
+  }
+}
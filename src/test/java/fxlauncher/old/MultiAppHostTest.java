@@ -0,0 +1,134 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fxlauncher.config.LauncherConfig;
+import fxlauncher.config.LauncherOption;
+import fxlauncher.model.lifecycle.LifecyclePhase;
+
+public class MultiAppHostTest {
+
+  private static final String MAIN =
+      "package com.example;\n"
+          + "public class Main {\n"
+          + "  public static int launches;\n"
+          + "  public static String[] args;\n"
+          + "  public static void main(String[] args) {\n"
+          + "    launches++;\n"
+          + "    Main.args = args;\n"
+          + "  }\n"
+          + "}\n";
+
+  @TempDir Path tempDir;
+
+  @DisplayName("Splits the command line into the parameters of every application")
+  @Test
+  void splitsApplications() {
+    List<LauncherParams> applications =
+        MultiAppHost.split("--uri=http://a/", "--verbose", "--", "--app=b/app.xml", "--");
+
+    assertEquals(2, applications.size());
+    assertEquals(Arrays.asList("--uri=http://a/", "--verbose"), applications.get(0).getRaw());
+    assertEquals("b/app.xml", applications.get(1).getNamed().get("app"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> MultiAppHost.split("--uri=http://a/", "--", "--verbose"));
+  }
+
+  @DisplayName("Ingests the options of every application into its own configuration")
+  @Test
+  void ingestsOptionsPerApplication() {
+    MultiAppHost host =
+        new MultiAppHost(
+            MultiAppHost.split(
+                "--uri=http://a/", "--download-threads=2", "--verbose", "--", "--uri=http://b/"));
+
+    HeadlessMainLauncher first = host.getLaunchers().get(0);
+    HeadlessMainLauncher second = host.getLaunchers().get(1);
+    assertEquals("2", first.getOption(LauncherOption.DOWNLOAD_THREADS));
+    assertEquals(
+        Collections.singletonList("--verbose"),
+        Arrays.asList(first.getDownstreamParameters().getArgs()));
+    assertEquals(
+        LauncherOption.DOWNLOAD_THREADS.getDefault(),
+        second.getOption(LauncherOption.DOWNLOAD_THREADS));
+    assertEquals(
+        LauncherOption.DOWNLOAD_THREADS.getDefault(),
+        LauncherConfig.getOption(LauncherOption.DOWNLOAD_THREADS));
+  }
+
+  @DisplayName("Starts every application in its own class loader with its own arguments")
+  @Test
+  void hostsApplicationsInIsolation() throws Exception {
+    assumeTrue(TestJars.canCompile(), "Needs a JDK to compile the application");
+    byte[] mainClass = TestJars.compile(tempDir.resolve("build"), "com.example.Main", MAIN);
+
+    Path one = tempDir.resolve("one");
+    Path two = tempDir.resolve("two");
+    LifecyclePhase phase = LifecyclePhase.current;
+    try (StandInServer first = new StandInServer(createRepository(one, mainClass));
+        StandInServer second = new StandInServer(createRepository(two, mainClass))) {
+      writeManifest(one, first.uri());
+      writeManifest(two, second.uri());
+
+      MultiAppHost host =
+          new MultiAppHost(
+              MultiAppHost.split(
+                  "--uri=" + first.uri(),
+                  "--cache-dir=" + tempDir.resolve("cache-one"),
+                  "--name=one",
+                  "--",
+                  "--uri=" + second.uri(),
+                  "--cache-dir=" + tempDir.resolve("cache-two"),
+                  "--name=two"));
+      assertEquals(0, host.run());
+
+      Class<?> firstMain = host.getLaunchers().get(0).getAppClass();
+      Class<?> secondMain = host.getLaunchers().get(1).getAppClass();
+      assertNotSame(firstMain, secondMain);
+      assertNotSame(firstMain.getClassLoader(), secondMain.getClassLoader());
+      assertEquals(1, firstMain.getField("launches").getInt(null));
+      assertEquals(1, secondMain.getField("launches").getInt(null));
+      assertEquals(
+          Collections.singletonList("--name=one"),
+          Arrays.asList((String[]) firstMain.getField("args").get(null)));
+      assertEquals(
+          Collections.singletonList("--name=two"),
+          Arrays.asList((String[]) secondMain.getField("args").get(null)));
+      for (HeadlessMainLauncher launcher : host.getLaunchers())
+        assertEquals(LifecyclePhase.APPLICATION_START, launcher.getLifecycle().getCurrent());
+      String report =
+          new String(
+              Files.readAllBytes(tempDir.resolve("cache-one").resolve(StartupReport.FILENAME)),
+              StandardCharsets.UTF_8);
+      assertTrue(report.contains("\"name\": \"APPLICATION_START\""), report);
+      assertEquals(phase, LifecyclePhase.current);
+    }
+  }
+
+  private static Path createRepository(Path dir, byte[] mainClass) throws Exception {
+    TestJars.write(dir.resolve("lib/tool.jar"), "com.example.Main", mainClass);
+    return dir;
+  }
+
+  private static void writeManifest(Path dir, URI uri) throws Exception {
+    FXManifest manifest = CreateManifest.create(uri, "com.example.Main", dir);
+    FXManifestXml.write(manifest, dir.resolve("app.xml"));
+  }
+}
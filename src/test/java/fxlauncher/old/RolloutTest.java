@@ -0,0 +1,82 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RolloutTest {
+
+  @TempDir Path tempDir;
+
+  @DisplayName("Keeps the client id in the cache dir")
+  @Test
+  void keepsClientId() {
+    Path cacheDir = tempDir.resolve("cache");
+    String id = Rollout.clientId(cacheDir);
+
+    assertTrue(Files.isRegularFile(cacheDir.resolve(Rollout.CLIENT_ID_FILE)));
+    assertEquals(id, Rollout.clientId(cacheDir));
+    assertNotEquals(id, Rollout.clientId(tempDir.resolve("other")));
+  }
+
+  @DisplayName("Rolls a release out to a stable and growing share of the clients")
+  @Test
+  void rollsOutToGrowingShare() throws Exception {
+    FXManifest release = release("lib/app.jar");
+    int[] included = new int[Rollout.BUCKETS + 1];
+    for (int client = 0; client < 2000; client++) {
+      String id = "client-" + client;
+      boolean before = false;
+      for (int percentage = 0; percentage <= Rollout.BUCKETS; percentage += 5) {
+        release.rollout = percentage;
+        boolean now = Rollout.includes(id, release);
+        assertEquals(now, Rollout.includes(id, release));
+        assertTrue(now || !before, "a client stays in the rollout as it grows");
+        if (now) included[percentage]++;
+        before = now;
+      }
+    }
+
+    assertEquals(0, included[0]);
+    assertEquals(2000, included[Rollout.BUCKETS]);
+    assertTrue(included[25] > 400 && included[25] < 600, "about a quarter: " + included[25]);
+    release.rollout = null;
+    assertTrue(Rollout.includes("client-0", release));
+  }
+
+  @DisplayName("Lets other clients go first for the next release")
+  @Test
+  void rotatesEarlyClients() throws Exception {
+    FXManifest first = release("lib/app.jar");
+    FXManifest second = release("lib/app-2.jar");
+    int differ = 0;
+    for (int client = 0; client < 100; client++) {
+      String id = "client-" + client;
+      if (Rollout.bucket(id, first) != Rollout.bucket(id, second)) differ++;
+    }
+    assertTrue(differ > 80);
+
+    // publishing the same release again, with a larger rollout, keeps the clients it had
+    FXManifest again = release("lib/app.jar");
+    again.ts = first.ts + 1;
+    again.rollout = 50;
+    assertEquals(Rollout.bucket("client-0", first), Rollout.bucket("client-0", again));
+  }
+
+  private FXManifest release(String jar) throws Exception {
+    Path dir = Files.createTempDirectory(tempDir, "release");
+    Path file = dir.resolve(jar);
+    Files.createDirectories(file.getParent());
+    Files.write(file, jar.getBytes(StandardCharsets.UTF_8));
+    return CreateManifest.create(URI.create("http://example.com/app/"), "app.Main", dir);
+  }
+}
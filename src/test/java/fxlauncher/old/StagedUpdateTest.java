@@ -0,0 +1,157 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StagedUpdateTest {
+
+  @TempDir Path tempDir;
+
+  private Path cacheDir;
+  private Path cachedManifest;
+  private StagedUpdate staging;
+  private FXManifest update;
+
+  @BeforeEach
+  void stageUpdate() throws IOException {
+    cacheDir = Files.createDirectory(tempDir.resolve("cache"));
+    write(cacheDir.resolve("lib/changed.jar"), "old");
+    write(cacheDir.resolve("lib/unchanged.jar"), "same");
+
+    FXManifest current = manifest(1L);
+    cachedManifest = current.getPath(cacheDir);
+    FXManifestXml.write(current, cachedManifest);
+
+    staging = new StagedUpdate(cacheDir, current.getFilename());
+    update = manifest(2L);
+    write(staging.getDir().resolve("lib/changed.jar"), "new");
+  }
+
+  @DisplayName("Moves a complete update into the cache")
+  @Test
+  void activatesReadyUpdate() throws IOException {
+    staging.markReady(update);
+
+    assertTrue(staging.activate(cachedManifest));
+
+    assertEquals("new", read(cacheDir.resolve("lib/changed.jar")));
+    assertEquals("same", read(cacheDir.resolve("lib/unchanged.jar")));
+    assertEquals(update.ts, FXManifestXml.read(cachedManifest).ts);
+    assertFalse(Files.exists(staging.getDir().resolve("lib/changed.jar")));
+    assertNull(staging.getReadyManifest());
+  }
+
+  @DisplayName("Activates the validators of the response the update was read from")
+  @Test
+  void activatesValidators() throws IOException {
+    update.validators =
+        new ManifestValidators(URI.create("http://fxldemo.tornado.no/app.xml"), "\"v2\"", null);
+    staging.markReady(update);
+    assertEquals("\"v2\"", staging.getReadyManifest().validators.etag);
+
+    assertTrue(staging.activate(cachedManifest));
+
+    FXManifest activated = FXManifestXml.read(cachedManifest);
+    assertEquals("\"v2\"", ManifestValidators.load(cachedManifest, activated).etag);
+  }
+
+  @DisplayName("Leaves the cache alone while the update is incomplete")
+  @Test
+  void keepsIncompleteUpdate() throws IOException {
+    assertFalse(staging.activate(cachedManifest));
+
+    assertEquals("old", read(cacheDir.resolve("lib/changed.jar")));
+    assertEquals(1L, (long) FXManifestXml.read(cachedManifest).ts);
+    // kept, so the next attempt does not download it again
+    assertTrue(Files.exists(staging.getDir().resolve("lib/changed.jar")));
+  }
+
+  @DisplayName("Puts the cache back as it was when a file cannot be replaced")
+  @Test
+  void restoresCacheWhenActivationFails() throws IOException {
+    // the cached file is in the way of the staged one
+    write(cacheDir.resolve("lib/blocked"), "in the way");
+    write(staging.getDir().resolve("lib/blocked/added.jar"), "new");
+    LibraryFile blocked = new LibraryFile();
+    blocked.file = "lib/blocked/added.jar";
+    blocked.checksum = 0L;
+    blocked.size = 3L;
+    update.files.add(blocked);
+    staging.markReady(update);
+
+    assertFalse(staging.activate(cachedManifest));
+
+    assertEquals("old", read(cacheDir.resolve("lib/changed.jar")));
+    assertEquals("same", read(cacheDir.resolve("lib/unchanged.jar")));
+    assertEquals(1L, (long) FXManifestXml.read(cachedManifest).ts);
+    assertFalse(
+        Files.exists(staging.getDir().resolve("lib/changed.jar" + StagedUpdate.BACKUP_SUFFIX)));
+    // still staged, so the next attempt activates it without downloading anything
+    assertEquals("new", read(staging.getDir().resolve("lib/changed.jar")));
+    assertEquals(update, staging.getReadyManifest());
+  }
+
+  @DisplayName("Returns to incomplete when the staged update is discarded")
+  @Test
+  void discardsReadyUpdate() throws IOException {
+    staging.markReady(update);
+    assertEquals(update, staging.getReadyManifest());
+
+    staging.discard();
+
+    assertNull(staging.getReadyManifest());
+    assertFalse(staging.activate(cachedManifest));
+  }
+
+  @DisplayName("Links the cached version of a patched file into the staging folder")
+  @Test
+  void seedsPatchedFiles() throws IOException {
+    LibraryFile lib = new LibraryFile();
+    lib.file = "lib/unchanged.jar";
+    lib.patches.add(new LibraryPatch(1L, "patches/lib/unchanged.jar.1.fxpatch", 1L));
+
+    staging.seed(lib);
+
+    Path seeded = staging.getDir().resolve(lib.file);
+    assertArrayEquals(
+        Files.readAllBytes(cacheDir.resolve(lib.file)), Files.readAllBytes(seeded));
+  }
+
+  private static FXManifest manifest(long ts) {
+    FXManifest manifest = new FXManifest();
+    manifest.ts = ts;
+    manifest.uri = URI.create("http://fxldemo.tornado.no/");
+    manifest.launchClass = "no.tornado.FxlDemo";
+    for (String file : new String[] {"lib/changed.jar", "lib/unchanged.jar"}) {
+      LibraryFile lib = new LibraryFile();
+      lib.file = file;
+      lib.checksum = 0L;
+      lib.size = 3L;
+      manifest.files.add(lib);
+    }
+    return manifest;
+  }
+
+  private static void write(Path file, String content) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String read(Path file) throws IOException {
+    return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+  }
+}
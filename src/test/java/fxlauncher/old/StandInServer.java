@@ -0,0 +1,324 @@
+package fxlauncher.old;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves a directory over http on localhost, standing in for the application repository in load
+ * tests and benchmarks. The conditions of a real network can be simulated: latency before every
+ * response, a bandwidth cap per connection and for the whole server, and injected errors, both
+ * error responses and connections that drop halfway through the body. A capacity turns away the
+ * requests that arrive while the server is busy with <code>503</code> and a <code>Retry-After
+ * </code> header, like an overloaded repository behind a load balancer does.
+ *
+ * <p>Requests with a <code>Range: bytes=N-</code> header are answered with the rest of the file,
+ * and every file carries an <code>ETag</code> and a <code>Last-Modified</code> header that
+ * conditional requests are checked against, like a static file server does.
+ */
+class StandInServer implements AutoCloseable {
+  private final Path dir;
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  private volatile long latencyMillis;
+  private volatile long connectionBandwidth;
+  private volatile Throttle serverThrottle;
+  private volatile double errorRate;
+  private volatile int errorStatus = 503;
+  private volatile double truncationRate;
+  private volatile int capacity;
+  private volatile int retryAfterSeconds = -1;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final Random random = new Random(42);
+
+  private final Queue<String> requests = new ConcurrentLinkedQueue<>();
+  private final Queue<Long> requestTimes = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger rejected = new AtomicInteger();
+  private final AtomicLong bytesSent = new AtomicLong();
+  private final AtomicInteger injectedErrors = new AtomicInteger();
+  private final AtomicInteger notModified = new AtomicInteger();
+
+  /**
+   * Start serving the directory.
+   *
+   * @param dir the root of the repository
+   */
+  StandInServer(Path dir) throws IOException {
+    this.dir = dir;
+    AtomicInteger threads = new AtomicInteger();
+    executor =
+        Executors.newCachedThreadPool(
+            runnable -> {
+              Thread thread = new Thread(runnable, "StandInServer-" + threads.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", this::handle);
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  /** @param millis the time to wait before every response */
+  StandInServer latency(long millis) {
+    this.latencyMillis = millis;
+    return this;
+  }
+
+  /**
+   * Cap the bandwidth.
+   *
+   * @param perConnection bytes per second for a single response, 0 for no cap
+   * @param total bytes per second for all responses together, 0 for no cap
+   */
+  StandInServer bandwidth(long perConnection, long total) {
+    this.connectionBandwidth = perConnection;
+    this.serverThrottle = total > 0 ? new Throttle(total) : null;
+    return this;
+  }
+
+  /**
+   * Answer a share of the requests with an error instead of the file.
+   *
+   * @param rate the probability of an error, between 0 and 1
+   * @param status the status of the error response
+   */
+  StandInServer errors(double rate, int status) {
+    this.errorRate = rate;
+    this.errorStatus = status;
+    return this;
+  }
+
+  /**
+   * Turn away the requests that arrive while the server is busy with others.
+   *
+   * @param maxConcurrent the number of requests served at the same time, 0 for no limit
+   * @param retryAfterSeconds the <code>Retry-After</code> of the <code>503</code> answer, and of
+   *     injected errors, or -1 for none
+   */
+  StandInServer capacity(int maxConcurrent, int retryAfterSeconds) {
+    this.capacity = maxConcurrent;
+    this.retryAfterSeconds = retryAfterSeconds;
+    return this;
+  }
+
+  /**
+   * Drop the connection halfway through the body of a share of the responses.
+   *
+   * @param rate the probability of a truncated response, between 0 and 1
+   */
+  StandInServer truncations(double rate) {
+    this.truncationRate = rate;
+    return this;
+  }
+
+  /** @param seed the seed that decides which requests fail */
+  StandInServer seed(long seed) {
+    synchronized (random) {
+      random.setSeed(seed);
+    }
+    return this;
+  }
+
+  /** @return the uri of the repository, ending with a slash */
+  URI uri() {
+    return URI.create(String.format("http://localhost:%d/", server.getAddress().getPort()));
+  }
+
+  /** @return the paths of all requests so far, in the order they arrived */
+  Queue<String> getRequests() {
+    return requests;
+  }
+
+  /** @return the {@link System#nanoTime()} of all requests so far, in the order they arrived */
+  Queue<Long> getRequestTimes() {
+    return requestTimes;
+  }
+
+  /** @return the number of requests turned away because the server was at capacity */
+  int getRejected() {
+    return rejected.get();
+  }
+
+  /** @return the number of body bytes sent so far */
+  long getBytesSent() {
+    return bytesSent.get();
+  }
+
+  /** @return the number of error responses and truncated responses so far */
+  int getInjectedErrors() {
+    return injectedErrors.get();
+  }
+
+  /** @return the number of conditional requests answered with 304 Not Modified so far */
+  int getNotModified() {
+    return notModified.get();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    boolean counted = false;
+    try {
+      String path = exchange.getRequestURI().getPath();
+      requestTimes.add(System.nanoTime());
+      requests.add(path);
+
+      int maxConcurrent = capacity;
+      if (maxConcurrent > 0) {
+        counted = true;
+        if (inFlight.incrementAndGet() > maxConcurrent) {
+          rejected.incrementAndGet();
+          sendBusy(exchange, 503);
+          return;
+        }
+      }
+      sleep(latencyMillis);
+
+      if (chance(errorRate)) {
+        injectedErrors.incrementAndGet();
+        sendBusy(exchange, errorStatus);
+        return;
+      }
+
+      Path file = dir.resolve(path.substring(1)).normalize();
+      if (!file.startsWith(dir) || !Files.isRegularFile(file)) {
+        exchange.sendResponseHeaders(404, -1);
+        return;
+      }
+
+      // validators like a static file server, so conditional requests are answered with 304
+      long size = Files.size(file);
+      long modified = Files.getLastModifiedTime(file).toMillis();
+      String etag = String.format("\"%x-%x\"", size, modified);
+      String lastModified =
+          DateTimeFormatter.RFC_1123_DATE_TIME.format(
+              Instant.ofEpochMilli(modified).atZone(ZoneOffset.UTC));
+      exchange.getResponseHeaders().add("ETag", etag);
+      exchange.getResponseHeaders().add("Last-Modified", lastModified);
+      String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+      String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+      if (ifNoneMatch != null
+          ? ifNoneMatch.equals(etag)
+          : lastModified.equals(ifModifiedSince)) {
+        notModified.incrementAndGet();
+        exchange.sendResponseHeaders(304, -1);
+        return;
+      }
+
+      long offset = rangeStart(exchange.getRequestHeaders().getFirst("Range"));
+      if (offset > 0 && offset < size) {
+        exchange
+            .getResponseHeaders()
+            .add("Content-Range", String.format("bytes %d-%d/%d", offset, size - 1, size));
+        exchange.sendResponseHeaders(206, size - offset);
+      } else {
+        offset = 0;
+        exchange.sendResponseHeaders(200, size);
+      }
+
+      // a truncated response stops halfway and closes the connection
+      long length = size - offset;
+      long limit = chance(truncationRate) ? length / 2 : length;
+      if (limit < length) injectedErrors.incrementAndGet();
+      send(file, offset, limit, exchange.getResponseBody());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      if (counted) inFlight.decrementAndGet();
+      exchange.close();
+    }
+  }
+
+  private void sendBusy(HttpExchange exchange, int status) throws IOException {
+    if (retryAfterSeconds >= 0)
+      exchange.getResponseHeaders().add("Retry-After", String.valueOf(retryAfterSeconds));
+    exchange.sendResponseHeaders(status, -1);
+  }
+
+  private void send(Path file, long offset, long limit, OutputStream output)
+      throws IOException, InterruptedException {
+    Throttle connection = connectionBandwidth > 0 ? new Throttle(connectionBandwidth) : null;
+    Throttle server = serverThrottle;
+    byte[] buf = new byte[16384];
+    try (InputStream input = Files.newInputStream(file)) {
+      long skipped = 0;
+      while (skipped < offset) skipped += input.skip(offset - skipped);
+
+      long sent = 0;
+      while (sent < limit) {
+        int read = input.read(buf, 0, (int) Math.min(buf.length, limit - sent));
+        if (read < 0) break;
+        if (connection != null) connection.acquire(read);
+        if (server != null) server.acquire(read);
+        // counted first, the client may be done as soon as the last bytes are written
+        bytesSent.addAndGet(read);
+        output.write(buf, 0, read);
+        sent += read;
+      }
+    }
+  }
+
+  private boolean chance(double rate) {
+    if (rate <= 0) return false;
+    synchronized (random) {
+      return random.nextDouble() < rate;
+    }
+  }
+
+  private static long rangeStart(String range) {
+    if (range == null || !range.startsWith("bytes=") || !range.endsWith("-")) return 0;
+    try {
+      return Long.parseLong(range.substring(6, range.length() - 1));
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private static void sleep(long millis) throws InterruptedException {
+    if (millis > 0) Thread.sleep(millis);
+  }
+
+  /** Spaces out the bytes sent so they never exceed a rate. */
+  private static class Throttle {
+    private final long bytesPerSecond;
+    private long nextFree = System.nanoTime();
+
+    Throttle(long bytesPerSecond) {
+      this.bytesPerSecond = bytesPerSecond;
+    }
+
+    void acquire(int bytes) throws InterruptedException {
+      long wait;
+      synchronized (this) {
+        long now = System.nanoTime();
+        nextFree = Math.max(nextFree, now) + bytes * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond;
+        wait = nextFree - now;
+      }
+      if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StandInServerTest {
+
+  @TempDir Path tempDir;
+
+  private Path repo;
+  private Path cacheDir;
+  private HeadlessMainLauncher launcher;
+
+  @BeforeEach
+  void createDirs() throws IOException {
+    repo = Files.createDirectory(tempDir.resolve("repo"));
+    cacheDir = tempDir.resolve("cache");
+    launcher = new HeadlessMainLauncher(new LauncherParams(Collections.emptyList()));
+  }
+
+  @DisplayName("Generates jars and native libraries for every platform into the manifest")
+  @Test
+  void generatesRepository() throws Exception {
+    FXManifest manifest =
+        new SyntheticRepository(repo)
+            .jars(10)
+            .sizes(8192, 1.0, 65536)
+            .nativeLibs(2, 4096)
+            .create(repo.toUri());
+
+    assertEquals(SyntheticRepository.LAUNCH_CLASS, manifest.launchClass);
+    assertEquals(16, manifest.files.size());
+    for (OS os : new OS[] {OS.linux, OS.win, OS.mac})
+      assertEquals(2, manifest.files.stream().filter(it -> it.os == os).count());
+    for (LibraryFile lib : manifest.files) {
+      assertTrue(lib.size <= 65536 + 1024, lib.file);
+      assertFalse(lib.needsUpdate(repo), lib.file);
+    }
+    assertTrue(Files.exists(repo.resolve("app.xml")));
+  }
+
+  @DisplayName("Syncs a repository through the stand-in no faster than its bandwidth cap")
+  @Test
+  void syncsWithinBandwidthCap() throws Exception {
+    try (StandInServer server = new StandInServer(repo)) {
+      FXManifest manifest =
+          new SyntheticRepository(repo)
+              .jars(20)
+              .sizes(16384, 0.5, 65536)
+              .nativeLibs(1, 8192)
+              .create(server.uri());
+      long bandwidth = 1024 * 1024;
+      server.latency(20).bandwidth(256 * 1024, bandwidth);
+
+      long started = System.nanoTime();
+      assertTrue(launcher.syncFiles(manifest, cacheDir, null, progress -> {}));
+      long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+      List<LibraryFile> platformFiles = platformFiles(manifest);
+      long bytes = platformFiles.stream().mapToLong(it -> it.size).sum();
+      for (LibraryFile lib : platformFiles) assertFalse(lib.needsUpdate(cacheDir), lib.file);
+      assertEquals(bytes, server.getBytesSent());
+      assertTrue(elapsedMillis >= bytes * 1000 / bandwidth, elapsedMillis + " ms");
+    }
+  }
+
+  @DisplayName("Fails the sync when the stand-in answers with errors")
+  @Test
+  void failsOnInjectedErrors() throws Exception {
+    try (StandInServer server = new StandInServer(repo)) {
+      FXManifest manifest = new SyntheticRepository(repo).jars(5).create(server.uri());
+      server.errors(1.0, 503);
+
+      assertThrows(
+          IOException.class, () -> launcher.syncFiles(manifest, cacheDir, null, progress -> {}));
+      assertTrue(server.getInjectedErrors() > 0);
+    }
+  }
+
+  @DisplayName("Completes a sync after an earlier one was cut off by dropped connections")
+  @Test
+  void recoversFromTruncatedResponses() throws Exception {
+    try (StandInServer server = new StandInServer(repo)) {
+      FXManifest manifest =
+          new SyntheticRepository(repo).jars(5).sizes(65536, 0.2, 131072).create(server.uri());
+      server.truncations(1.0);
+
+      assertThrows(
+          IOException.class, () -> launcher.syncFiles(manifest, cacheDir, null, progress -> {}));
+
+      server.truncations(0);
+      assertTrue(launcher.syncFiles(manifest, cacheDir, null, progress -> {}));
+      for (LibraryFile lib : platformFiles(manifest))
+        assertFalse(lib.needsUpdate(cacheDir), lib.file);
+    }
+  }
+
+  private static List<LibraryFile> platformFiles(FXManifest manifest) {
+    return manifest
+        .files
+        .stream()
+        .filter(LibraryFile::loadForCurrentPlatform)
+        .collect(Collectors.toList());
+  }
+}
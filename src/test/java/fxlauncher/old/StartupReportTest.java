@@ -0,0 +1,149 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fxlauncher.model.lifecycle.LifecycleGraph;
+import fxlauncher.model.lifecycle.LifecyclePhase;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StartupReportTest {
+
+  @TempDir Path tempDir;
+
+  @DisplayName("Records every phase of a lifecycle graph")
+  @Test
+  void recordsPhases() throws Exception {
+    StartupReport report = new StartupReport();
+    new LifecycleGraph()
+        .listener(report)
+        .task(LifecyclePhase.SYNC_ARTIFACTS, () -> Thread.sleep(20))
+        .run();
+
+    List<StartupReport.Span> phases =
+        report
+            .getSpans()
+            .stream()
+            .filter(it -> it.getCategory().equals(StartupReport.PHASE))
+            .collect(Collectors.toList());
+    assertEquals(LifecyclePhase.values().length, phases.size());
+    assertTrue(report.toJson().contains("\"name\": \"SYNC_ARTIFACTS\""));
+  }
+
+  @DisplayName("Reports a phase that has not completed as running")
+  @Test
+  void recordsRunningPhase() throws Exception {
+    StartupReport report = new StartupReport();
+    String[] json = new String[1];
+    new LifecycleGraph()
+        .listener(report)
+        .listener(
+            new LifecycleGraph.Listener() {
+              @Override
+              public void phaseStarted(LifecyclePhase phase) {
+                if (phase == LifecyclePhase.APPLICATION_START) json[0] = report.toJson();
+              }
+
+              @Override
+              public void phaseFinished(
+                  LifecyclePhase phase, long startNanos, long endNanos, Throwable failure) {}
+            })
+        .run();
+
+    assertTrue(json[0].contains("\"name\": \"APPLICATION_INIT\""));
+    assertTrue(json[0].matches("(?s).*\"APPLICATION_START\".*\"running\": true}\n  ]\n}\n"));
+    assertFalse(report.getSpans().stream().anyMatch(StartupReport.Span::isRunning));
+  }
+
+  @DisplayName("Records the bytes and files of every download and verification")
+  @Test
+  void recordsDownloads() throws Exception {
+    Path repo = Files.createDirectory(tempDir.resolve("repo"));
+    Path cacheDir = Files.createDirectory(tempDir.resolve("cache"));
+    Path file = repo.resolve("app.jar");
+    Files.write(file, new byte[12_345]);
+    LibraryFile lib = new LibraryFile(repo, file);
+
+    StartupReport report = new StartupReport();
+    ArtifactDownloader downloader =
+        new ArtifactDownloader(repo.toUri(), cacheDir, new DownloadProgress(lib.size, it -> {}));
+    downloader.setReport(report);
+    downloader.download(lib);
+
+    StartupReport.Span download = span(report, StartupReport.DOWNLOAD);
+    assertEquals("app.jar", download.getName());
+    assertEquals(12_345, download.getBytes());
+    assertEquals(1, download.getFiles());
+    assertFalse(download.isFailed());
+    assertEquals(12_345, span(report, StartupReport.VERIFY).getBytes());
+  }
+
+  @DisplayName("Marks failed downloads")
+  @Test
+  void recordsFailures() {
+    LibraryFile missing = new LibraryFile();
+    missing.file = "missing.jar";
+    missing.size = 1L;
+    missing.checksum = 1L;
+
+    StartupReport report = new StartupReport();
+    ArtifactDownloader downloader =
+        new ArtifactDownloader(tempDir.toUri(), tempDir, new DownloadProgress(1, it -> {}));
+    downloader.setReport(report);
+
+    try {
+      downloader.download(missing);
+    } catch (IOException expected) {
+      // recorded below
+    }
+    assertTrue(span(report, StartupReport.DOWNLOAD).isFailed());
+  }
+
+  @DisplayName("Writes the report, and the trace event file when asked to")
+  @Test
+  void writesReportAndTrace() throws Exception {
+    StartupReport report = new StartupReport();
+    report.begin(StartupReport.DOWNLOAD, "lib/\"quoted\".jar").add(100, 1).end();
+    report.begin(StartupReport.DOWNLOAD, "lib/other.jar").add(50, 1).end();
+
+    report.write(tempDir, false);
+    assertTrue(Files.exists(tempDir.resolve(StartupReport.FILENAME)));
+    assertFalse(Files.exists(tempDir.resolve(StartupReport.TRACE_FILENAME)));
+
+    String json =
+        new String(
+            Files.readAllBytes(tempDir.resolve(StartupReport.FILENAME)), StandardCharsets.UTF_8);
+    assertTrue(json.contains("\"download\": {\"count\": 2,"));
+    assertTrue(json.contains("\"bytes\": 150, \"files\": 2}"));
+    assertTrue(json.contains("\"lib/\\\"quoted\\\".jar\""));
+
+    report.write(tempDir, true);
+    String trace =
+        new String(
+            Files.readAllBytes(tempDir.resolve(StartupReport.TRACE_FILENAME)),
+            StandardCharsets.UTF_8);
+    assertTrue(trace.startsWith("{\"displayTimeUnit\": \"ms\", \"traceEvents\": ["));
+    assertTrue(trace.contains("\"ph\": \"X\""));
+    assertTrue(trace.contains("\"name\": \"thread_name\""));
+  }
+
+  private static StartupReport.Span span(StartupReport report, String category) {
+    return report
+        .getSpans()
+        .stream()
+        .filter(it -> it.getCategory().equals(category))
+        .findFirst()
+        .orElseThrow(AssertionError::new);
+  }
+}
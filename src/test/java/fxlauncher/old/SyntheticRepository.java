@@ -0,0 +1,147 @@
+package fxlauncher.old;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Generates an application repository for load tests and benchmarks: jars with sizes drawn from a
+ * log-normal distribution, like the dependencies of a real application, and native libraries for
+ * every platform. The manifest is created with {@link CreateManifest#create}, so it lists the files
+ * like a published release.
+ *
+ * <p>Every jar holds one class, <code>com.example.moduleN.Main</code>, and incompressible padding
+ * up to its size. The same seed always generates the same repository.
+ */
+class SyntheticRepository {
+  static final String LAUNCH_CLASS = "com.example.module0.Main";
+
+  private static final String[][] NATIVE_FORMATS = {
+    {"linux", "lib%s.so"}, {"win", "%s.dll"}, {"mac", "lib%s.dylib"}
+  };
+
+  private final Path dir;
+  private int jars = 100;
+  private long medianSize = 128 * 1024;
+  private double sizeSpread = 1.0;
+  private long maxSize = 32L * 1024 * 1024;
+  private int nativeLibs = 0;
+  private long nativeLibSize = 512 * 1024;
+  private long seed = 42;
+
+  /** @param dir the directory to generate the repository in */
+  SyntheticRepository(Path dir) {
+    this.dir = dir;
+  }
+
+  /** @param jars the number of jars, 100 by default */
+  SyntheticRepository jars(int jars) {
+    this.jars = jars;
+    return this;
+  }
+
+  /**
+   * Set the distribution of the jar sizes.
+   *
+   * @param medianSize the median size in bytes, 128 KiB by default
+   * @param spread the standard deviation of the natural logarithm of the size, 1 by default. With
+   *     1, one in six jars is more than 2.7 times the median
+   * @param maxSize the largest size, 32 MiB by default
+   */
+  SyntheticRepository sizes(long medianSize, double spread, long maxSize) {
+    this.medianSize = medianSize;
+    this.sizeSpread = spread;
+    this.maxSize = maxSize;
+    return this;
+  }
+
+  /**
+   * @param perPlatform the number of native libraries for each of linux, windows and mac, none by
+   *     default
+   * @param size the size of every native library
+   */
+  SyntheticRepository nativeLibs(int perPlatform, long size) {
+    this.nativeLibs = perPlatform;
+    this.nativeLibSize = size;
+    return this;
+  }
+
+  /** @param seed the seed of the generated sizes and content */
+  SyntheticRepository seed(long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  /**
+   * Write the files and the manifest, <code>app.xml</code>.
+   *
+   * @param uri the uri the repository will be served from
+   * @return the manifest
+   */
+  FXManifest create(URI uri) throws IOException {
+    Random random = new Random(seed);
+    for (int i = 0; i < jars; i++) {
+      double factor = Math.exp(random.nextGaussian() * sizeSpread);
+      long size = Math.min(maxSize, (long) (medianSize * factor));
+      writeJar(dir.resolve(String.format("lib/module-%04d.jar", i)), i, size, random);
+    }
+    for (int i = 0; i < nativeLibs; i++) {
+      for (String[] format : NATIVE_FORMATS) {
+        String name = String.format(format[1], String.format("native%02d", i));
+        writeRandom(dir.resolve("native").resolve(format[0]).resolve(name), nativeLibSize, random);
+      }
+    }
+
+    CreateManifest.setIncludeExtensions(Arrays.asList("so", "dll", "dylib"));
+    FXManifest manifest;
+    try {
+      manifest = CreateManifest.create(uri, LAUNCH_CLASS, dir);
+    } catch (URISyntaxException e) {
+      throw new IllegalArgumentException(e);
+    }
+    FXManifestXml.write(manifest, dir.resolve("app.xml"));
+    return manifest;
+  }
+
+  private static void writeJar(Path jar, int module, long size, Random random)
+      throws IOException {
+    Files.createDirectories(jar.getParent());
+    String className = String.format("com.example.module%d.Main", module);
+    byte[] classFile = TestJars.emptyClass(className);
+    try (OutputStream file = Files.newOutputStream(jar);
+        JarOutputStream out = new JarOutputStream(file)) {
+      out.putNextEntry(new JarEntry(className.replace('.', '/') + ".class"));
+      out.write(classFile);
+
+      // random bytes do not compress, so the jar ends up close to the requested size
+      long padding = Math.max(0, size - classFile.length - 256);
+      JarEntry entry = new JarEntry(String.format("com/example/module%d/padding.bin", module));
+      entry.setMethod(ZipEntry.DEFLATED);
+      out.putNextEntry(entry);
+      byte[] buf = new byte[8192];
+      for (long written = 0; written < padding; written += buf.length) {
+        random.nextBytes(buf);
+        out.write(buf, 0, (int) Math.min(buf.length, padding - written));
+      }
+    }
+  }
+
+  private static void writeRandom(Path file, long size, Random random) throws IOException {
+    Files.createDirectories(file.getParent());
+    byte[] buf = new byte[8192];
+    try (OutputStream output = Files.newOutputStream(file)) {
+      for (long written = 0; written < size; written += buf.length) {
+        random.nextBytes(buf);
+        output.write(buf, 0, (int) Math.min(buf.length, size - written));
+      }
+    }
+  }
+}
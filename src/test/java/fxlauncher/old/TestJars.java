@@ -0,0 +1,111 @@
+package fxlauncher.old;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/** Writes jars of generated classes for class loader tests and benchmarks. */
+class TestJars {
+
+  /**
+   * Write a jar with an empty public class for every class name, and the given resources.
+   *
+   * @param jar the jar to write
+   * @param classNames binary names of the classes, like <code>com.example.Main</code>
+   * @param resources resource names and their content
+   */
+  static void write(Path jar, Iterable<String> classNames, Map<String, String> resources)
+      throws IOException {
+    Files.createDirectories(jar.getParent());
+    try (OutputStream file = Files.newOutputStream(jar);
+        JarOutputStream out = new JarOutputStream(file)) {
+      for (String name : classNames) {
+        out.putNextEntry(new JarEntry(name.replace('.', '/') + ".class"));
+        out.write(emptyClass(name));
+      }
+      for (Map.Entry<String, String> resource : resources.entrySet()) {
+        out.putNextEntry(new JarEntry(resource.getKey()));
+        out.write(resource.getValue().getBytes(StandardCharsets.UTF_8));
+      }
+    }
+  }
+
+  /** The class file of <code>public class name {}</code>, without a constructor. */
+  static byte[] emptyClass(String name) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(0xCAFEBABE);
+    out.writeShort(0); // minor version
+    out.writeShort(52); // Java 8
+    out.writeShort(5); // constant pool count + 1
+    out.writeByte(7); // #1 Class #2
+    out.writeShort(2);
+    out.writeByte(1); // #2 Utf8 name
+    out.writeUTF(name.replace('.', '/'));
+    out.writeByte(7); // #3 Class #4
+    out.writeShort(4);
+    out.writeByte(1); // #4 Utf8 java/lang/Object
+    out.writeUTF("java/lang/Object");
+    out.writeShort(0x0021); // public super
+    out.writeShort(1); // this class
+    out.writeShort(3); // super class
+    out.writeShort(0); // interfaces
+    out.writeShort(0); // fields
+    out.writeShort(0); // methods
+    out.writeShort(0); // attributes
+    return bytes.toByteArray();
+  }
+
+  /** @return true if the tests run on a JDK, which {@link #compile} needs */
+  static boolean canCompile() {
+    return ToolProvider.getSystemJavaCompiler() != null;
+  }
+
+  /**
+   * Compile the source of a class, for tests that need classes with code.
+   *
+   * @param workDir an empty directory for the source and class files
+   * @param className the binary name of the class
+   * @param source the source of the class
+   * @return the class file
+   */
+  static byte[] compile(Path workDir, String className, String source) throws IOException {
+    String path = className.replace('.', '/');
+    Path file = workDir.resolve("src").resolve(path + ".java");
+    Path classes = workDir.resolve("classes");
+    Files.createDirectories(file.getParent());
+    Files.createDirectories(classes);
+    Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler.run(null, null, null, "-d", classes.toString(), file.toString()) != 0)
+      throw new IOException(String.format("Unable to compile %s", className));
+    return Files.readAllBytes(classes.resolve(path + ".class"));
+  }
+
+  /**
+   * Write a jar with one class.
+   *
+   * @param jar the jar to write
+   * @param className the binary name of the class
+   * @param classFile the class file
+   */
+  static void write(Path jar, String className, byte[] classFile) throws IOException {
+    Files.createDirectories(jar.getParent());
+    try (OutputStream file = Files.newOutputStream(jar);
+        JarOutputStream out = new JarOutputStream(file)) {
+      out.putNextEntry(new JarEntry(className.replace('.', '/') + ".class"));
+      out.write(classFile);
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package fxlauncher.old;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class UpdateDaemonTest {
+
+  private static final String RUNNING = "update-daemon-test.running";
+  private static final String STOPPED = "update-daemon-test.stopped";
+  private static final String SERVICE = "com.example.Service";
+
+  /** A service that runs until it is asked to stop. */
+  private static final String STOPPABLE =
+      "package com.example;\n"
+          + "public class Service {\n"
+          + "  private static volatile boolean stopped;\n"
+          + "  public static void main(String[] args) throws Exception {\n"
+          + "    System.setProperty(\"" + RUNNING + "\", \"%1$s\");\n"
+          + "    while (!stopped) Thread.sleep(5);\n"
+          + "    System.setProperty(\"" + STOPPED + "\",\n"
+          + "        System.getProperty(\"" + STOPPED + "\", \"\") + \"%1$s\");\n"
+          + "  }\n"
+          + "  public static void stop() {\n"
+          + "    stopped = true;\n"
+          + "  }\n"
+          + "}\n";
+
+  /** A service without <code>stop()</code>, which runs until it is interrupted. */
+  private static final String INTERRUPTIBLE =
+      "package com.example;\n"
+          + "public class Service {\n"
+          + "  public static void main(String[] args) {\n"
+          + "    System.setProperty(\"" + RUNNING + "\", \"%1$s\");\n"
+          + "    try {\n"
+          + "      Thread.sleep(60000);\n"
+          + "    } catch (InterruptedException e) {\n"
+          + "      System.setProperty(\"" + STOPPED + "\", \"%1$s\");\n"
+          + "    }\n"
+          + "  }\n"
+          + "}\n";
+
+  @TempDir Path tempDir;
+
+  private Path repo;
+  private Path cacheDir;
+
+  @BeforeEach
+  void createDirs() throws Exception {
+    assumeTrue(TestJars.canCompile(), "Needs a JDK to compile the application");
+    repo = Files.createDirectory(tempDir.resolve("repo"));
+    cacheDir = tempDir.resolve("cache");
+  }
+
+  @AfterEach
+  void clearProperties() {
+    System.clearProperty(RUNNING);
+    System.clearProperty(STOPPED);
+  }
+
+  @DisplayName("Stages a new version while the current one runs, then swaps them")
+  @Test
+  void switchesToNewVersion() throws Exception {
+    try (StandInServer server = new StandInServer(repo)) {
+      publish(STOPPABLE, "v1", server.uri());
+      UpdateDaemon daemon = new UpdateDaemon(launcher(server.uri()), cacheDir, 60_000);
+      daemon.start();
+      try {
+        awaitProperty(RUNNING, "v1");
+        assertFalse(daemon.poll());
+        Class<?> first = daemon.getAppClass();
+
+        Thread.sleep(10);
+        FXManifest update = publish(STOPPABLE, "v2", server.uri());
+        assertTrue(daemon.poll());
+
+        awaitProperty(RUNNING, "v2");
+        assertEquals("v1", System.getProperty(STOPPED));
+        assertNotSame(first, daemon.getAppClass());
+        assertEquals(update.ts, FXManifestXml.read(update.getPath(cacheDir)).ts);
+        assertFalse(Files.exists(cacheDir.resolve(StagedUpdate.DIRNAME).resolve("app.xml")));
+
+        // the validators of the new version came along, so the next poll is answered with 304
+        int notModified = server.getNotModified();
+        assertFalse(daemon.poll());
+        assertEquals(notModified + 1, server.getNotModified());
+      } finally {
+        daemon.stop();
+      }
+      assertEquals("v1v2", System.getProperty(STOPPED));
+      assertNull(daemon.getAppClass());
+    }
+  }
+
+  @DisplayName("Interrupts an application that declares no stop method")
+  @Test
+  void interruptsWithoutStopMethod() throws Exception {
+    try (StandInServer server = new StandInServer(repo)) {
+      publish(INTERRUPTIBLE, "v1", server.uri());
+      UpdateDaemon daemon = new UpdateDaemon(launcher(server.uri()), cacheDir, 60_000);
+      daemon.start();
+      awaitProperty(RUNNING, "v1");
+
+      daemon.stop();
+
+      assertEquals("v1", System.getProperty(STOPPED));
+    }
+  }
+
+  private HeadlessMainLauncher launcher(URI uri) throws Exception {
+    HeadlessMainLauncher launcher =
+        new HeadlessMainLauncher(
+            new LauncherParams(
+                Arrays.asList("--uri=" + uri, "--cache-dir=" + cacheDir, "--daemon")));
+    launcher.syncManifest();
+    launcher.syncFiles();
+    return launcher;
+  }
+
+  private FXManifest publish(String source, String version, URI uri) throws Exception {
+    Path build = tempDir.resolve("build-" + version);
+    byte[] service = TestJars.compile(build, SERVICE, String.format(source, version));
+    TestJars.write(repo.resolve("lib/service.jar"), SERVICE, service);
+    FXManifest manifest = CreateManifest.create(uri, SERVICE, repo);
+    FXManifestXml.write(manifest, repo.resolve("app.xml"));
+    return manifest;
+  }
+
+  private static void awaitProperty(String name, String value) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!value.equals(System.getProperty(name)) && System.currentTimeMillis() < deadline)
+      Thread.sleep(5);
+    assertEquals(value, System.getProperty(name));
+  }
+}